@@ -0,0 +1,215 @@
+package com.electrical.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Нагрузочный тест HTTP API ({@code CliMain serve}): множество клиентов
+ * отправляют запросы без пауз, каждый в своём виртуальном потоке. После
+ * прогрева выводятся пропускная способность и перцентили задержки.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.electrical.benchmark.ApiLoadTest --clients 200 --duration 30
+ * java -cp target/benchmarks.jar com.electrical.benchmark.ApiLoadTest --mix divider --token &lt;токен&gt;
+ * </pre>
+ *
+ * <p>Параметры: {@code --url} (по умолчанию http://127.0.0.1:8765),
+ * {@code --clients}, {@code --duration} и {@code --warmup} в секундах,
+ * {@code --mix ohm|divider|mixed}, {@code --token} — токен входа, чтобы
+ * измерять запросы с сохранением истории.</p>
+ */
+public final class ApiLoadTest {
+
+    // Разные выходные напряжения, чтобы запросы делителя не обслуживались только кэшем
+    private static final int DISTINCT_DIVIDER_QUERIES = 200;
+
+    private ApiLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://127.0.0.1:8765";
+        int clients = 64;
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        String mix = "mixed";
+        String token = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url" -> url = args[i + 1];
+                case "--clients" -> clients = Integer.parseInt(args[i + 1]);
+                case "--duration" -> durationSeconds = Integer.parseInt(args[i + 1]);
+                case "--warmup" -> warmupSeconds = Integer.parseInt(args[i + 1]);
+                case "--mix" -> mix = args[i + 1];
+                case "--token" -> token = args[i + 1];
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + args[i]);
+            }
+        }
+        if (!List.of("ohm", "divider", "mixed").contains(mix)) {
+            throw new IllegalArgumentException("--mix должен быть ohm, divider или mixed");
+        }
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Workload workload = new Workload(URI.create(url.replaceAll("/+$", "")), mix, token);
+
+        System.out.printf("Прогрев: %d с, %d клиентов, нагрузка %s%n", warmupSeconds, clients, mix);
+        run(http, workload, clients, Duration.ofSeconds(warmupSeconds));
+        System.out.printf("Измерение: %d с%n", durationSeconds);
+        Stats stats = run(http, workload, clients, Duration.ofSeconds(durationSeconds));
+        stats.print(durationSeconds);
+    }
+
+    private static Stats run(HttpClient http, Workload workload, int clients, Duration duration)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Client> started = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Client client = new Client(http, workload, deadline);
+                started.add(client);
+                executor.submit(client);
+            }
+        }
+        Stats stats = new Stats();
+        for (Client client : started) {
+            stats.add(client);
+        }
+        return stats;
+    }
+
+    /**
+     * Запросы нагрузки
+     */
+    private record Workload(URI base, String mix, String token) {
+
+        HttpRequest next(ThreadLocalRandom random) {
+            boolean divider = switch (mix) {
+                case "ohm" -> false;
+                case "divider" -> true;
+                // Расчёт по закону Ома мгновенный, поиск делителя — тяжёлый запрос
+                default -> random.nextInt(10) < 2;
+            };
+            String body;
+            String path;
+            if (divider) {
+                double vOut = 0.5 + 4.0 * random.nextInt(DISTINCT_DIVIDER_QUERIES) / DISTINCT_DIVIDER_QUERIES;
+                path = "/api/divider";
+                body = String.format(Locale.ROOT,
+                        "{\"vin\": 5, \"vout\": %.4f, \"tolerance\": 0.5, \"series\": \"E24\", \"maxResults\": 3}", vOut);
+            } else {
+                path = "/api/ohm";
+                body = String.format(Locale.ROOT,
+                        "{\"find\": \"current\", \"voltage\": %.3f, \"resistance\": %d}",
+                        1 + random.nextDouble() * 23, 100 + random.nextInt(100_000));
+            }
+            HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            return request.build();
+        }
+    }
+
+    /**
+     * Клиент, отправляющий запросы подряд до окончания интервала
+     */
+    private static final class Client implements Runnable {
+
+        private final HttpClient http;
+        private final Workload workload;
+        private final long deadline;
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private String lastError;
+
+        Client(HttpClient http, Workload workload, long deadline) {
+            this.http = http;
+            this.workload = workload;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                HttpRequest request = workload.next(random);
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() != 200) {
+                        errors++;
+                        lastError = response.statusCode() + " " + response.body();
+                        continue;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                    lastError = e.toString();
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+        }
+    }
+
+    /**
+     * Итог интервала по всем клиентам
+     */
+    private static final class Stats {
+
+        private long[] latencies = new long[0];
+        private int errors;
+        private String lastError;
+
+        void add(Client client) {
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + client.count);
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            errors += client.errors;
+            if (client.lastError != null) {
+                lastError = client.lastError;
+            }
+        }
+
+        void print(int durationSeconds) {
+            Arrays.sort(latencies);
+            System.out.printf("Запросов: %d, ошибок: %d, %.1f запросов/с%n",
+                    latencies.length, errors, (double) latencies.length / durationSeconds);
+            if (latencies.length > 0) {
+                System.out.printf("Задержка, мс: p50 %.2f, p90 %.2f, p99 %.2f, max %.2f%n",
+                        percentile(0.50), percentile(0.90), percentile(0.99),
+                        latencies[latencies.length - 1] / 1e6);
+            }
+            if (lastError != null) {
+                System.out.println("Последняя ошибка: " + lastError);
+            }
+        }
+
+        private double percentile(double p) {
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
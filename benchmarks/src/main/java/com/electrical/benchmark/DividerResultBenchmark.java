@@ -0,0 +1,129 @@
+package com.electrical.benchmark;
+
+import com.electrical.model.Arm;
+import com.electrical.model.DividerResult;
+import com.electrical.model.ResistorSeries;
+import com.electrical.service.OhmCalculatorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Создание и сортировка {@link DividerResult}, форматирование результатов
+ * для таблицы и истории
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DividerResultBenchmark {
+
+    private static final double V_IN = 12.0;
+    private static final double V_OUT = 5.0;
+    private static final int SORTED_SIZE = 1000;
+
+    private double[] upper;
+    private double[] lower;
+    private Arm upperArm;
+    private Arm lowerArm;
+    private DividerResult result;
+    private List<DividerResult> unsorted;
+
+    @Setup
+    public void setUp() {
+        upper = new double[]{10_000, 4_700};
+        lower = new double[]{10_000};
+        // 10 кОм + (4,7 кОм || 6,8 кОм)
+        upperArm = Arm.series(List.of(Arm.resistor(10_000),
+                Arm.parallel(List.of(Arm.resistor(4_700), Arm.resistor(6_800)))));
+        lowerArm = Arm.resistor(10_000);
+        result = newResult(upper, lower, false, false);
+
+        // Случайные делители из ряда E24: одиночные, последовательные и параллельные плечи
+        double[] values = ResistorSeries.E24.getValuesInRange(1000, 100_000);
+        Random random = new Random(42);
+        unsorted = new ArrayList<>(SORTED_SIZE);
+        for (int i = 0; i < SORTED_SIZE; i++) {
+            double[] r1 = randomArm(values, random);
+            double[] r2 = randomArm(values, random);
+            unsorted.add(newResult(r1, r2, random.nextBoolean(), random.nextBoolean()));
+        }
+    }
+
+    @Benchmark
+    public DividerResult constructFlat() {
+        return newResult(upper, lower, false, false);
+    }
+
+    @Benchmark
+    public DividerResult constructMixed() {
+        double r1 = upperArm.getResistance();
+        double r2 = lowerArm.getResistance();
+        return new DividerResult(upperArm, lowerArm, V_IN, V_IN * r2 / (r1 + r2), V_OUT);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<DividerResult> sort() {
+        List<DividerResult> copy = new ArrayList<>(unsorted);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public String resistorsString() {
+        return result.getUpperResistorsString() + result.getLowerResistorsString();
+    }
+
+    @Benchmark
+    public String schemaType() {
+        return result.getSchemaType();
+    }
+
+    @Benchmark
+    public String resultToString() {
+        return result.toString();
+    }
+
+    @Benchmark
+    public String formatResistance() {
+        return result.formatResistance(result.getUpperResistance());
+    }
+
+    @Benchmark
+    public String ohmFormatters() {
+        return OhmCalculatorService.formatVoltage(result.getVOutActual())
+                + OhmCalculatorService.formatCurrent(result.getCurrent())
+                + OhmCalculatorService.formatResistance(result.getTotalResistance());
+    }
+
+    private static DividerResult newResult(double[] r1, double[] r2, boolean upperParallel, boolean lowerParallel) {
+        double upperResistance = Arm.of(r1, upperParallel).getResistance();
+        double lowerResistance = Arm.of(r2, lowerParallel).getResistance();
+        double vOut = V_IN * lowerResistance / (upperResistance + lowerResistance);
+        return new DividerResult(r1, r2, upperParallel, lowerParallel, V_IN, vOut, V_OUT);
+    }
+
+    private static double[] randomArm(double[] values, Random random) {
+        double[] arm = new double[1 + random.nextInt(2)];
+        for (int i = 0; i < arm.length; i++) {
+            arm[i] = values[random.nextInt(values.length)];
+        }
+        return arm;
+    }
+}
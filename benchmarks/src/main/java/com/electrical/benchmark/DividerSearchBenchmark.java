@@ -0,0 +1,89 @@
+package com.electrical.benchmark;
+
+import com.electrical.model.DividerResult;
+import com.electrical.model.ResistorSeries;
+import com.electrical.service.DividerQueryCache;
+import com.electrical.service.VoltageDividerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подбор делителей {@link VoltageDividerService#findDividerCombinations}
+ * для каждого ряда, узкого и широкого диапазона сопротивлений и нескольких
+ * допусков.
+ *
+ * <p>Кэш запросов отключён, а индекс плеч строится в памяти, поэтому
+ * каждая операция — полный поиск без состояния между вызовами.</p>
+ *
+ * <p>Форк запускается с модулем Vector API; скалярное ядро для сравнения:
+ * {@code -jvmArgsAppend -Delectrical.vector.disabled=true}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dorg.slf4j.simpleLogger.defaultLogLevel=warn",
+        "--add-modules=jdk.incubator.vector"})
+public class DividerSearchBenchmark {
+
+    private static final double V_IN = 12.0;
+    private static final double V_OUT = 3.3;
+    private static final int MAX_RESULTS = 100;
+
+    @Param({"E6", "E12", "E24", "E48", "E96", "E192"})
+    private String seriesName;
+
+    /** narrow — одна декада 1–10 кОм, wide — 10 Ом–1 МОм */
+    @Param({"narrow", "wide"})
+    private String range;
+
+    @Param({"0.1", "1", "5"})
+    private double tolerance;
+
+    private ResistorSeries series;
+    private ForkJoinPool pool;
+    private VoltageDividerService service;
+    private double minResistance;
+    private double maxResistance;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        series = ResistorSeries.valueOf(seriesName);
+        pool = new ForkJoinPool();
+        service = new VoltageDividerService(pool, new DividerQueryCache(0));
+        if ("narrow".equals(range)) {
+            minResistance = 1000;
+            maxResistance = 10_000;
+        } else {
+            minResistance = 10;
+            maxResistance = 1_000_000;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<DividerResult> findDividerCombinations() {
+        return service.findDividerCombinations(
+                V_IN, V_OUT, tolerance, series, minResistance, maxResistance, MAX_RESULTS);
+    }
+}
@@ -0,0 +1,50 @@
+package com.electrical.benchmark;
+
+import com.electrical.model.ResistorSeries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Получение номиналов ряда в диапазоне {@link ResistorSeries#getValuesInRange}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResistorSeriesBenchmark {
+
+    // JMH принимает параметры только примитивных типов, строк и перечислений
+    @Param({"E6", "E12", "E24", "E48", "E96", "E192"})
+    private String seriesName;
+
+    private ResistorSeries series;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        series = ResistorSeries.valueOf(seriesName);
+    }
+
+    @Benchmark
+    public double[] narrowRange() {
+        return series.getValuesInRange(1000, 10_000);
+    }
+
+    @Benchmark
+    public double[] wideRange() {
+        return series.getValuesInRange(10, 1_000_000);
+    }
+}
@@ -0,0 +1,433 @@
+package com.electrical;
+
+import com.electrical.api.ApiServer;
+import com.electrical.dao.DatabaseManager;
+import com.electrical.model.DividerConstraints;
+import com.electrical.model.DividerResult;
+import com.electrical.model.DividerSearchMode;
+import com.electrical.model.DividerSearchResult;
+import com.electrical.model.ResistorSeries;
+import com.electrical.model.ToleranceAnalysis;
+import com.electrical.model.User;
+import com.electrical.service.AuthService;
+import com.electrical.service.CancellationToken;
+import com.electrical.service.DividerBatchWriter;
+import com.electrical.service.DividerQueryCache;
+import com.electrical.service.DividerSpecReader;
+import com.electrical.service.OhmCalculatorService;
+import com.electrical.service.ResistorSeriesLoader;
+import com.electrical.service.ToleranceAnalyzer;
+import com.electrical.service.VoltageDividerService;
+import com.electrical.util.Json;
+
+import java.io.Console;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Консольный запуск расчётов без JavaFX.
+ *
+ * <p>Сервисы {@link OhmCalculatorService} и {@link VoltageDividerService}
+ * вызываются напрямую, без окна входа и сессии {@code SessionManager}. Расчёты
+ * сохраняются в историю только пользователя, указанного через {@code --user};
+ * пароль берётся из переменной окружения {@value #PASSWORD_ENV} или
+ * запрашивается в консоли. С {@code --no-history} база данных не открывается.</p>
+ *
+ * <pre>
+ * java -cp ElectricalCalcFX.jar com.electrical.CliMain divider --vin 12 --vout 3.3 --series E96
+ * java -cp ElectricalCalcFX.jar com.electrical.CliMain --user ivan ohm current --voltage 5 --resistance 4.7k
+ * </pre>
+ */
+public final class CliMain {
+
+    /** Переменная окружения с паролем пользователя {@code --user} */
+    public static final String PASSWORD_ENV = "ELECTRICAL_CALC_PASSWORD";
+
+    private static final String USAGE = """
+            Использование: CliMain [--user <имя>] [--no-history] [--json] <команда> [параметры]
+
+            Команды:
+              ohm voltage    --current <А> --resistance <Ом>
+              ohm current    --voltage <В> --resistance <Ом>
+              ohm resistance --voltage <В> --current <А>
+              divider --vin <В> --vout <В> [--tolerance 1] [--series E24] [--min 100] [--max 1M]
+                      [--results 10] [--resistors 4] [--mode best|pareto] [--timeout 10]
+                      [--max-current <А>] [--max-power <Вт>] [--min-total <Ом>] [--max-output <Ом>]
+                      [--parts <±%>] [--rank nominal|worst]
+              batch <задания.csv|json> <результаты.csv|jsonl> [--timeout <сек>]
+              serve [--port 8765]    HTTP API на 127.0.0.1 (вход и история — если нет --no-history)
+
+            Числа принимают приставки p, n, u, m, k, M, G: 4.7k = 4700, 1M = 1000000.
+              --user        сохранять расчёты в историю пользователя
+                            (пароль — из ELECTRICAL_CALC_PASSWORD или из консоли)
+              --no-history  не сохранять историю и не открывать базу данных
+              --json        выводить результат в JSON
+              --parts       анализ допуска резисторов ±%: худший случай и Монте-Карло
+              --rank worst  упорядочить по погрешности в худшем случае
+                            (без --parts — при допуске ряда, например 1% для E96)""";
+
+    private static final Set<String> OHM_OPTIONS = Set.of("voltage", "current", "resistance");
+    private static final Set<String> SERVE_OPTIONS = Set.of("port");
+    private static final Set<String> DIVIDER_OPTIONS = Set.of(
+            "vin", "vout", "tolerance", "series", "min", "max", "results", "resistors", "mode", "timeout",
+            "max-current", "max-power", "min-total", "max-output", "parts", "rank");
+
+    private final PrintStream out;
+    private final PrintStream err;
+    private String userName;
+    private boolean noHistory;
+    private boolean json;
+
+    private CliMain(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        // Настройка должна выполниться до первого обращения к SLF4J
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        }
+        int status = new CliMain(System.out, System.err).run(args);
+        // Отложенная запись истории завершается до выхода из процесса
+        DatabaseManager.getInstance().closeConnection();
+        System.exit(status);
+    }
+
+    /**
+     * @return код завершения: 0 — успешно, 1 — ошибка расчёта, 2 — неверные аргументы или вход
+     */
+    int run(String[] args) {
+        int i = 0;
+        while (i < args.length && args[i].startsWith("--")) {
+            switch (args[i]) {
+                case "--user" -> {
+                    if (i + 1 >= args.length) {
+                        return usage("Не указано имя пользователя");
+                    }
+                    userName = args[++i];
+                }
+                case "--no-history" -> noHistory = true;
+                case "--json" -> json = true;
+                case "--help" -> {
+                    out.println(USAGE);
+                    return 0;
+                }
+                default -> {
+                    return usage("Неизвестный параметр: " + args[i]);
+                }
+            }
+            i++;
+        }
+        if (i >= args.length) {
+            return usage(null);
+        }
+
+        String command = args[i];
+        String[] rest = Arrays.copyOfRange(args, i + 1, args.length);
+        try {
+            return switch (command) {
+                case "ohm" -> ohm(rest);
+                case "divider" -> divider(rest);
+                case "batch" -> DividerBatchMain.run(rest, out, err);
+                case "serve" -> serve(rest);
+                default -> usage("Неизвестная команда: " + command);
+            };
+        } catch (UsageException e) {
+            return usage(e.getMessage());
+        } catch (LoginException e) {
+            err.println(e.getMessage());
+            return 2;
+        } catch (IllegalArgumentException e) {
+            err.println("Ошибка: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private int ohm(String[] args) {
+        if (args.length == 0 || !OHM_OPTIONS.contains(args[0])) {
+            throw new UsageException("Укажите, что рассчитать: voltage, current или resistance");
+        }
+        String target = args[0];
+        Map<String, String> options = options(Arrays.copyOfRange(args, 1, args.length), OHM_OPTIONS);
+
+        // Параметры проверяются до запроса пароля
+        double first = number(options, target.equals("voltage") ? "current" : "voltage", null);
+        double second = number(options, target.equals("resistance") ? "current" : "resistance", null);
+
+        User user = historyUser();
+        OhmCalculatorService service = new OhmCalculatorService(() -> user);
+        OhmCalculatorService.OhmResult result = switch (target) {
+            case "voltage" -> service.calculateVoltage(first, second);
+            case "current" -> service.calculateCurrent(first, second);
+            default -> service.calculateResistance(first, second);
+        };
+
+        if (json) {
+            Map<String, Object> output = new LinkedHashMap<>();
+            output.put("parameter", result.calculatedParam());
+            output.put("value", result.value());
+            output.put("result", result.resultString());
+            out.println(Json.stringify(output));
+        } else {
+            out.println(result.resultString());
+        }
+        return 0;
+    }
+
+    private int divider(String[] args) {
+        Map<String, String> options = options(args, DIVIDER_OPTIONS);
+        double vIn = number(options, "vin", null);
+        double vOut = number(options, "vout", null);
+        double tolerance = number(options, "tolerance", DividerSpecReader.DEFAULT_TOLERANCE);
+        ResistorSeriesLoader.loadAll(ResistorSeriesLoader.defaultDirectory());
+        ResistorSeries series = options.containsKey("series")
+                ? ResistorSeries.valueOf(options.get("series"))
+                : DividerSpecReader.DEFAULT_SERIES;
+        double min = number(options, "min", DividerSpecReader.DEFAULT_MIN_RESISTANCE);
+        double max = number(options, "max", DividerSpecReader.DEFAULT_MAX_RESISTANCE);
+        int maxResults = (int) number(options, "results", 10.0);
+        int maxResistors = (int) number(options, "resistors", (double) VoltageDividerService.DEFAULT_MAX_RESISTORS);
+        double timeout = number(options, "timeout", 10.0);
+        if (!(timeout > 0)) {
+            throw new UsageException("Бюджет времени должен быть положительным");
+        }
+        DividerSearchMode mode = options.containsKey("mode")
+                ? DividerSpecReader.mode(options.get("mode"))
+                : DividerSearchMode.BEST;
+        DividerConstraints constraints = new DividerConstraints(
+                number(options, "max-current", Double.POSITIVE_INFINITY),
+                number(options, "max-power", Double.POSITIVE_INFINITY),
+                number(options, "min-total", 0.0),
+                number(options, "max-output", Double.POSITIVE_INFINITY));
+        String rankBy = options.getOrDefault("rank", "nominal");
+        if (!rankBy.equals("nominal") && !rankBy.equals("worst")) {
+            throw new UsageException("Порядок результатов: nominal или worst");
+        }
+        // Ранжирование по худшему случаю требует анализа допусков
+        boolean analyze = options.containsKey("parts") || rankBy.equals("worst");
+        double partTolerance = number(options, "parts", series.getTolerancePercent());
+
+        User user = historyUser();
+
+        VoltageDividerService service = new VoltageDividerService(
+                ForkJoinPool.commonPool(), new DividerQueryCache(0));
+        DividerSearchResult result = service.findDividerCombinations(vIn, vOut, tolerance, series, min, max,
+                maxResults, maxResistors, mode, constraints,
+                CancellationToken.withTimeout(Duration.ofMillis(Math.round(timeout * 1000))));
+        List<ToleranceAnalysis> analyses = null;
+        if (analyze) {
+            analyses = service.analyzeTolerances(result.getResults(), partTolerance);
+            if (rankBy.equals("worst")) {
+                analyses = ToleranceAnalyzer.rankByWorstCase(analyses);
+            }
+        }
+
+        if (json) {
+            List<Object> results = new ArrayList<>(result.size());
+            if (analyses == null) {
+                for (DividerResult r : result.getResults()) {
+                    results.add(DividerBatchWriter.toJson(r));
+                }
+            } else {
+                for (ToleranceAnalysis analysis : analyses) {
+                    Map<String, Object> item = DividerBatchWriter.toJson(analysis.getResult());
+                    item.put("tolerance", toleranceJson(analysis));
+                    results.add(item);
+                }
+            }
+            Map<String, Object> output = new LinkedHashMap<>();
+            output.put("results", results);
+            output.put("truncated", result.isTruncated());
+            out.println(Json.stringify(output));
+        } else if (result.size() == 0) {
+            out.println(DividerBatchWriter.NO_MATCH_MESSAGE);
+        } else if (analyses == null) {
+            int rank = 1;
+            for (DividerResult r : result.getResults()) {
+                out.printf("%2d. %s%n", rank++, r);
+            }
+        } else {
+            int rank = 1;
+            for (ToleranceAnalysis analysis : analyses) {
+                out.printf("%2d. %s%n    %s%n", rank++, analysis.getResult(), analysis);
+            }
+        }
+        if (result.isTruncated()) {
+            err.println("Поиск остановлен по времени, показаны лучшие найденные комбинации");
+        }
+
+        // Как кнопка «Сохранить» в окне калькулятора: в историю попадает лучший результат
+        if (user != null && result.size() > 0) {
+            service.saveResultToHistory(result.getResults().get(0), user);
+        }
+        return 0;
+    }
+
+    private static Map<String, Object> toleranceJson(ToleranceAnalysis analysis) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("partTolerancePercent", analysis.getPartTolerancePercent());
+        json.put("worstCaseMin", analysis.getWorstCaseMin());
+        json.put("worstCaseMax", analysis.getWorstCaseMax());
+        json.put("worstCaseErrorPercent", analysis.getWorstCaseErrorPercent());
+        json.put("mean", analysis.getMean());
+        json.put("standardDeviation", analysis.getStandardDeviation());
+        json.put("p1", analysis.percentile(0.01));
+        json.put("p50", analysis.percentile(0.5));
+        json.put("p99", analysis.percentile(0.99));
+        json.put("samples", analysis.getSamples());
+        return json;
+    }
+
+    private int serve(String[] args) {
+        Map<String, String> options = options(args, SERVE_OPTIONS);
+        double port = number(options, "port", (double) ApiServer.DEFAULT_PORT);
+        if (port != Math.rint(port) || port < 0 || port > 65535) {
+            throw new UsageException("Порт должен быть целым числом от 0 до 65535");
+        }
+
+        ResistorSeriesLoader.loadAll(ResistorSeriesLoader.defaultDirectory());
+        boolean history = !noHistory;
+        if (history) {
+            DatabaseManager.getInstance().initializeDatabase();
+        }
+
+        ApiServer server;
+        try {
+            server = ApiServer.start((int) port, new VoltageDividerService(), history);
+        } catch (IOException e) {
+            err.println("Не удалось запустить HTTP API на порту " + (int) port + ": " + e.getMessage());
+            return 1;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            DatabaseManager.getInstance().closeConnection();
+        }));
+        out.printf("HTTP API: http://127.0.0.1:%d/api/, остановка — Ctrl+C%n", server.getPort());
+
+        // Запросы обслуживают потоки сервера; процесс работает до остановки
+        try {
+            new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    /**
+     * Пользователь для сохранения истории; null, если история не ведётся
+     * @throws LoginException если пароль не задан или вход не выполнен
+     */
+    private User historyUser() {
+        if (userName == null || noHistory) {
+            return null;
+        }
+
+        String password = System.getenv(PASSWORD_ENV);
+        if (password == null) {
+            Console console = System.console();
+            if (console == null) {
+                throw new LoginException("Пароль не задан: установите " + PASSWORD_ENV + " или используйте --no-history");
+            }
+            char[] input = console.readPassword("Пароль пользователя %s: ", userName);
+            password = input != null ? new String(input) : "";
+        }
+
+        DatabaseManager.getInstance().initializeDatabase();
+        AuthService.AuthResult auth = new AuthService().authenticate(userName, password);
+        if (!auth.success()) {
+            throw new LoginException("Вход не выполнен: " + auth.message());
+        }
+        return auth.user();
+    }
+
+    private static Map<String, String> options(String[] args, Set<String> allowed) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i].startsWith("--") ? args[i].substring(2) : null;
+            if (name == null || !allowed.contains(name)) {
+                throw new UsageException("Неизвестный параметр: " + args[i]);
+            }
+            if (i + 1 >= args.length) {
+                throw new UsageException("Не указано значение параметра " + args[i]);
+            }
+            options.put(name, args[++i]);
+        }
+        return options;
+    }
+
+    private static double number(Map<String, String> options, String name, Double defaultValue) {
+        String text = options.get(name);
+        if (text == null) {
+            if (defaultValue == null) {
+                throw new UsageException("Не указан параметр --" + name);
+            }
+            return defaultValue;
+        }
+        try {
+            return parseNumber(text);
+        } catch (NumberFormatException e) {
+            throw new UsageException("Параметр --" + name + " должен быть числом: " + text);
+        }
+    }
+
+    /**
+     * Число с необязательной приставкой СИ: 4.7k, 100m, 1M
+     */
+    static double parseNumber(String text) {
+        String value = text.strip().replace(',', '.');
+        if (value.isEmpty()) {
+            throw new NumberFormatException(text);
+        }
+        double multiplier = switch (value.charAt(value.length() - 1)) {
+            case 'p' -> 1e-12;
+            case 'n' -> 1e-9;
+            case 'u', 'µ' -> 1e-6;
+            case 'm' -> 1e-3;
+            case 'k', 'K' -> 1e3;
+            case 'M' -> 1e6;
+            case 'G' -> 1e9;
+            default -> 1;
+        };
+        if (multiplier != 1) {
+            value = value.substring(0, value.length() - 1);
+        }
+        return Double.parseDouble(value) * multiplier;
+    }
+
+    private int usage(String message) {
+        if (message != null) {
+            err.println(message);
+        }
+        err.println(USAGE);
+        return 2;
+    }
+
+    /**
+     * Вход пользователя --user не выполнен
+     */
+    private static final class LoginException extends RuntimeException {
+        LoginException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Неверные аргументы командной строки
+     */
+    private static final class UsageException extends IllegalArgumentException {
+        UsageException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.electrical;
+
+import com.electrical.model.DividerSpec;
+import com.electrical.service.DividerBatchService;
+import com.electrical.service.DividerBatchWriter;
+import com.electrical.service.DividerSpecReader;
+import com.electrical.service.ResistorSeriesLoader;
+import com.electrical.service.VoltageDividerService;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Точка входа пакетного подбора делителей без графического интерфейса.
+ *
+ * <p>Читает задания из CSV или JSON ({@link DividerSpecReader}), решает их
+ * параллельно ({@link DividerBatchService}) и записывает результаты в CSV
+ * или JSON Lines ({@link DividerBatchWriter}). JavaFX и база данных не
+ * используются, история расчётов не сохраняется.</p>
+ *
+ * <pre>
+ * java -cp ElectricalCalcFX.jar com.electrical.DividerBatchMain specs.csv results.csv [--timeout 10]
+ * </pre>
+ */
+public final class DividerBatchMain {
+
+    private static final String USAGE = """
+            Использование: DividerBatchMain <задания.csv|json> <результаты.csv|jsonl> [--timeout <сек>]
+              --timeout  бюджет времени на одно задание, по умолчанию без ограничения""";
+
+    private DividerBatchMain() {
+    }
+
+    public static void main(String[] args) {
+        // Журнал поиска по каждому заданию не нужен; настройка должна
+        // выполниться до первого обращения к SLF4J
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        }
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * @param out поток итога пакета
+     * @param err поток сообщений об ошибках
+     * @return код завершения: 0 — все задания решены, 1 — есть ошибки, 2 — неверные аргументы
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Path input = null;
+        Path output = null;
+        Duration timeBudget = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("--timeout".equals(args[i]) && i + 1 < args.length) {
+                    double seconds = Double.parseDouble(args[++i]);
+                    if (!(seconds > 0)) {
+                        throw new IllegalArgumentException("Бюджет времени должен быть положительным");
+                    }
+                    timeBudget = Duration.ofMillis(Math.round(seconds * 1000));
+                } else if (input == null) {
+                    input = Path.of(args[i]);
+                } else if (output == null) {
+                    output = Path.of(args[i]);
+                } else {
+                    throw new IllegalArgumentException("Лишний аргумент: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            input = null;
+        }
+        if (input == null || output == null) {
+            err.println(USAGE);
+            return 2;
+        }
+
+        ResistorSeriesLoader.loadAll(ResistorSeriesLoader.defaultDirectory());
+
+        List<DividerSpec> specs;
+        try {
+            specs = DividerSpecReader.read(input);
+        } catch (IOException | IllegalArgumentException e) {
+            err.println("Не удалось прочитать задания " + input + ": " + e.getMessage());
+            return 2;
+        }
+
+        DividerBatchService batch = new DividerBatchService(new VoltageDividerService(), timeBudget);
+        long start = System.nanoTime();
+        DividerBatchService.Summary summary;
+        try (DividerBatchWriter writer = DividerBatchWriter.open(output)) {
+            summary = batch.solve(specs, writer);
+        } catch (IOException e) {
+            err.println("Не удалось записать результаты " + output + ": " + e.getMessage());
+            return 1;
+        }
+
+        out.printf("Заданий: %d, с ошибкой: %d, без решения: %d, остановлено по времени: %d, %d мс%n",
+                summary.specs(), summary.failed(), summary.unmatched(), summary.truncated(),
+                (System.nanoTime() - start) / 1_000_000);
+        return summary.failed() == 0 ? 0 : 1;
+    }
+}
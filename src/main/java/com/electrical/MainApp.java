@@ -1,6 +1,7 @@
 package com.electrical;
 
 import com.electrical.dao.DatabaseManager;
+import com.electrical.service.ResistorSeriesLoader;
 import com.electrical.util.SessionManager;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -19,6 +20,7 @@ import java.io.IOException;
  * <ul>
  *   <li>запуск приложения и инициализацию главного окна ({@link Stage});</li>
  *   <li>инициализацию базы данных (SQLite) через {@link DatabaseManager};</li>
+ *   <li>загрузку пользовательских рядов резисторов через {@link ResistorSeriesLoader};</li>
  *   <li>загрузку и переключение экранов (FXML) с применением общего CSS-стиля;</li>
  *   <li>корректное завершение работы (закрытие соединения с БД).</li>
  * </ul>
@@ -48,6 +50,8 @@ public class MainApp extends Application {
      * <ol>
      *   <li>сохранение ссылки на главное окно ({@code primaryStage});</li>
      *   <li>инициализацию базы данных через {@link DatabaseManager#initializeDatabase()};</li>
+     *   <li>загрузку пользовательских рядов резисторов из каталога
+     *       {@link ResistorSeriesLoader#defaultDirectory()};</li>
      *   <li>загрузку стартового экрана авторизации;</li>
      *   <li>настройку параметров окна (заголовок, минимальные размеры) и отображение.</li>
      * </ol>
@@ -61,6 +65,9 @@ public class MainApp extends Application {
         // Инициализация базы данных
         DatabaseManager.getInstance().initializeDatabase();
 
+        // Пользовательские ряды резисторов
+        ResistorSeriesLoader.loadAll(ResistorSeriesLoader.defaultDirectory());
+
         // Загрузка окна входа
         loadLoginView();
 
@@ -171,7 +178,8 @@ public class MainApp extends Application {
     /**
      * Метод вызывается JavaFX при закрытии приложения.
      *
-     * <p>Закрывает соединение с базой данных через {@link DatabaseManager#closeConnection()}
+     * <p>Дописывает отложенную историю и закрывает пул соединений с базой данных
+     * через {@link DatabaseManager#closeConnection()}
      * и записывает событие в лог.</p>
      */
     @Override
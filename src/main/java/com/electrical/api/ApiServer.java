@@ -0,0 +1,430 @@
+package com.electrical.api;
+
+import com.electrical.model.CalculationHistory;
+import com.electrical.model.CalculationType;
+import com.electrical.model.DividerResult;
+import com.electrical.model.DividerSearchResult;
+import com.electrical.model.DividerSpec;
+import com.electrical.model.HistoryPage;
+import com.electrical.model.User;
+import com.electrical.service.AuthService;
+import com.electrical.service.CancellationToken;
+import com.electrical.service.DividerBatchWriter;
+import com.electrical.service.DividerSpecReader;
+import com.electrical.service.HistoryService;
+import com.electrical.service.OhmCalculatorService;
+import com.electrical.service.VoltageDividerService;
+import com.electrical.util.Json;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Локальный HTTP API калькулятора в формате JSON.
+ *
+ * <p>Сервер слушает только адрес обратной петли. Каждый запрос выполняется
+ * в отдельном виртуальном потоке, поэтому множество клиентов работает с
+ * одним прогретым процессом: кэш запросов сервиса делителей общий для всех запросов.</p>
+ *
+ * <pre>
+ * POST /api/login    {"username": "ivan", "password": "..."}  → {"token": "..."}
+ * POST /api/logout
+ * POST /api/ohm      {"find": "current", "voltage": 5, "resistance": 4700}
+ * POST /api/divider  {"vin": 12, "vout": 3.3, "series": "E96", "maxResults": 5, "mode": "pareto", "timeout": 10}
+ * GET  /api/history?type=OHM_LAW&amp;all=true&amp;limit=100&amp;after=1234
+ * </pre>
+ *
+ * <p>Поля делителя совпадают с полями заданий пакетного подбора
+ * ({@link DividerSpecReader}). Расчёты сохраняются в историю, если запрос
+ * содержит токен входа ({@code Authorization: Bearer <токен>}); для делителя
+ * сохраняется лучшая комбинация. Без истории вход и история недоступны, а
+ * база данных не используется.</p>
+ */
+public final class ApiServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiServer.class);
+
+    public static final int DEFAULT_PORT = 8765;
+
+    private static final Duration TOKEN_TTL = Duration.ofHours(12);
+    private static final double DEFAULT_SEARCH_SECONDS = 10;
+    private static final double MAX_SEARCH_SECONDS = 60;
+    private static final int MAX_DIVIDER_RESULTS = 1000;
+    private static final int DEFAULT_HISTORY_LIMIT = 100;
+    private static final int MAX_HISTORY_LIMIT = 1000;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    // Очередь входящих соединений рассчитана на всплески от многих клиентов
+    private static final int BACKLOG = 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final VoltageDividerService dividerService;
+    private final ApiTokens tokens = new ApiTokens(TOKEN_TTL);
+    private final AuthService authService;
+    private final HistoryService historyService;
+
+    private ApiServer(HttpServer server, VoltageDividerService dividerService, boolean history) {
+        this.server = server;
+        this.dividerService = dividerService;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.authService = history ? new AuthService() : null;
+        this.historyService = history ? new HistoryService() : null;
+
+        route("/api/ohm", "POST", this::ohm);
+        route("/api/divider", "POST", this::divider);
+        if (history) {
+            route("/api/login", "POST", this::login);
+            route("/api/logout", "POST", this::logout);
+            route("/api/history", "GET", this::history);
+        }
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Запустить сервер на адресе обратной петли
+     * @param port порт (0 — любой свободный)
+     * @param dividerService сервис делителей, общий для всех запросов
+     * @param history вести историю расчётов и принимать вход пользователей;
+     *                база данных должна быть инициализирована
+     */
+    public static ApiServer start(int port, VoltageDividerService dividerService, boolean history) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        ApiServer api = new ApiServer(server, dividerService, history);
+        server.start();
+        logger.info("HTTP API запущен: http://{}:{}", server.getAddress().getHostString(), api.getPort());
+        return api;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Остановить сервер, дождавшись завершения начатых запросов
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+        logger.info("HTTP API остановлен");
+    }
+
+    // --- Обработчики ---
+
+    private Object ohm(Request request) throws IOException {
+        Map<String, Object> body = request.body();
+        String find = string(body, "find");
+        if (find == null) {
+            throw new IllegalArgumentException("не задано поле find: voltage, current или resistance");
+        }
+
+        User user = request.optionalUser();
+        OhmCalculatorService service = new OhmCalculatorService(() -> user);
+        OhmCalculatorService.OhmResult result = switch (find) {
+            case "voltage" -> service.calculateVoltage(number(body, "current"), number(body, "resistance"));
+            case "current" -> service.calculateCurrent(number(body, "voltage"), number(body, "resistance"));
+            case "resistance" -> service.calculateResistance(number(body, "voltage"), number(body, "current"));
+            default -> throw new IllegalArgumentException("поле find должно быть voltage, current или resistance");
+        };
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("parameter", result.calculatedParam());
+        response.put("value", result.value());
+        response.put("result", result.resultString());
+        return response;
+    }
+
+    private Object divider(Request request) throws IOException {
+        Map<String, Object> body = request.body();
+        DividerSpec spec = DividerSpecReader.toSpec(body, null);
+        double seconds = body.containsKey("timeout") ? number(body, "timeout") : DEFAULT_SEARCH_SECONDS;
+        if (!(seconds > 0 && seconds <= MAX_SEARCH_SECONDS)) {
+            throw new IllegalArgumentException("поле timeout должно быть от 0 до " + (int) MAX_SEARCH_SECONDS + " с");
+        }
+        if (spec.maxResults() > MAX_DIVIDER_RESULTS) {
+            throw new IllegalArgumentException("поле maxResults должно быть от 1 до " + MAX_DIVIDER_RESULTS);
+        }
+
+        User user = request.optionalUser();
+        DividerSearchResult result = dividerService.findDividerCombinations(spec.vIn(), spec.vOutRequired(),
+                spec.tolerancePercent(), spec.series(), spec.minResistance(), spec.maxResistance(),
+                spec.maxResults(), spec.maxResistors(), spec.mode(), spec.constraints(),
+                CancellationToken.withTimeout(Duration.ofMillis(Math.round(seconds * 1000))));
+
+        if (user != null && result.size() > 0) {
+            dividerService.saveResultToHistory(result.getResults().get(0), user);
+        }
+
+        List<Object> results = new ArrayList<>(result.size());
+        for (DividerResult r : result.getResults()) {
+            results.add(DividerBatchWriter.toJson(r));
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (spec.id() != null) {
+            response.put("id", spec.id());
+        }
+        response.put("results", results);
+        response.put("truncated", result.isTruncated());
+        return response;
+    }
+
+    private Object login(Request request) throws IOException {
+        Map<String, Object> body = request.body();
+        AuthService.AuthResult auth = authService.authenticate(string(body, "username"), string(body, "password"));
+        if (!auth.success()) {
+            throw new ApiException(401, auth.message());
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("token", tokens.issue(auth.user()));
+        response.put("username", auth.user().getUsername());
+        response.put("role", auth.user().getRole().name());
+        response.put("expiresIn", tokens.ttlSeconds());
+        return response;
+    }
+
+    private Object logout(Request request) {
+        request.user();
+        tokens.revoke(request.token());
+        return Map.of();
+    }
+
+    private Object history(Request request) {
+        User user = request.user();
+        Map<String, String> query = request.query();
+
+        CalculationType type = null;
+        if (query.containsKey("type")) {
+            try {
+                type = CalculationType.valueOf(query.get("type").toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("неизвестный тип расчёта: " + query.get("type"));
+            }
+        }
+        boolean allUsers = Boolean.parseBoolean(query.get("all"));
+        if (allUsers && !user.isAdmin()) {
+            throw new ApiException(403, "История всех пользователей доступна только администратору");
+        }
+        int limit = DEFAULT_HISTORY_LIMIT;
+        if (query.containsKey("limit")) {
+            try {
+                limit = Integer.parseInt(query.get("limit"));
+            } catch (NumberFormatException e) {
+                limit = -1;
+            }
+            if (limit < 1 || limit > MAX_HISTORY_LIMIT) {
+                throw new IllegalArgumentException(
+                        "параметр limit должен быть целым числом от 1 до " + MAX_HISTORY_LIMIT);
+            }
+        }
+        // Следующая страница начинается после записи с id из поля next предыдущего ответа
+        Long after = null;
+        if (query.containsKey("after")) {
+            try {
+                after = Long.parseLong(query.get("after"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("параметр after должен быть id записи из поля next");
+            }
+        }
+
+        HistoryPage page = historyService.getHistoryPage(user, type, allUsers, after, limit);
+        List<Object> entries = new ArrayList<>(page.items().size());
+        for (CalculationHistory entry : page.items()) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("id", entry.getId());
+            json.put("username", entry.getUsername());
+            json.put("type", entry.getCalculationType().name());
+            json.put("input", entry.getInputParameters());
+            json.put("result", entry.getResult());
+            json.put("createdAt", entry.getCreatedAt() != null ? entry.getCreatedAt().toString() : null);
+            entries.add(json);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("entries", entries);
+        response.put("total", historyService.countHistory(user, type, allUsers));
+        response.put("next", page.isLast() ? null : page.next().id());
+        return response;
+    }
+
+    // --- Обработка запросов ---
+
+    private void route(String path, String method, Endpoint endpoint) {
+        server.createContext(path, exchange -> handle(exchange, path, method, endpoint));
+    }
+
+    private void handle(HttpExchange exchange, String path, String method, Endpoint endpoint) {
+        int status;
+        Object response;
+        try {
+            // Контекст совпадает и с более длинными путями: /api/ohm/x не должен попасть сюда
+            if (!exchange.getRequestURI().getPath().equals(path)) {
+                throw new ApiException(404, "Не найдено: " + exchange.getRequestURI().getPath());
+            }
+            if (!exchange.getRequestMethod().equals(method)) {
+                exchange.getResponseHeaders().set("Allow", method);
+                throw new ApiException(405, "Метод " + exchange.getRequestMethod() + " не поддерживается");
+            }
+            response = endpoint.handle(new Request(exchange));
+            status = 200;
+        } catch (ApiException e) {
+            status = e.status;
+            response = Map.of("error", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            response = Map.of("error", e.getMessage() != null ? e.getMessage() : e.toString());
+        } catch (IOException e) {
+            logger.debug("Ошибка чтения запроса {}", path, e);
+            exchange.close();
+            return;
+        } catch (RuntimeException e) {
+            logger.error("Ошибка обработки запроса {}", path, e);
+            status = 500;
+            response = Map.of("error", "Внутренняя ошибка сервера");
+        }
+
+        try {
+            byte[] bytes = Json.stringify(response).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            // Клиент закрыл соединение, не дождавшись ответа
+            logger.debug("Ответ на запрос {} не отправлен", path, e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String string(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        return value != null ? value.toString() : null;
+    }
+
+    private static double number(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value instanceof Number n) {
+            return n.doubleValue();
+        }
+        throw new IllegalArgumentException(value == null
+                ? "не задано поле " + name
+                : "поле " + name + " должно быть числом: " + value);
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        Object handle(Request request) throws IOException;
+    }
+
+    /**
+     * Ошибка запроса с кодом ответа HTTP
+     */
+    private static final class ApiException extends RuntimeException {
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Запрос и его пользователь; пользователь определяется по токену при первом обращении
+     */
+    private final class Request {
+
+        private final HttpExchange exchange;
+
+        Request(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        Map<String, Object> body() throws IOException {
+            byte[] bytes;
+            try (InputStream in = exchange.getRequestBody()) {
+                bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            }
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Тело запроса больше " + MAX_BODY_BYTES + " байт");
+            }
+            if (!(Json.parse(new String(bytes, StandardCharsets.UTF_8)) instanceof Map<?, ?> map)) {
+                throw new IllegalArgumentException("тело запроса должно быть объектом JSON");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> fields = (Map<String, Object>) map;
+            return fields;
+        }
+
+        Map<String, String> query() {
+            Map<String, String> query = new HashMap<>();
+            String raw = exchange.getRequestURI().getRawQuery();
+            if (raw == null) {
+                return query;
+            }
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                String name = eq < 0 ? pair : pair.substring(0, eq);
+                String value = eq < 0 ? "" : pair.substring(eq + 1);
+                query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+            return query;
+        }
+
+        /**
+         * @return токен из заголовка Authorization или null
+         */
+        String token() {
+            String header = exchange.getRequestHeaders().getFirst("Authorization");
+            if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+                return null;
+            }
+            return header.substring(7).strip();
+        }
+
+        /**
+         * @return пользователь запроса или null для анонимного запроса
+         * @throws ApiException если токен передан, но недействителен
+         */
+        User optionalUser() {
+            String token = token();
+            if (token == null || authService == null) {
+                return null;
+            }
+            User user = tokens.find(token);
+            if (user == null) {
+                throw new ApiException(401, "Токен недействителен или просрочен, выполните вход заново");
+            }
+            return user;
+        }
+
+        /**
+         * @throws ApiException если запрос без действительного токена
+         */
+        User user() {
+            User user = optionalUser();
+            if (user == null) {
+                throw new ApiException(401, "Требуется вход: POST /api/login");
+            }
+            return user;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.electrical.api;
+
+import com.electrical.model.User;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Токены доступа HTTP API.
+ *
+ * <p>Пароль проверяется один раз при входе (BCrypt намеренно медленный), а
+ * последующие запросы клиента передают выданный токен в заголовке
+ * {@code Authorization: Bearer <токен>}. Пользователь определяется для
+ * каждого запроса отдельно, сессия приложения {@code SessionManager} не
+ * используется.</p>
+ */
+final class ApiTokens {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final long ttlNanos;
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttl время действия токена с момента выдачи
+     */
+    ApiTokens(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Выдать токен пользователю, прошедшему проверку пароля
+     */
+    String issue(User user) {
+        long now = System.nanoTime();
+        // Просроченные токены удаляются при выдаче новых, отдельный поток не нужен
+        sessions.values().removeIf(session -> session.isExpired(now));
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(user, now + ttlNanos));
+        return token;
+    }
+
+    /**
+     * @return пользователь токена или null, если токен неизвестен или просрочен
+     */
+    User find(String token) {
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        if (session.isExpired(System.nanoTime())) {
+            sessions.remove(token, session);
+            return null;
+        }
+        return session.user();
+    }
+
+    void revoke(String token) {
+        sessions.remove(token);
+    }
+
+    long ttlSeconds() {
+        return Duration.ofNanos(ttlNanos).toSeconds();
+    }
+
+    private record Session(User user, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
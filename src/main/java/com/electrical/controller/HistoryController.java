@@ -3,21 +3,33 @@ package com.electrical.controller;
 import com.electrical.MainApp;
 import com.electrical.model.CalculationHistory;
 import com.electrical.model.CalculationType;
+import com.electrical.model.HistorySort;
+import com.electrical.service.HistoryPager;
 import com.electrical.service.HistoryService;
+import com.electrical.util.FullTextQuery;
 import com.electrical.util.SessionManager;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.animation.PauseTransition;
+import javafx.collections.ObservableListBase;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Duration;
 
 import java.net.URL;
-import java.util.List;
 import java.util.ResourceBundle;
 
 /**
- * Контроллер окна истории расчётов
+ * Контроллер окна истории расчётов.
+ *
+ * <p>Таблица показывает выборку {@link HistoryPager}: строки читаются из
+ * базы данных страницами по мере прокрутки, а щелчок по заголовку столбца
+ * открывает выборку заново с упорядочиванием в SQL, поэтому память не растёт
+ * с размером истории.</p>
+ *
+ * <p>Поле поиска ищет по полнотекстовому индексу входных параметров и
+ * результата; пока столбец не выбран, найденные записи упорядочены по
+ * релевантности.</p>
  */
 public class HistoryController implements Initializable {
     
@@ -31,6 +43,7 @@ public class HistoryController implements Initializable {
     
     @FXML private ComboBox<String> typeFilterCombo;
     @FXML private CheckBox allUsersCheck;
+    @FXML private TextField searchField;
     @FXML private Button refreshButton;
     @FXML private Button deleteButton;
     @FXML private Button clearButton;
@@ -40,7 +53,8 @@ public class HistoryController implements Initializable {
     @FXML private Label totalLabel;
     
     private final HistoryService historyService = new HistoryService();
-    private final ObservableList<CalculationHistory> historyData = FXCollections.observableArrayList();
+    private final PauseTransition searchDelay = new PauseTransition(Duration.millis(300));
+    private boolean reloading;
     
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
@@ -54,7 +68,13 @@ public class HistoryController implements Initializable {
         resultColumn.setCellValueFactory(new PropertyValueFactory<>("result"));
         userColumn.setCellValueFactory(new PropertyValueFactory<>("username"));
         
-        historyTable.setItems(historyData);
+        // Упорядочивание выполняет база данных: новая выборка вместо сортировки строк
+        historyTable.setSortPolicy(table -> {
+            if (!reloading) {
+                loadHistory();
+            }
+            return true;
+        });
         
         // Настройка фильтра по типу
         typeFilterCombo.getItems().addAll("Все типы", "Закон Ома", "Делитель напряжения");
@@ -70,6 +90,14 @@ public class HistoryController implements Initializable {
         
         allUsersCheck.setOnAction(event -> loadHistory());
         
+        // Поиск после паузы в наборе текста или сразу по Enter
+        searchDelay.setOnFinished(event -> loadHistory());
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDelay.playFromStart());
+        searchField.setOnAction(event -> {
+            searchDelay.stop();
+            loadHistory();
+        });
+        
         // Обработка выбора строки
         historyTable.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             deleteButton.setDisable(newVal == null);
@@ -127,24 +155,76 @@ public class HistoryController implements Initializable {
     }
     
     private void loadHistory() {
-        historyData.clear();
-        
         String typeFilter = typeFilterCombo.getValue();
         boolean allUsers = allUsersCheck.isSelected() && SessionManager.isAdmin();
         
-        List<CalculationHistory> history;
+        CalculationType type = null;
+        if ("Закон Ома".equals(typeFilter)) {
+            type = CalculationType.OHM_LAW;
+        } else if ("Делитель напряжения".equals(typeFilter)) {
+            type = CalculationType.VOLTAGE_DIVIDER;
+        }
         
-        if ("Все типы".equals(typeFilter)) {
-            history = allUsers ? historyService.getAllHistory() : historyService.getCurrentUserHistory();
-        } else {
-            CalculationType type = "Закон Ома".equals(typeFilter) ? 
-                    CalculationType.OHM_LAW : CalculationType.VOLTAGE_DIVIDER;
-            history = historyService.getHistoryByType(type, allUsers);
+        // Без выбранного столбца порядок выбирает сервис: релевантность при поиске или новые записи
+        String search = FullTextQuery.isSearchable(searchField.getText()) ? searchField.getText() : null;
+        HistorySort sort = null;
+        boolean ascending = false;
+        if (!historyTable.getSortOrder().isEmpty()) {
+            TableColumn<CalculationHistory, ?> column = historyTable.getSortOrder().get(0);
+            sort = sortOf(column);
+            ascending = column.getSortType() == TableColumn.SortType.ASCENDING;
         }
         
-        historyData.addAll(history);
-        totalLabel.setText("Всего записей: " + history.size());
+        HistoryPager pager = historyService.openPager(
+                SessionManager.getCurrentUser(), type, allUsers, search, sort, ascending);
+        reloading = true;
+        try {
+            historyTable.setItems(new HistoryRows(pager));
+        } finally {
+            reloading = false;
+        }
+        totalLabel.setText((search != null ? "Найдено записей: " : "Всего записей: ") + pager.size());
+        if (search != null && sort == null) {
+            statusLabel.setText(pager.getQuery().sort() == HistorySort.RELEVANCE
+                    ? "Сначала наиболее подходящие записи"
+                    : "Найдено больше " + HistoryService.MAX_RANKED_MATCHES + " записей: сначала новые");
+        }
+    }
+    
+    private HistorySort sortOf(TableColumn<CalculationHistory, ?> column) {
+        if (column == idColumn) {
+            return HistorySort.ID;
+        } else if (column == typeColumn) {
+            return HistorySort.CALCULATION_TYPE;
+        } else if (column == inputColumn) {
+            return HistorySort.INPUT_PARAMETERS;
+        } else if (column == resultColumn) {
+            return HistorySort.RESULT;
+        } else if (column == userColumn) {
+            return HistorySort.USERNAME;
+        }
+        return HistorySort.CREATED_AT;
+    }
+    
+    /**
+     * Неизменяемый список строк таблицы поверх постраничной выборки
+     */
+    private static final class HistoryRows extends ObservableListBase<CalculationHistory> {
+        
+        private final HistoryPager pager;
+        
+        HistoryRows(HistoryPager pager) {
+            this.pager = pager;
+        }
+        
+        @Override
+        public CalculationHistory get(int index) {
+            return pager.get(index);
+        }
+        
+        @Override
+        public int size() {
+            return pager.size();
+        }
     }
 }
-
-
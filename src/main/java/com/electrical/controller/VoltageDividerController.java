@@ -1,15 +1,22 @@
 package com.electrical.controller;
 
 import com.electrical.MainApp;
+import com.electrical.model.Arm;
+import com.electrical.model.DividerConstraints;
 import com.electrical.model.DividerResult;
+import com.electrical.model.DividerSearchMode;
+import com.electrical.model.DividerSearchResult;
 import com.electrical.model.ResistorSeries;
+import com.electrical.model.ToleranceAnalysis;
+import com.electrical.service.CancellationToken;
+import com.electrical.service.DividerResultPublisher;
+import com.electrical.service.ToleranceAnalyzer;
 import com.electrical.service.VoltageDividerService;
 import com.electrical.util.ValidationUtils;
 import com.electrical.view.CircuitDrawer;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.canvas.Canvas;
@@ -18,8 +25,12 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.VBox;
 
 import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 
 /**
  * Контроллер калькулятора делителя напряжения
@@ -30,10 +41,17 @@ public class VoltageDividerController implements Initializable {
     @FXML private TextField vOutField;
     @FXML private TextField toleranceField;
     @FXML private ComboBox<ResistorSeries> seriesCombo;
+    @FXML private ComboBox<Integer> maxResistorsCombo;
+    @FXML private ComboBox<DividerSearchMode> modeCombo;
+    @FXML private CheckBox worstCaseCheck;
     @FXML private TextField minResistanceField;
     @FXML private TextField maxResistanceField;
     @FXML private ComboBox<String> minResUnitCombo;
     @FXML private ComboBox<String> maxResUnitCombo;
+    @FXML private TextField maxCurrentField;
+    @FXML private TextField maxPowerField;
+    @FXML private TextField minTotalField;
+    @FXML private TextField maxOutputField;
     
     @FXML private Button calculateButton;
     @FXML private Button clearButton;
@@ -48,6 +66,7 @@ public class VoltageDividerController implements Initializable {
     @FXML private TableColumn<DividerResultRow, Integer> indexColumn;
     @FXML private TableColumn<DividerResultRow, String> vOutColumn;
     @FXML private TableColumn<DividerResultRow, String> errorColumn;
+    @FXML private TableColumn<DividerResultRow, String> worstCaseColumn;
     @FXML private TableColumn<DividerResultRow, String> upperColumn;
     @FXML private TableColumn<DividerResultRow, String> lowerColumn;
     @FXML private TableColumn<DividerResultRow, Integer> countColumn;
@@ -57,10 +76,15 @@ public class VoltageDividerController implements Initializable {
     @FXML private VBox schemaBox;
     @FXML private Label schemaInfoLabel;
     
+    // Предельное время одного поиска: по его истечении показываются лучшие найденные комбинации
+    private static final Duration SEARCH_TIME_BUDGET = Duration.ofSeconds(10);
+    
     private final VoltageDividerService dividerService = new VoltageDividerService();
     private final ObservableList<DividerResultRow> resultRows = FXCollections.observableArrayList();
     private List<DividerResult> currentResults;
+    private List<ToleranceAnalysis> currentAnalyses;    // В порядке поиска; null — анализ не выполнен
     private DividerResult selectedResult;
+    private SearchSubscriber activeSearch;
     
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
@@ -68,10 +92,18 @@ public class VoltageDividerController implements Initializable {
         seriesCombo.getItems().addAll(ResistorSeries.values());
         seriesCombo.setValue(ResistorSeries.E24);
         
+        // Количество резисторов: больше 4 — плечи смешанного соединения
+        maxResistorsCombo.getItems().addAll(VoltageDividerService.DEFAULT_MAX_RESISTORS, 5, 6);
+        maxResistorsCombo.setValue(VoltageDividerService.DEFAULT_MAX_RESISTORS);
+        
+        // Режим отбора: лучшие по точности или компромиссы точности, числа деталей и мощности
+        modeCombo.getItems().addAll(DividerSearchMode.values());
+        modeCombo.setValue(DividerSearchMode.BEST);
+        
         // Единицы измерения сопротивления
-        minResUnitCombo.getItems().addAll("Ом", "кОм", "МОм");
+        minResUnitCombo.getItems().addAll("Ом", "кОм", "МОм", "ГОм");
         minResUnitCombo.setValue("Ом");
-        maxResUnitCombo.getItems().addAll("Ом", "кОм", "МОм");
+        maxResUnitCombo.getItems().addAll("Ом", "кОм", "МОм", "ГОм");
         maxResUnitCombo.setValue("МОм");
         
         // Значения по умолчанию
@@ -85,6 +117,7 @@ public class VoltageDividerController implements Initializable {
         indexColumn.setCellValueFactory(new PropertyValueFactory<>("index"));
         vOutColumn.setCellValueFactory(new PropertyValueFactory<>("vOut"));
         errorColumn.setCellValueFactory(new PropertyValueFactory<>("error"));
+        worstCaseColumn.setCellValueFactory(new PropertyValueFactory<>("worstCase"));
         upperColumn.setCellValueFactory(new PropertyValueFactory<>("upperResistors"));
         lowerColumn.setCellValueFactory(new PropertyValueFactory<>("lowerResistors"));
         countColumn.setCellValueFactory(new PropertyValueFactory<>("resistorCount"));
@@ -92,6 +125,13 @@ public class VoltageDividerController implements Initializable {
         
         resultsTable.setItems(resultRows);
         
+        // Порядок меняется без повторного анализа
+        worstCaseCheck.selectedProperty().addListener((obs, oldVal, newVal) -> {
+            if (currentAnalyses != null) {
+                displayAnalyses(currentAnalyses);
+            }
+        });
+        
         // Обработка выбора строки в таблице
         resultsTable.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal != null && currentResults != null && newVal.getIndex() <= currentResults.size()) {
@@ -111,6 +151,7 @@ public class VoltageDividerController implements Initializable {
     private void handleCalculate() {
         hideError();
         resultRows.clear();
+        currentAnalyses = null;
         schemaBox.setVisible(false);
         saveButton.setDisable(true);
         
@@ -121,6 +162,13 @@ public class VoltageDividerController implements Initializable {
             double minRes = parseResistance(minResistanceField.getText(), minResUnitCombo.getValue());
             double maxRes = parseResistance(maxResistanceField.getText(), maxResUnitCombo.getValue());
             ResistorSeries series = seriesCombo.getValue();
+            int maxResistors = maxResistorsCombo.getValue();
+            DividerSearchMode mode = modeCombo.getValue();
+            // Пустое поле ограничения — без ограничения
+            double maxCurrent = parseLimit(maxCurrentField.getText(), 1e-3, Double.POSITIVE_INFINITY);
+            double maxPower = parseLimit(maxPowerField.getText(), 1e-3, Double.POSITIVE_INFINITY);
+            double minTotal = parseLimit(minTotalField.getText(), 1e3, 0);
+            double maxOutput = parseLimit(maxOutputField.getText(), 1e3, Double.POSITIVE_INFINITY);
             
             if (vIn <= 0) {
                 showError("Входное напряжение должно быть положительным");
@@ -138,60 +186,93 @@ public class VoltageDividerController implements Initializable {
                 showError("Минимальное сопротивление должно быть меньше максимального");
                 return;
             }
+            if (!(maxCurrent > 0) || !(maxPower > 0) || !(maxOutput > 0) || minTotal < 0) {
+                showError("Ограничения должны быть положительными");
+                return;
+            }
+            DividerConstraints constraints = new DividerConstraints(maxCurrent, maxPower, minTotal, maxOutput);
             
-            // Запуск расчёта в фоновом потоке
+            // Запуск потокового поиска: таблица обновляется по мере нахождения лучших комбинаций
             calculateButton.setDisable(true);
             progressIndicator.setVisible(true);
             statusLabel.setText("Поиск комбинаций...");
             
-            final double finalVIn = vIn;
-            final double finalVOut = vOut;
-            final double finalTolerance = tolerance;
-            final double finalMinRes = minRes;
-            final double finalMaxRes = maxRes;
-            
-            Task<List<DividerResult>> task = new Task<>() {
-                @Override
-                protected List<DividerResult> call() {
-                    return dividerService.findDividerCombinations(
-                            finalVIn, finalVOut, finalTolerance, series, finalMinRes, finalMaxRes, 100);
-                }
-            };
-            
-            task.setOnSucceeded(event -> {
-                currentResults = task.getValue();
-                displayResults(currentResults);
-                calculateButton.setDisable(false);
-                progressIndicator.setVisible(false);
-                statusLabel.setText("Найдено комбинаций: " + currentResults.size());
-            });
-            
-            task.setOnFailed(event -> {
-                showError("Ошибка расчёта: " + task.getException().getMessage());
-                calculateButton.setDisable(false);
-                progressIndicator.setVisible(false);
-                statusLabel.setText("");
-            });
-            
-            new Thread(task).start();
-            
+            cancelSearch();
+            CancellationToken token = CancellationToken.withTimeout(SEARCH_TIME_BUDGET);
+            DividerResultPublisher publisher = dividerService.streamDividerCombinations(
+                    vIn, vOut, tolerance, series, minRes, maxRes, 100, maxResistors, mode, constraints, token);
+            activeSearch = new SearchSubscriber(token, series.getTolerancePercent());
+            publisher.subscribe(activeSearch);
+        
         } catch (NumberFormatException e) {
             showError("Введите корректные числовые значения");
         }
     }
     
+    /**
+     * Показать очередной список результатов. Вызывается в потоке JavaFX;
+     * выбранная пользователем строка сохраняется между обновлениями
+     */
     private void displayResults(List<DividerResult> results) {
-        Platform.runLater(() -> {
-            resultRows.clear();
-            int index = 1;
-            for (DividerResult result : results) {
-                resultRows.add(new DividerResultRow(index++, result));
-            }
-            
-            if (!results.isEmpty()) {
-                resultsTable.getSelectionModel().selectFirst();
-            }
-        });
+        currentAnalyses = null;
+        displayRows(results, null);
+    }
+    
+    /**
+     * Показать результаты с анализом допусков, по флажку — в порядке
+     * погрешности в худшем случае
+     * @param analyses анализы в порядке поиска
+     */
+    private void displayAnalyses(List<ToleranceAnalysis> analyses) {
+        currentAnalyses = analyses;
+        List<ToleranceAnalysis> ordered = worstCaseCheck.isSelected()
+                ? ToleranceAnalyzer.rankByWorstCase(analyses)
+                : analyses;
+        List<DividerResult> results = new ArrayList<>(ordered.size());
+        for (ToleranceAnalysis analysis : ordered) {
+            results.add(analysis.getResult());
+        }
+        displayRows(results, ordered);
+    }
+    
+    /**
+     * @param analyses анализы в порядке results или null
+     */
+    private void displayRows(List<DividerResult> results, List<ToleranceAnalysis> analyses) {
+        int selectedIndex = resultsTable.getSelectionModel().getSelectedIndex();
+        
+        List<DividerResultRow> rows = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            rows.add(new DividerResultRow(i + 1, results.get(i), analyses != null ? analyses.get(i) : null));
+        }
+        currentResults = results;
+        resultRows.setAll(rows);
+        
+        if (results.isEmpty()) {
+            return;
+        }
+        if (selectedIndex >= 0 && selectedIndex < results.size()) {
+            resultsTable.getSelectionModel().select(selectedIndex);
+        } else {
+            resultsTable.getSelectionModel().selectFirst();
+        }
+    }
+    
+    private void finishSearch(String status) {
+        activeSearch = null;
+        calculateButton.setDisable(false);
+        progressIndicator.setVisible(false);
+        statusLabel.setText(status);
+    }
+    
+    /**
+     * Отменить текущий поиск, если он выполняется
+     */
+    private void cancelSearch() {
+        if (activeSearch != null) {
+            activeSearch.cancel();
+            activeSearch = null;
+        }
     }
     
     private void drawCircuit(DividerResult result) {
@@ -224,11 +305,22 @@ public class VoltageDividerController implements Initializable {
         minResistanceField.setText("100");
         maxResistanceField.setText("1");
         seriesCombo.setValue(ResistorSeries.E24);
+        maxResistorsCombo.setValue(VoltageDividerService.DEFAULT_MAX_RESISTORS);
+        modeCombo.setValue(DividerSearchMode.BEST);
+        worstCaseCheck.setSelected(false);
+        maxCurrentField.clear();
+        maxPowerField.clear();
+        minTotalField.clear();
+        maxOutputField.clear();
         minResUnitCombo.setValue("Ом");
         maxResUnitCombo.setValue("МОм");
         
+        cancelSearch();
+        calculateButton.setDisable(false);
+        progressIndicator.setVisible(false);
         resultRows.clear();
         currentResults = null;
+        currentAnalyses = null;
         selectedResult = null;
         schemaBox.setVisible(false);
         saveButton.setDisable(true);
@@ -238,6 +330,7 @@ public class VoltageDividerController implements Initializable {
     
     @FXML
     private void handleBack() {
+        cancelSearch();
         MainApp.loadMainMenuView();
     }
     
@@ -246,10 +339,23 @@ public class VoltageDividerController implements Initializable {
         return switch (unit) {
             case "кОм" -> value * 1000;
             case "МОм" -> value * 1_000_000;
+            case "ГОм" -> value * 1_000_000_000;
             default -> value;
         };
     }
     
+    /**
+     * Значение необязательного ограничения в единицах СИ
+     * @param scale множитель единицы поля (мА → А, кОм → Ом)
+     * @param none значение, если поле пустое
+     */
+    private double parseLimit(String text, double scale, double none) {
+        if (text == null || text.isBlank()) {
+            return none;
+        }
+        return ValidationUtils.parseDouble(text) * scale;
+    }
+    
     private void showError(String message) {
         errorLabel.setText(message);
         errorLabel.setVisible(true);
@@ -259,6 +365,105 @@ public class VoltageDividerController implements Initializable {
         errorLabel.setVisible(false);
     }
     
+    /**
+     * Подписчик потокового поиска. Запрашивает следующий список только после
+     * того, как предыдущий показан в таблице, поэтому в очереди JavaFX всегда
+     * не больше одного обновления, а промежуточные списки, пришедшие за это
+     * время, поглощаются более новыми
+     */
+    private final class SearchSubscriber implements Flow.Subscriber<DividerSearchResult> {
+        
+        private final CancellationToken token;
+        private final double partTolerancePercent;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+        private boolean truncated;          // Изменяется только в потоке JavaFX
+        
+        /**
+         * @param partTolerancePercent допуск резисторов ряда для анализа найденных комбинаций
+         */
+        SearchSubscriber(CancellationToken token, double partTolerancePercent) {
+            this.token = token;
+            this.partTolerancePercent = partTolerancePercent;
+        }
+        
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+        
+        @Override
+        public void onNext(DividerSearchResult snapshot) {
+            Platform.runLater(() -> {
+                if (cancelled) {
+                    return;
+                }
+                displayResults(snapshot.getResults());
+                if (snapshot.isTruncated()) {
+                    truncated = true;
+                } else {
+                    statusLabel.setText("Поиск комбинаций... найдено: " + snapshot.size());
+                }
+                subscription.request(1);
+            });
+        }
+        
+        @Override
+        public void onError(Throwable throwable) {
+            Platform.runLater(() -> {
+                if (cancelled) {
+                    return;
+                }
+                showError("Ошибка расчёта: " + throwable.getMessage());
+                finishSearch("");
+            });
+        }
+        
+        @Override
+        public void onComplete() {
+            Platform.runLater(() -> {
+                if (cancelled) {
+                    return;
+                }
+                int count = currentResults != null ? currentResults.size() : 0;
+                String status = truncated
+                        ? "Время поиска истекло, показаны лучшие из найденных: " + count
+                        : "Найдено комбинаций: " + count;
+                if (count == 0) {
+                    finishSearch(status);
+                    return;
+                }
+                
+                // Анализ допусков найденных комбинаций выполняется вне потока JavaFX
+                statusLabel.setText("Анализ допусков резисторов...");
+                List<DividerResult> results = currentResults;
+                CompletableFuture
+                        .supplyAsync(() -> dividerService.analyzeTolerances(results, partTolerancePercent))
+                        .whenComplete((analyses, error) -> Platform.runLater(() -> {
+                            if (cancelled) {
+                                return;
+                            }
+                            if (error != null) {
+                                showError("Ошибка анализа допусков: " + error.getMessage());
+                            } else {
+                                displayAnalyses(analyses);
+                            }
+                            finishSearch(status);
+                        }));
+            });
+        }
+        
+        void cancel() {
+            cancelled = true;
+            token.cancel();
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+    
     /**
      * Класс-обёртка для отображения результата в таблице
      */
@@ -266,29 +471,40 @@ public class VoltageDividerController implements Initializable {
         private final int index;
         private final String vOut;
         private final String error;
+        private final String worstCase;
         private final String upperResistors;
         private final String lowerResistors;
         private final int resistorCount;
         private final String schemaType;
         
-        public DividerResultRow(int index, DividerResult result) {
+        /**
+         * @param analysis анализ допусков результата или null, если он ещё не выполнен
+         */
+        public DividerResultRow(int index, DividerResult result, ToleranceAnalysis analysis) {
             this.index = index;
             this.vOut = String.format("%.4f В", result.getVOutActual());
             this.error = String.format("%.3f%%", result.getErrorPercent());
+            this.worstCase = analysis != null ? String.format("%.3f%%", analysis.getWorstCaseErrorPercent()) : "";
             this.upperResistors = result.getUpperResistorsString();
             this.lowerResistors = result.getLowerResistorsString();
             this.resistorCount = result.getTotalResistorCount();
             
-            String upper = result.getUpperResistors().size() > 1 ? 
-                    (result.isUpperParallel() ? "||" : "+") : "1";
-            String lower = result.getLowerResistors().size() > 1 ? 
-                    (result.isLowerParallel() ? "||" : "+") : "1";
-            this.schemaType = upper + "/" + lower;
+            this.schemaType = armType(result.getUpperArm()) + "/" + armType(result.getLowerArm());
+        }
+        
+        private static String armType(Arm arm) {
+            if (arm.isResistor()) {
+                return "1";
+            } else if (arm.isMixed()) {
+                return "+||";
+            }
+            return arm.getKind() == Arm.Kind.PARALLEL ? "||" : "+";
         }
         
         public int getIndex() { return index; }
         public String getVOut() { return vOut; }
         public String getError() { return error; }
+        public String getWorstCase() { return worstCase; }
         public String getUpperResistors() { return upperResistors; }
         public String getLowerResistors() { return lowerResistors; }
         public int getResistorCount() { return resistorCount; }
@@ -2,13 +2,19 @@ package com.electrical.dao;
 
 import com.electrical.model.CalculationHistory;
 import com.electrical.model.CalculationType;
+import com.electrical.model.HistoryPage;
+import com.electrical.model.HistoryQuery;
+import com.electrical.model.HistorySort;
+import com.electrical.util.FullTextQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * DAO для работы с историей расчётов
@@ -16,6 +22,47 @@ import java.util.List;
 public class CalculationHistoryDAO {
     
     private static final Logger logger = LoggerFactory.getLogger(CalculationHistoryDAO.class);
+    
+    private static final String[] HISTORY_COLUMNS = {
+            "id", "user_id", "username", "calculation_type", "input_parameters", "result", "created_at"};
+    
+    private static final RowMapper<CalculationHistory> HISTORY_MAPPER = new RowMapper<>(HISTORY_COLUMNS) {
+        @Override
+        protected CalculationHistory map(ResultSet rs, int[] index) throws SQLException {
+            CalculationHistory history = new CalculationHistory();
+            history.setId(rs.getLong(index[0]));
+            history.setUserId(rs.getLong(index[1]));
+            history.setUsername(rs.getString(index[2]));
+            history.setCalculationType(CalculationType.valueOf(rs.getString(index[3])));
+            history.setInputParameters(rs.getString(index[4]));
+            history.setResult(rs.getString(index[5]));
+            
+            Timestamp timestamp = rs.getTimestamp(index[6]);
+            if (timestamp != null) {
+                history.setCreatedAt(timestamp.toLocalDateTime());
+            }
+            
+            return history;
+        }
+    };
+    
+    // Запись страницы и значение столбца упорядочивания для положения следующей страницы
+    private static final RowMapper<KeyedHistory> KEYED_HISTORY_MAPPER = new RowMapper<>(
+            Stream.concat(Arrays.stream(HISTORY_COLUMNS), Stream.of("sort_key")).toArray(String[]::new)) {
+        @Override
+        protected KeyedHistory map(ResultSet rs, int[] index) throws SQLException {
+            return new KeyedHistory(HISTORY_MAPPER.map(rs, index), rs.getObject(index[HISTORY_COLUMNS.length]));
+        }
+    };
+    
+    private static final String HISTORY_FROM = " FROM calculation_history h JOIN users u ON h.user_id = u.id";
+    
+    // CROSS JOIN закрепляет порядок соединения: сначала совпадения полнотекстового
+    // индекса, затем их записи по rowid, а не проверка MATCH для каждой записи истории
+    private static final String SEARCH_FROM = " FROM calculation_history_fts"
+            + " CROSS JOIN calculation_history h ON h.id = calculation_history_fts.rowid"
+            + " JOIN users u ON h.user_id = u.id";
+    
     private final DatabaseManager dbManager;
     
     public CalculationHistoryDAO() {
@@ -23,24 +70,26 @@ public class CalculationHistoryDAO {
     }
     
     public CalculationHistory save(CalculationHistory history) {
-        String sql = "INSERT INTO calculation_history (user_id, calculation_type, input_parameters, result) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO calculation_history (user_id, calculation_type, input_parameters, result) VALUES (?, ?, ?, ?) RETURNING id";
         
-        try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setLong(1, history.getUserId());
-            stmt.setString(2, history.getCalculationType().name());
-            stmt.setString(3, history.getInputParameters());
-            stmt.setString(4, history.getResult());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    history.setId(generatedKeys.getLong(1));
-                    history.setCreatedAt(LocalDateTime.now());
-                    logger.info("Запись истории создана, ID: " + history.getId());
+        try {
+            dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                stmt.setLong(1, history.getUserId());
+                stmt.setString(2, history.getCalculationType().name());
+                stmt.setString(3, history.getInputParameters());
+                stmt.setString(4, history.getResult());
+                
+                // getGeneratedKeys драйвером SQLite не поддерживается
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        history.setId(rs.getLong(1));
+                        history.setCreatedAt(LocalDateTime.now());
+                        logger.info("Запись истории создана, ID: " + history.getId());
+                    }
                 }
-            }
+                return history;
+            });
         } catch (SQLException e) {
             logger.error("Ошибка сохранения записи истории", e);
         }
@@ -48,8 +97,49 @@ public class CalculationHistoryDAO {
         return history;
     }
     
+    /**
+     * Сохранить записи одной транзакцией: пакет INSERT и одна фиксация на диск
+     * вместо фиксации на каждую запись. Идентификаторы записям не присваиваются
+     * @return количество сохранённых записей; 0 при ошибке
+     */
+    public int saveAll(List<CalculationHistory> histories) {
+        if (histories.isEmpty()) {
+            return 0;
+        }
+        String sql = "INSERT INTO calculation_history (user_id, calculation_type, input_parameters, result) VALUES (?, ?, ?, ?)";
+        
+        try {
+            dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                connection.setAutoCommit(false);
+                try {
+                    for (CalculationHistory history : histories) {
+                        stmt.setLong(1, history.getUserId());
+                        stmt.setString(2, history.getCalculationType().name());
+                        stmt.setString(3, history.getInputParameters());
+                        stmt.setString(4, history.getResult());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    connection.commit();
+                } catch (SQLException e) {
+                    stmt.clearBatch();
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+                return null;
+            });
+            logger.info("Записей истории сохранено: " + histories.size());
+            return histories.size();
+        } catch (SQLException e) {
+            logger.error("Ошибка сохранения записей истории", e);
+            return 0;
+        }
+    }
+    
     public List<CalculationHistory> findByUserId(Long userId) {
-        List<CalculationHistory> history = new ArrayList<>();
         String sql = """
             SELECT h.*, u.username 
             FROM calculation_history h 
@@ -58,22 +148,19 @@ public class CalculationHistoryDAO {
             ORDER BY h.created_at DESC
         """;
         
-        try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql)) {
-            stmt.setLong(1, userId);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                history.add(mapResultSetToHistory(rs));
-            }
+        try {
+            return dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                stmt.setLong(1, userId);
+                return HISTORY_MAPPER.mapAll(stmt.executeQuery());
+            });
         } catch (SQLException e) {
             logger.error("Ошибка получения истории пользователя, ID: " + userId, e);
+            return new ArrayList<>();
         }
-        
-        return history;
     }
     
     public List<CalculationHistory> findAll() {
-        List<CalculationHistory> history = new ArrayList<>();
         String sql = """
             SELECT h.*, u.username 
             FROM calculation_history h 
@@ -81,21 +168,16 @@ public class CalculationHistoryDAO {
             ORDER BY h.created_at DESC
         """;
         
-        try (Statement stmt = dbManager.getConnection().createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                history.add(mapResultSetToHistory(rs));
-            }
+        try {
+            return dbManager.execute(connection ->
+                    HISTORY_MAPPER.mapAll(dbManager.prepare(connection, sql).executeQuery()));
         } catch (SQLException e) {
             logger.error("Ошибка получения всей истории", e);
+            return new ArrayList<>();
         }
-        
-        return history;
     }
     
     public List<CalculationHistory> findByUserIdAndType(Long userId, CalculationType type) {
-        List<CalculationHistory> history = new ArrayList<>();
         String sql = """
             SELECT h.*, u.username 
             FROM calculation_history h 
@@ -104,23 +186,20 @@ public class CalculationHistoryDAO {
             ORDER BY h.created_at DESC
         """;
         
-        try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql)) {
-            stmt.setLong(1, userId);
-            stmt.setString(2, type.name());
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                history.add(mapResultSetToHistory(rs));
-            }
+        try {
+            return dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                stmt.setLong(1, userId);
+                stmt.setString(2, type.name());
+                return HISTORY_MAPPER.mapAll(stmt.executeQuery());
+            });
         } catch (SQLException e) {
             logger.error("Ошибка получения истории по типу", e);
+            return new ArrayList<>();
         }
-        
-        return history;
     }
     
     public List<CalculationHistory> findByType(CalculationType type) {
-        List<CalculationHistory> history = new ArrayList<>();
         String sql = """
             SELECT h.*, u.username 
             FROM calculation_history h 
@@ -129,26 +208,115 @@ public class CalculationHistoryDAO {
             ORDER BY h.created_at DESC
         """;
         
-        try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql)) {
-            stmt.setString(1, type.name());
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                history.add(mapResultSetToHistory(rs));
-            }
+        try {
+            return dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                stmt.setString(1, type.name());
+                return HISTORY_MAPPER.mapAll(stmt.executeQuery());
+            });
         } catch (SQLException e) {
             logger.error("Ошибка получения истории по типу", e);
+            return new ArrayList<>();
         }
+    }
+    
+    /**
+     * Страница истории после положения after: условие по ключу
+     * (столбец упорядочивания, id) вместо OFFSET, поэтому стоимость чтения
+     * страницы не растёт к концу истории
+     * @param after положение, после которого начинается страница; null — с начала
+     * @param limit наибольшее количество записей страницы
+     */
+    public HistoryPage findPage(HistoryQuery query, HistoryPage.Cursor after, int limit) {
+        String sql = "SELECT h.*, u.username, " + sortColumn(query) + " AS sort_key" + from(query)
+                + where(query, after != null ? keyCondition(query) : null)
+                + orderBy(query) + " LIMIT ?";
         
-        return history;
+        try {
+            return dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                int i = bindFilter(stmt, query);
+                if (after != null) {
+                    if (query.sort() != HistorySort.ID) {
+                        stmt.setObject(i++, after.sortValue());
+                    }
+                    stmt.setLong(i++, after.id());
+                }
+                // Лишняя запись показывает, есть ли следующая страница
+                stmt.setInt(i, limit + 1);
+                
+                List<KeyedHistory> rows = KEYED_HISTORY_MAPPER.mapAll(stmt.executeQuery());
+                boolean last = rows.size() <= limit;
+                if (!last) {
+                    rows = rows.subList(0, limit);
+                }
+                List<CalculationHistory> items = new ArrayList<>(rows.size());
+                for (KeyedHistory row : rows) {
+                    items.add(row.history());
+                }
+                KeyedHistory end = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+                return new HistoryPage(items,
+                        last ? null : new HistoryPage.Cursor(end.sortKey(), end.history().getId()));
+            });
+        } catch (SQLException e) {
+            logger.error("Ошибка получения страницы истории", e);
+            return new HistoryPage(List.of(), null);
+        }
+    }
+    
+    /**
+     * Положение записи с номером offset (от 0) в упорядоченной истории, чтобы
+     * начать чтение страниц с произвольного места
+     * @return положение или null, если записей меньше
+     */
+    public HistoryPage.Cursor findCursor(HistoryQuery query, long offset) {
+        String sql = "SELECT " + sortColumn(query) + ", h.id" + from(query)
+                + where(query, null) + orderBy(query) + " LIMIT 1 OFFSET ?";
+        
+        try {
+            return dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                int i = bindFilter(stmt, query);
+                stmt.setLong(i, offset);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? new HistoryPage.Cursor(rs.getObject(1), rs.getLong(2)) : null;
+                }
+            });
+        } catch (SQLException e) {
+            logger.error("Ошибка получения положения в истории", e);
+            return null;
+        }
+    }
+    
+    /**
+     * Количество записей выборки
+     */
+    public long count(HistoryQuery query) {
+        String sql = "SELECT COUNT(*)" + from(query) + where(query, null);
+        
+        try {
+            return dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                bindFilter(stmt, query);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : 0L;
+                }
+            });
+        } catch (SQLException e) {
+            logger.error("Ошибка подсчёта записей истории", e);
+            return 0;
+        }
     }
     
     public void delete(Long id) {
         String sql = "DELETE FROM calculation_history WHERE id = ?";
         
-        try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            stmt.executeUpdate();
+        try {
+            dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                stmt.setLong(1, id);
+                return stmt.executeUpdate();
+            });
             logger.info("Запись истории удалена, ID: " + id);
         } catch (SQLException e) {
             logger.error("Ошибка удаления записи истории, ID: " + id, e);
@@ -158,31 +326,90 @@ public class CalculationHistoryDAO {
     public void deleteByUserId(Long userId) {
         String sql = "DELETE FROM calculation_history WHERE user_id = ?";
         
-        try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql)) {
-            stmt.setLong(1, userId);
-            stmt.executeUpdate();
+        try {
+            dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                stmt.setLong(1, userId);
+                return stmt.executeUpdate();
+            });
             logger.info("История пользователя удалена, user_id: " + userId);
         } catch (SQLException e) {
             logger.error("Ошибка удаления истории пользователя, user_id: " + userId, e);
         }
     }
     
-    private CalculationHistory mapResultSetToHistory(ResultSet rs) throws SQLException {
-        CalculationHistory history = new CalculationHistory();
-        history.setId(rs.getLong("id"));
-        history.setUserId(rs.getLong("user_id"));
-        history.setUsername(rs.getString("username"));
-        history.setCalculationType(CalculationType.valueOf(rs.getString("calculation_type")));
-        history.setInputParameters(rs.getString("input_parameters"));
-        history.setResult(rs.getString("result"));
-        
-        Timestamp timestamp = rs.getTimestamp("created_at");
-        if (timestamp != null) {
-            history.setCreatedAt(timestamp.toLocalDateTime());
+    private static String sortColumn(HistoryQuery query) {
+        return switch (query.sort()) {
+            // При поиске — rowid индекса: FTS5 выдаёт совпадения в этом порядке без сортировки
+            case ID -> query.hasSearch() ? "calculation_history_fts.rowid" : "h.id";
+            case CREATED_AT -> "h.created_at";
+            case CALCULATION_TYPE -> "h.calculation_type";
+            case INPUT_PARAMETERS -> "h.input_parameters";
+            case RESULT -> "h.result";
+            case USERNAME -> "u.username";
+            case RELEVANCE -> "calculation_history_fts.rank";
+        };
+    }
+    
+    private static String from(HistoryQuery query) {
+        return query.hasSearch() ? SEARCH_FROM : HISTORY_FROM;
+    }
+    
+    private static String orderBy(HistoryQuery query) {
+        String direction = query.ascending() ? " ASC" : " DESC";
+        if (query.sort() == HistorySort.ID) {
+            return " ORDER BY " + sortColumn(query) + direction;
         }
-        
-        return history;
+        return " ORDER BY " + sortColumn(query) + direction + ", h.id" + direction;
+    }
+    
+    /**
+     * Условие «после положения» для пары (столбец упорядочивания, id); при
+     * упорядочивании по id — только для id
+     */
+    private static String keyCondition(HistoryQuery query) {
+        String comparison = query.ascending() ? " > " : " < ";
+        if (query.sort() == HistorySort.ID) {
+            return sortColumn(query) + comparison + "?";
+        }
+        return "(" + sortColumn(query) + ", h.id)" + comparison + "(?, ?)";
+    }
+    
+    private static String where(HistoryQuery query, String keyCondition) {
+        List<String> conditions = new ArrayList<>(4);
+        if (query.hasSearch()) {
+            conditions.add("calculation_history_fts MATCH ?");
+        }
+        if (query.userId() != null) {
+            conditions.add("h.user_id = ?");
+        }
+        if (query.type() != null) {
+            conditions.add("h.calculation_type = ?");
+        }
+        if (keyCondition != null) {
+            conditions.add(keyCondition);
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+    
+    /**
+     * Задать параметры фильтра выборки
+     * @return номер следующего параметра запроса
+     */
+    private static int bindFilter(PreparedStatement stmt, HistoryQuery query) throws SQLException {
+        int i = 1;
+        if (query.hasSearch()) {
+            stmt.setString(i++, FullTextQuery.toMatchExpression(query.search()));
+        }
+        if (query.userId() != null) {
+            stmt.setLong(i++, query.userId());
+        }
+        if (query.type() != null) {
+            stmt.setString(i++, query.type().name());
+        }
+        return i;
+    }
+    
+    private record KeyedHistory(CalculationHistory history, Object sortKey) {
     }
 }
-
-
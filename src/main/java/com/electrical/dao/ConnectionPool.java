@@ -0,0 +1,218 @@
+package com.electrical.dao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Пул соединений JDBC с базой данных SQLite.
+ *
+ * <p>Пул открывает не больше {@code size} соединений; поток, которому не
+ * хватило соединения, ждёт освобождения не дольше {@code acquireTimeout}.
+ * Свободное соединение проверяется перед выдачей и при ошибке заменяется
+ * новым, а незавершённая транзакция возвращённого соединения откатывается.</p>
+ *
+ * <p>Новые соединения переводят базу в режим журнала WAL: чтение не ждёт
+ * записи, а запись ждёт другую запись не дольше {@code acquireTimeout}
+ * (busy_timeout SQLite), вместо ошибки «database is locked».</p>
+ *
+ * <p>У каждого соединения свой кэш подготовленных запросов
+ * ({@link StatementCache}); запросы закрываются вместе с соединением.</p>
+ *
+ * <p>Ожидание — на семафоре и блокировке, а не в synchronized, чтобы не
+ * занимать поток-носитель виртуального потока.</p>
+ */
+public final class ConnectionPool implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+    
+    private final String url;
+    private final int size;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Connection> idle = new ArrayDeque<>();     // Под lock
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private boolean closed;                                        // Под lock
+    
+    /**
+     * @param url адрес базы данных JDBC
+     * @param size наибольшее количество открытых соединений
+     * @param acquireTimeout наибольшее время ожидания свободного соединения
+     */
+    public ConnectionPool(String url, int size, Duration acquireTimeout) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Размер пула соединений должен быть положительным");
+        }
+        if (acquireTimeout.isNegative()) {
+            throw new IllegalArgumentException("Время ожидания соединения не может быть отрицательным");
+        }
+        this.url = url;
+        this.size = size;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(size, true);
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    /**
+     * Взять соединение из пула; после использования его нужно вернуть
+     * через {@link #release(Connection)}
+     * @throws SQLTimeoutException если свободного соединения не дождались
+     * @throws SQLException если пул закрыт или соединение не открылось
+     */
+    public Connection acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Нет свободного соединения с базой данных за "
+                        + acquireTimeout.toMillis() + " мс");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Ожидание соединения с базой данных прервано", e);
+        }
+        
+        try {
+            Connection connection;
+            while ((connection = pollIdle()) != null) {
+                if (isUsable(connection)) {
+                    return connection;
+                }
+                closeQuietly(connection);
+            }
+            return open();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    /**
+     * Вернуть соединение в пул. Незавершённая транзакция откатывается;
+     * соединение, которое не удалось вернуть в исходное состояние, закрывается
+     */
+    public void release(Connection connection) {
+        try {
+            boolean reusable = reset(connection);
+            lock.lock();
+            try {
+                if (reusable && !closed) {
+                    idle.push(connection);
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            closeQuietly(connection);
+        } finally {
+            permits.release();
+        }
+    }
+    
+    /**
+     * Кэш подготовленных запросов соединения, выданного пулом
+     */
+    StatementCache statements(Connection connection) {
+        StatementCache cache = statementCaches.get(connection);
+        if (cache == null) {
+            throw new IllegalStateException("Соединение выдано не этим пулом");
+        }
+        return cache;
+    }
+    
+    /**
+     * Закрыть свободные соединения; занятые закрываются при возврате.
+     * После закрытия пул не выдаёт соединений
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            for (Connection connection : idle) {
+                closeQuietly(connection);
+            }
+            idle.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private Connection pollIdle() throws SQLException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new SQLException("Пул соединений с базой данных закрыт");
+            }
+            return idle.poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private Connection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL");
+            stmt.execute("PRAGMA busy_timeout = " + acquireTimeout.toMillis());
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+        statementCaches.put(connection, new StatementCache(connection));
+        logger.info("Соединение с базой данных установлено");
+        return connection;
+    }
+    
+    private static boolean isUsable(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
+    private static boolean reset(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.warn("Соединение с базой данных не удалось вернуть в пул", e);
+            return false;
+        }
+    }
+    
+    private void closeQuietly(Connection connection) {
+        StatementCache cache = statementCaches.remove(connection);
+        if (cache != null) {
+            cache.close();
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.error("Ошибка закрытия соединения", e);
+        }
+    }
+}
@@ -1,22 +1,49 @@
 package com.electrical.dao;
 
+import com.electrical.util.FullTextQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Менеджер базы данных SQLite
+ * Менеджер базы данных SQLite.
+ *
+ * <p>Соединения выдаёт {@link ConnectionPool}: операции разных потоков (окна
+ * приложения, HTTP API) выполняются на разных соединениях, и чтение не ждёт
+ * записи. DAO выполняют запросы через {@link #execute(SqlWork)}: соединение
+ * берётся из пула на время одной операции, а вложенные операции того же
+ * потока используют то же соединение. Подготовленные запросы
+ * ({@link #prepare(Connection, String)}) кэшируются для каждого соединения
+ * пула и не разбираются повторно.</p>
+ *
+ * <p>Размер пула и время ожидания свободного соединения задаются системными
+ * свойствами {@value #POOL_SIZE_PROPERTY} и {@value #POOL_TIMEOUT_PROPERTY}.</p>
  */
 public class DatabaseManager {
     
     private static final Logger logger = LoggerFactory.getLogger(DatabaseManager.class);
     private static final String DB_URL = "jdbc:sqlite:electrical_calc.db";
+    
+    /** Системное свойство с количеством соединений пула */
+    public static final String POOL_SIZE_PROPERTY = "electrical.db.pool.size";
+    
+    /** Системное свойство со временем ожидания свободного соединения, мс */
+    public static final String POOL_TIMEOUT_PROPERTY = "electrical.db.pool.timeout";
+    
+    private static final int DEFAULT_POOL_SIZE = 4;
+    private static final long DEFAULT_POOL_TIMEOUT_MILLIS = 10_000;
+    
     private static DatabaseManager instance;
-    private Connection connection;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ThreadLocal<Borrowed> borrowed = new ThreadLocal<>();    // Соединение текущей операции потока
+    private ConnectionPool pool;                                            // Под lock
     
     private DatabaseManager() {
     }
@@ -28,20 +55,78 @@ public class DatabaseManager {
         return instance;
     }
     
-    public Connection getConnection() {
+    /**
+     * Выполнить операцию с соединением из пула. Если все соединения заняты,
+     * операция ждёт освобождения одного из них
+     * @param work операция; соединение нельзя использовать после её завершения
+     * @return результат операции
+     * @throws java.sql.SQLTimeoutException если свободного соединения не дождались
+     */
+    public <T> T execute(SqlWork<T> work) throws SQLException {
+        Borrowed current = borrowed.get();
+        if (current != null) {
+            return work.apply(current.connection());
+        }
+        
+        ConnectionPool connections = pool();
+        Connection connection = connections.acquire();
+        borrowed.set(new Borrowed(connections, connection));
         try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DB_URL);
-                logger.info("Соединение с базой данных установлено");
+            return work.apply(connection);
+        } finally {
+            borrowed.remove();
+            connections.release(connection);
+        }
+    }
+    
+    /**
+     * Подготовленный запрос из кэша соединения операции {@link #execute(SqlWork)}.
+     * Запрос не закрывается после использования, а его результаты нужно
+     * закрыть до следующего использования того же запроса
+     * @param connection соединение, переданное в операцию
+     */
+    PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        Borrowed current = borrowed.get();
+        if (current == null || current.connection() != connection) {
+            throw new IllegalStateException("Запрос готовится вне операции с этим соединением");
+        }
+        return current.pool().statements(connection).prepare(sql);
+    }
+    
+    /**
+     * Пул соединений; создаётся при первом обращении и после {@link #closeConnection()}
+     */
+    private ConnectionPool pool() {
+        lock.lock();
+        try {
+            if (pool == null) {
+                int size = Integer.getInteger(POOL_SIZE_PROPERTY, DEFAULT_POOL_SIZE);
+                long timeout = Long.getLong(POOL_TIMEOUT_PROPERTY, DEFAULT_POOL_TIMEOUT_MILLIS);
+                pool = new ConnectionPool(DB_URL, size, Duration.ofMillis(timeout));
             }
-        } catch (SQLException e) {
-            logger.error("Ошибка подключения к базе данных", e);
+            return pool;
+        } finally {
+            lock.unlock();
         }
-        return connection;
     }
     
     public void initializeDatabase() {
-        try (Statement stmt = getConnection().createStatement()) {
+        try {
+            execute(connection -> {
+                createSchema(connection);
+                return null;
+            });
+        } catch (SQLException e) {
+            logger.error("Ошибка инициализации базы данных", e);
+        }
+    }
+    
+    /**
+     * Создать недостающие таблицы, индексы и полнотекстовый индекс истории
+     * в базе соединения
+     */
+    public static void createSchema(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
             
             // Таблица пользователей
             stmt.execute("""
@@ -70,24 +155,100 @@ public class DatabaseManager {
             // Создание индексов
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_history_user_id ON calculation_history(user_id)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_history_created_at ON calculation_history(created_at)");
+            // Страницы истории пользователя читаются по ключу (created_at, id) без сортировки
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_history_user_created_at ON calculation_history(user_id, created_at)");
             
-            logger.info("База данных инициализирована");
+            createSearchIndex(stmt);
             
-        } catch (SQLException e) {
-            logger.error("Ошибка инициализации базы данных", e);
+            logger.info("База данных инициализирована");
         }
     }
     
+    /**
+     * Полнотекстовый индекс FTS5 по входным параметрам и результату истории.
+     * Индекс хранит только знаки, а текст берёт из calculation_history
+     * (external content); триггеры обновляют его вместе с таблицей. Знаки
+     * разбиваются так, как ожидает {@link FullTextQuery}; индекс начал знаков
+     * длиной до 3 символов ускоряет поиск по началу слова. Индекс, добавленный
+     * к существующей базе, заполняется из уже сохранённой истории
+     */
+    private static void createSearchIndex(Statement stmt) throws SQLException {
+        boolean exists;
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'calculation_history_fts'")) {
+            exists = rs.next();
+        }
+        
+        stmt.execute("""
+            CREATE VIRTUAL TABLE IF NOT EXISTS calculation_history_fts USING fts5(
+                input_parameters,
+                result,
+                content = 'calculation_history',
+                content_rowid = 'id',
+                tokenize = "%s",
+                prefix = '1 2 3'
+            )
+        """.formatted(FullTextQuery.TOKENIZER));
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS calculation_history_fts_insert
+            AFTER INSERT ON calculation_history BEGIN
+                INSERT INTO calculation_history_fts (rowid, input_parameters, result)
+                VALUES (new.id, new.input_parameters, new.result);
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS calculation_history_fts_delete
+            AFTER DELETE ON calculation_history BEGIN
+                INSERT INTO calculation_history_fts (calculation_history_fts, rowid, input_parameters, result)
+                VALUES ('delete', old.id, old.input_parameters, old.result);
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS calculation_history_fts_update
+            AFTER UPDATE OF input_parameters, result ON calculation_history BEGIN
+                INSERT INTO calculation_history_fts (calculation_history_fts, rowid, input_parameters, result)
+                VALUES ('delete', old.id, old.input_parameters, old.result);
+                INSERT INTO calculation_history_fts (rowid, input_parameters, result)
+                VALUES (new.id, new.input_parameters, new.result);
+            END
+        """);
+        
+        if (!exists) {
+            stmt.execute("INSERT INTO calculation_history_fts (calculation_history_fts) VALUES ('rebuild')");
+            logger.info("Построен полнотекстовый индекс истории");
+        }
+    }
+    
+    /**
+     * Дописать отложенную историю ({@link HistoryWriter}) и закрыть пул
+     * соединений. Соединения, занятые выполняющимися операциями, закрываются
+     * по их завершении
+     */
     public void closeConnection() {
+        HistoryWriter.closeInstance();
+        lock.lock();
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                logger.info("Соединение с базой данных закрыто");
+            if (pool != null) {
+                pool.close();
+                pool = null;
+                logger.info("Соединения с базой данных закрыты");
             }
-        } catch (SQLException e) {
-            logger.error("Ошибка закрытия соединения", e);
+        } finally {
+            lock.unlock();
         }
     }
+    
+    /**
+     * Соединение, выданное потоку пулом на время операции
+     */
+    private record Borrowed(ConnectionPool pool, Connection connection) {
+    }
+    
+    /**
+     * Операция с соединением базы данных
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T apply(Connection connection) throws SQLException;
+    }
 }
-
-
@@ -0,0 +1,246 @@
+package com.electrical.dao;
+
+import com.electrical.model.CalculationHistory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Отложенная запись истории расчётов.
+ *
+ * <p>{@link #submit(CalculationHistory)} только ставит запись в очередь, а
+ * фоновый поток сохраняет накопившиеся записи пакетами через
+ * {@link CalculationHistoryDAO#saveAll(List)}: одна транзакция и одна
+ * фиксация на диск на пакет. Пока пакет пишется, новые записи собираются в
+ * следующий пакет. Очередь ограничена: если она заполнена, вызывающий поток
+ * ждёт, пока фоновый поток её разгрузит.</p>
+ *
+ * <p>Фоновый поток запускается при первой записи, поэтому сервисы, которые
+ * ничего не сохраняют (например, консольный режим без истории), его не
+ * создают.</p>
+ *
+ * <p>Перед чтением и удалением истории нужно вызвать {@link #flush()}, чтобы
+ * увидеть поставленные в очередь записи. {@link #close()} дописывает очередь;
+ * записи, поставленные после закрытия (например, запросом, завершившимся во
+ * время остановки приложения), отбрасываются с предупреждением, чтобы не
+ * открывать заново уже закрытую базу данных.</p>
+ */
+public final class HistoryWriter implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HistoryWriter.class);
+    
+    /** Ёмкость очереди по умолчанию */
+    public static final int DEFAULT_CAPACITY = 1024;
+    
+    /** Наибольший размер пакета по умолчанию */
+    public static final int DEFAULT_MAX_BATCH = 256;
+    
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+    
+    // Признак остановки фонового потока в очереди
+    private static final CalculationHistory STOP = new CalculationHistory();
+    
+    private static HistoryWriter instance;
+    
+    private final CalculationHistoryDAO historyDAO;
+    private final int maxBatch;
+    private final BlockingQueue<CalculationHistory> queue;
+    private final AtomicLong submitted = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition progress = lock.newCondition();
+    private long processed;                 // Записано или отброшено; под lock
+    private Thread thread;                  // Запускается при первой записи; под lock
+    private volatile boolean closed;        // Меняется под lock
+    
+    /**
+     * @param historyDAO DAO, которым сохраняются пакеты
+     * @param capacity ёмкость очереди
+     * @param maxBatch наибольшее количество записей в одной транзакции
+     */
+    public HistoryWriter(CalculationHistoryDAO historyDAO, int capacity, int maxBatch) {
+        if (capacity < 1 || maxBatch < 1) {
+            throw new IllegalArgumentException("Ёмкость очереди и размер пакета должны быть положительными");
+        }
+        this.historyDAO = historyDAO;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+    
+    /**
+     * Общий экземпляр для истории приложения
+     */
+    public static synchronized HistoryWriter getInstance() {
+        if (instance == null) {
+            instance = new HistoryWriter(new CalculationHistoryDAO(), DEFAULT_CAPACITY, DEFAULT_MAX_BATCH);
+        }
+        return instance;
+    }
+    
+    /**
+     * Дописать очередь общего экземпляра и остановить его, если он создан.
+     * Следующий вызов {@link #getInstance()} создаст новый экземпляр
+     */
+    public static void closeInstance() {
+        HistoryWriter current;
+        synchronized (HistoryWriter.class) {
+            current = instance;
+            instance = null;
+        }
+        if (current != null) {
+            current.close();
+        }
+    }
+    
+    /**
+     * Поставить запись в очередь на сохранение. Если очередь заполнена,
+     * ждёт освобождения места. После {@link #close()} запись отбрасывается
+     */
+    public void submit(CalculationHistory history) {
+        submitted.incrementAndGet();
+        if (!start()) {
+            discard(history);
+            return;
+        }
+        try {
+            while (!queue.offer(history, 1, TimeUnit.SECONDS)) {
+                if (closed) {
+                    discard(history);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write(List.of(history));
+            return;
+        }
+        // Запись могла попасть в очередь после того, как её дописал close()
+        if (closed && queue.remove(history)) {
+            discard(history);
+        }
+    }
+    
+    /**
+     * Дождаться сохранения всех записей, поставленных в очередь до вызова
+     */
+    public void flush() {
+        long target = submitted.get();
+        lock.lock();
+        try {
+            while (processed < target) {
+                progress.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Дописать очередь и остановить фоновый поток
+     */
+    @Override
+    public void close() {
+        Thread running;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            running = thread;
+        } finally {
+            lock.unlock();
+        }
+        if (running == null) {
+            return;
+        }
+        try {
+            queue.put(STOP);
+            running.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainRemaining();
+    }
+    
+    /**
+     * Запустить фоновый поток, если он ещё не запущен
+     * @return false, если запись уже закрыта
+     */
+    private boolean start() {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            if (thread == null) {
+                thread = new Thread(this::run, "history-writer");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void run() {
+        List<CalculationHistory> batch = new ArrayList<>(maxBatch);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            stopping = batch.remove(STOP);
+            write(batch);
+            batch.clear();
+        }
+    }
+    
+    private void drainRemaining() {
+        List<CalculationHistory> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.remove(STOP);
+        write(rest);
+    }
+    
+    private void write(List<CalculationHistory> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            historyDAO.saveAll(batch);
+        } catch (RuntimeException e) {
+            logger.error("Ошибка отложенной записи истории", e);
+        } finally {
+            markProcessed(batch.size());
+        }
+    }
+    
+    private void discard(CalculationHistory history) {
+        logger.warn("Запись истории после закрытия отброшена: {}", history.getCalculationType());
+        markProcessed(1);
+    }
+    
+    private void markProcessed(int count) {
+        lock.lock();
+        try {
+            processed += count;
+            progress.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
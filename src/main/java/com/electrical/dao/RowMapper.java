@@ -0,0 +1,63 @@
+package com.electrical.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Преобразование строк результата запроса в объекты.
+ *
+ * <p>Индексы столбцов находятся по именам один раз на результат запроса,
+ * а строки читаются по индексам. Результат запроса закрывается после
+ * чтения. Экземпляр не хранит состояния и используется всеми запросами DAO.</p>
+ *
+ * @param <T> тип объекта строки
+ */
+abstract class RowMapper<T> {
+    
+    private final String[] columns;
+    
+    /**
+     * @param columns имена читаемых столбцов; в {@link #map(ResultSet, int[])}
+     *                индексы передаются в том же порядке
+     */
+    protected RowMapper(String... columns) {
+        this.columns = columns.clone();
+    }
+    
+    /**
+     * Объект текущей строки
+     * @param index индексы столбцов результата в порядке имён конструктора
+     */
+    protected abstract T map(ResultSet rs, int[] index) throws SQLException;
+    
+    final List<T> mapAll(ResultSet rs) throws SQLException {
+        try (rs) {
+            List<T> items = new ArrayList<>();
+            int[] index = null;
+            while (rs.next()) {
+                if (index == null) {
+                    index = resolve(rs);
+                }
+                items.add(map(rs, index));
+            }
+            return items;
+        }
+    }
+    
+    final Optional<T> mapFirst(ResultSet rs) throws SQLException {
+        try (rs) {
+            return rs.next() ? Optional.of(map(rs, resolve(rs))) : Optional.empty();
+        }
+    }
+    
+    private int[] resolve(ResultSet rs) throws SQLException {
+        int[] index = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            index[i] = rs.findColumn(columns[i]);
+        }
+        return index;
+    }
+}
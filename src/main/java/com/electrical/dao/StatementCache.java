@@ -0,0 +1,71 @@
+package com.electrical.dao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Подготовленные запросы одного соединения, по одному на текст SQL.
+ *
+ * <p>Запрос разбирается при первом использовании и затем выдаётся повторно с
+ * очищенными параметрами. Кэш ограничен {@value #MAX_STATEMENTS} запросами:
+ * давно не использованный запрос закрывается. Соединение используется одним
+ * потоком на время операции, поэтому кэш не синхронизирован.</p>
+ */
+final class StatementCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+    private static final int MAX_STATEMENTS = 64;
+    
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    
+    StatementCache(Connection connection) {
+        this.connection = connection;
+    }
+    
+    /**
+     * Подготовленный запрос; закрывать его не нужно
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt != null && !stmt.isClosed()) {
+            stmt.clearParameters();
+            return stmt;
+        }
+        
+        stmt = connection.prepareStatement(sql);
+        statements.put(sql, stmt);
+        if (statements.size() > MAX_STATEMENTS) {
+            Iterator<PreparedStatement> eldest = statements.values().iterator();
+            closeQuietly(eldest.next());
+            eldest.remove();
+        }
+        return stmt;
+    }
+    
+    /**
+     * Закрыть все запросы; вызывается перед закрытием соединения
+     */
+    void close() {
+        for (PreparedStatement stmt : statements.values()) {
+            closeQuietly(stmt);
+        }
+        statements.clear();
+    }
+    
+    private static void closeQuietly(Statement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            logger.error("Ошибка закрытия запроса", e);
+        }
+    }
+}
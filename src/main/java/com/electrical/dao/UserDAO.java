@@ -17,6 +17,26 @@ import java.util.Optional;
 public class UserDAO {
     
     private static final Logger logger = LoggerFactory.getLogger(UserDAO.class);
+    
+    private static final RowMapper<User> USER_MAPPER = new RowMapper<>(
+            "id", "username", "password_hash", "role", "created_at") {
+        @Override
+        protected User map(ResultSet rs, int[] index) throws SQLException {
+            User user = new User();
+            user.setId(rs.getLong(index[0]));
+            user.setUsername(rs.getString(index[1]));
+            user.setPasswordHash(rs.getString(index[2]));
+            user.setRole(Role.valueOf(rs.getString(index[3])));
+            
+            Timestamp timestamp = rs.getTimestamp(index[4]);
+            if (timestamp != null) {
+                user.setCreatedAt(timestamp.toLocalDateTime());
+            }
+            
+            return user;
+        }
+    };
+    
     private final DatabaseManager dbManager;
     
     public UserDAO() {
@@ -26,13 +46,12 @@ public class UserDAO {
     public Optional<User> findByUsername(String username) {
         String sql = "SELECT * FROM users WHERE username = ?";
         
-        try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql)) {
-            stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToUser(rs));
-            }
+        try {
+            return dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                stmt.setString(1, username);
+                return USER_MAPPER.mapFirst(stmt.executeQuery());
+            });
         } catch (SQLException e) {
             logger.error("Ошибка поиска пользователя по имени: " + username, e);
         }
@@ -43,13 +62,12 @@ public class UserDAO {
     public Optional<User> findById(Long id) {
         String sql = "SELECT * FROM users WHERE id = ?";
         
-        try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToUser(rs));
-            }
+        try {
+            return dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                stmt.setLong(1, id);
+                return USER_MAPPER.mapFirst(stmt.executeQuery());
+            });
         } catch (SQLException e) {
             logger.error("Ошибка поиска пользователя по ID: " + id, e);
         }
@@ -58,40 +76,37 @@ public class UserDAO {
     }
     
     public List<User> findAll() {
-        List<User> users = new ArrayList<>();
         String sql = "SELECT * FROM users ORDER BY created_at DESC";
         
-        try (Statement stmt = dbManager.getConnection().createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
-            }
+        try {
+            return dbManager.execute(connection ->
+                    USER_MAPPER.mapAll(dbManager.prepare(connection, sql).executeQuery()));
         } catch (SQLException e) {
             logger.error("Ошибка получения списка пользователей", e);
+            return new ArrayList<>();
         }
-        
-        return users;
     }
     
     public User save(User user) {
-        String sql = "INSERT INTO users (username, password_hash, role) VALUES (?, ?, ?)";
+        String sql = "INSERT INTO users (username, password_hash, role) VALUES (?, ?, ?) RETURNING id";
         
-        try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, user.getUsername());
-            stmt.setString(2, user.getPasswordHash());
-            stmt.setString(3, user.getRole().name());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    user.setId(generatedKeys.getLong(1));
-                    user.setCreatedAt(LocalDateTime.now());
-                    logger.info("Пользователь создан: " + user.getUsername());
+        try {
+            dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                stmt.setString(1, user.getUsername());
+                stmt.setString(2, user.getPasswordHash());
+                stmt.setString(3, user.getRole().name());
+                
+                // getGeneratedKeys драйвером SQLite не поддерживается
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        user.setId(rs.getLong(1));
+                        user.setCreatedAt(LocalDateTime.now());
+                        logger.info("Пользователь создан: " + user.getUsername());
+                    }
                 }
-            }
+                return user;
+            });
         } catch (SQLException e) {
             logger.error("Ошибка создания пользователя: " + user.getUsername(), e);
         }
@@ -102,13 +117,16 @@ public class UserDAO {
     public void update(User user) {
         String sql = "UPDATE users SET username = ?, password_hash = ?, role = ? WHERE id = ?";
         
-        try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql)) {
-            stmt.setString(1, user.getUsername());
-            stmt.setString(2, user.getPasswordHash());
-            stmt.setString(3, user.getRole().name());
-            stmt.setLong(4, user.getId());
-            
-            stmt.executeUpdate();
+        try {
+            dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                stmt.setString(1, user.getUsername());
+                stmt.setString(2, user.getPasswordHash());
+                stmt.setString(3, user.getRole().name());
+                stmt.setLong(4, user.getId());
+                
+                return stmt.executeUpdate();
+            });
             logger.info("Пользователь обновлён: " + user.getUsername());
         } catch (SQLException e) {
             logger.error("Ошибка обновления пользователя: " + user.getUsername(), e);
@@ -118,9 +136,12 @@ public class UserDAO {
     public void delete(Long id) {
         String sql = "DELETE FROM users WHERE id = ?";
         
-        try (PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            stmt.executeUpdate();
+        try {
+            dbManager.execute(connection -> {
+                PreparedStatement stmt = dbManager.prepare(connection, sql);
+                stmt.setLong(1, id);
+                return stmt.executeUpdate();
+            });
             logger.info("Пользователь удалён, ID: " + id);
         } catch (SQLException e) {
             logger.error("Ошибка удаления пользователя, ID: " + id, e);
@@ -130,21 +151,4 @@ public class UserDAO {
     public boolean existsByUsername(String username) {
         return findByUsername(username).isPresent();
     }
-    
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
-        User user = new User();
-        user.setId(rs.getLong("id"));
-        user.setUsername(rs.getString("username"));
-        user.setPasswordHash(rs.getString("password_hash"));
-        user.setRole(Role.valueOf(rs.getString("role")));
-        
-        Timestamp timestamp = rs.getTimestamp("created_at");
-        if (timestamp != null) {
-            user.setCreatedAt(timestamp.toLocalDateTime());
-        }
-        
-        return user;
-    }
 }
-
-
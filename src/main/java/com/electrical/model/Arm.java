@@ -0,0 +1,212 @@
+package com.electrical.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.DoubleFunction;
+
+/**
+ * Плечо делителя в виде дерева последовательных и параллельных соединений.
+ *
+ * <p>Лист дерева — отдельный резистор, внутренний узел — последовательное
+ * или параллельное соединение дочерних плеч, например R1 + (R2 || R3).
+ * Сопротивление вычисляется один раз при создании: последовательное
+ * соединение — сумма слева направо, параллельное из двух ветвей —
+ * R1*R2/(R1+R2), из большего числа ветвей — 1/Σ(1/R).</p>
+ */
+public final class Arm {
+    
+    /**
+     * Тип узла плеча
+     */
+    public enum Kind {
+        RESISTOR,
+        SERIES,
+        PARALLEL
+    }
+    
+    private final Kind kind;
+    private final double value;                 // Номинал резистора (только для листа)
+    private final List<Arm> children;
+    private final double resistance;
+    private final int resistorCount;
+    
+    private Arm(Kind kind, double value, List<Arm> children) {
+        this.kind = kind;
+        this.value = value;
+        this.children = children;
+        
+        if (kind == Kind.RESISTOR) {
+            this.resistance = value;
+            this.resistorCount = 1;
+        } else {
+            double[] values = new double[children.size()];
+            int count = 0;
+            for (int i = 0; i < values.length; i++) {
+                values[i] = children.get(i).resistance;
+                count += children.get(i).resistorCount;
+            }
+            this.resistance = combine(kind, values, values.length);
+            this.resistorCount = count;
+        }
+    }
+    
+    /**
+     * Одиночный резистор
+     */
+    public static Arm resistor(double value) {
+        return new Arm(Kind.RESISTOR, value, Collections.emptyList());
+    }
+    
+    /**
+     * Последовательное соединение плеч
+     */
+    public static Arm series(List<Arm> children) {
+        return composite(Kind.SERIES, children);
+    }
+    
+    /**
+     * Параллельное соединение плеч
+     */
+    public static Arm parallel(List<Arm> children) {
+        return composite(Kind.PARALLEL, children);
+    }
+    
+    /**
+     * Плечо из резисторов, соединённых одинаково: одиночный резистор,
+     * последовательная или параллельная цепочка
+     */
+    public static Arm of(double[] resistors, boolean parallel) {
+        if (resistors.length == 1) {
+            return resistor(resistors[0]);
+        }
+        List<Arm> children = new ArrayList<>(resistors.length);
+        for (double r : resistors) {
+            children.add(resistor(r));
+        }
+        return composite(parallel ? Kind.PARALLEL : Kind.SERIES, children);
+    }
+    
+    private static Arm composite(Kind kind, List<Arm> children) {
+        if (children.size() < 2) {
+            throw new IllegalArgumentException("Соединение должно содержать не меньше двух ветвей");
+        }
+        return new Arm(kind, 0, List.copyOf(children));
+    }
+    
+    /**
+     * Сопротивление соединения count первых значений. Используется и при
+     * переборе, чтобы оценка кандидата совпадала с характеристиками результата
+     */
+    public static double combine(Kind kind, double[] values, int count) {
+        if (kind == Kind.PARALLEL) {
+            if (count == 2) {
+                return (values[0] * values[1]) / (values[0] + values[1]);
+            }
+            double sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += 1.0 / values[i];
+            }
+            return 1.0 / sum;
+        }
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    /**
+     * Номинал резистора; для соединений не определён
+     */
+    public double getValue() {
+        return value;
+    }
+    
+    public List<Arm> getChildren() {
+        return children;
+    }
+    
+    public double getResistance() {
+        return resistance;
+    }
+    
+    public int getResistorCount() {
+        return resistorCount;
+    }
+    
+    public boolean isResistor() {
+        return kind == Kind.RESISTOR;
+    }
+    
+    /**
+     * Смешанное соединение: хотя бы одна ветвь сама является соединением
+     */
+    public boolean isMixed() {
+        for (Arm child : children) {
+            if (!child.isResistor()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Номиналы всех резисторов плеча слева направо
+     */
+    public double[] getResistorValues() {
+        double[] values = new double[resistorCount];
+        collectValues(values, 0);
+        return values;
+    }
+    
+    private int collectValues(double[] values, int offset) {
+        if (kind == Kind.RESISTOR) {
+            values[offset] = value;
+            return offset + 1;
+        }
+        for (Arm child : children) {
+            offset = child.collectValues(values, offset);
+        }
+        return offset;
+    }
+    
+    /**
+     * Текстовая запись плеча, например "10 кОм + (22 кОм || 47 кОм)"
+     * @param formatter форматирование номинала резистора
+     */
+    public String format(DoubleFunction<String> formatter) {
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb, formatter, false);
+        return sb.toString();
+    }
+    
+    private void appendTo(StringBuilder sb, DoubleFunction<String> formatter, boolean nested) {
+        if (kind == Kind.RESISTOR) {
+            sb.append(formatter.apply(value));
+            return;
+        }
+        if (nested) {
+            sb.append('(');
+        }
+        String separator = kind == Kind.PARALLEL ? " || " : " + ";
+        for (int i = 0; i < children.size(); i++) {
+            if (i > 0) {
+                sb.append(separator);
+            }
+            children.get(i).appendTo(sb, formatter, true);
+        }
+        if (nested) {
+            sb.append(')');
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return format(Double::toString);
+    }
+}
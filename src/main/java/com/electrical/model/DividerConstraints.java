@@ -0,0 +1,73 @@
+package com.electrical.model;
+
+/**
+ * Электрические ограничения на подбираемый делитель напряжения.
+ *
+ * <p>Ограничения по току, мощности и общему сопротивлению сводятся к одной
+ * нижней границе суммы R1 + R2 ({@link #minTotalResistance(double)}), а
+ * ограничение выходного сопротивления — к верхней границе R1‖R2. Поиск
+ * проверяет их как границы сопротивлений плеч до перебора.</p>
+ *
+ * @param maxCurrent максимальный ток через делитель, А
+ * @param maxPower максимальная рассеиваемая мощность, Вт
+ * @param minTotalResistance минимальное общее сопротивление R1 + R2, Ом
+ * @param maxOutputResistance максимальное выходное сопротивление (Тевенена) R1‖R2, Ом;
+ *                            важно при подключении делителя ко входу АЦП
+ */
+public record DividerConstraints(
+        double maxCurrent,
+        double maxPower,
+        double minTotalResistance,
+        double maxOutputResistance) {
+    
+    /**
+     * Без ограничений
+     */
+    public static final DividerConstraints NONE = new DividerConstraints(
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, 0, Double.POSITIVE_INFINITY);
+    
+    public DividerConstraints {
+        if (!(maxCurrent > 0) || !(maxPower > 0) || !(maxOutputResistance > 0)) {
+            throw new IllegalArgumentException("Предельные ток, мощность и выходное сопротивление должны быть положительными");
+        }
+        if (!(minTotalResistance >= 0) || minTotalResistance == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("Минимальное общее сопротивление должно быть неотрицательным");
+        }
+    }
+    
+    public boolean isNone() {
+        return equals(NONE);
+    }
+    
+    /**
+     * Наименьшее общее сопротивление R1 + R2, при котором выполняются
+     * ограничения тока, мощности и общего сопротивления
+     * @param vIn входное напряжение
+     */
+    public double minTotalResistance(double vIn) {
+        double min = minTotalResistance;
+        // I = Vin/(R1+R2), P = Vin²/(R1+R2)
+        if (maxCurrent != Double.POSITIVE_INFINITY) {
+            min = Math.max(min, vIn / maxCurrent);
+        }
+        if (maxPower != Double.POSITIVE_INFINITY) {
+            min = Math.max(min, vIn * vIn / maxPower);
+        }
+        return min;
+    }
+    
+    /**
+     * Удовлетворяет ли делитель ограничениям; ток и мощность вычисляются
+     * так же, как в {@link DividerResult}
+     * @param r1 сопротивление верхнего плеча
+     * @param r2 сопротивление нижнего плеча
+     */
+    public boolean accepts(double vIn, double r1, double r2) {
+        double total = r1 + r2;
+        double current = vIn / total;
+        return current <= maxCurrent
+                && vIn * current <= maxPower
+                && total >= minTotalResistance
+                && r1 * r2 / total <= maxOutputResistance;
+    }
+}
@@ -1,74 +1,154 @@
 package com.electrical.model;
 
+import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Результат расчёта делителя напряжения
+ *
+ * <p>Неизменяемый объект: номиналы плеч хранятся в примитивных массивах,
+ * а производные величины (сопротивления плеч, ток, мощность, количество
+ * резисторов) вычисляются один раз при создании.</p>
+ *
+ * <p>Плечо описывается деревом соединений {@link Arm}. Для плеч, где все
+ * резисторы соединены одинаково, по-прежнему доступны номиналы списком и
+ * признак параллельного соединения; для смешанных плеч признак относится
+ * к внешнему соединению.</p>
  */
-public class DividerResult implements Comparable<DividerResult> {
+public final class DividerResult implements Comparable<DividerResult> {
     
-    private final List<Double> upperResistors;  // Верхнее плечо
-    private final List<Double> lowerResistors;  // Нижнее плечо
+    private final double[] upperResistors;      // Верхнее плечо
+    private final double[] lowerResistors;      // Нижнее плечо
     private final boolean upperParallel;         // Параллельное соединение верхнего плеча
     private final boolean lowerParallel;         // Параллельное соединение нижнего плеча
+    private final Arm upperArm;
+    private final Arm lowerArm;
     private final double vIn;
     private final double vOutActual;
     private final double vOutRequired;
     private final double errorPercent;
+    private final double upperResistance;
+    private final double lowerResistance;
     private final double totalResistance;
     private final double current;               // Ток через делитель
+    private final double powerDissipation;
     
     public DividerResult(List<Double> upperResistors, List<Double> lowerResistors,
                          boolean upperParallel, boolean lowerParallel,
                          double vIn, double vOutActual, double vOutRequired) {
+        this(toArray(upperResistors), toArray(lowerResistors), upperParallel, lowerParallel,
+                vIn, vOutActual, vOutRequired);
+    }
+    
+    /**
+     * @param upperResistors номиналы верхнего плеча (массив копируется)
+     * @param lowerResistors номиналы нижнего плеча (массив копируется)
+     */
+    public DividerResult(double[] upperResistors, double[] lowerResistors,
+                         boolean upperParallel, boolean lowerParallel,
+                         double vIn, double vOutActual, double vOutRequired) {
+        this(upperResistors.clone(), lowerResistors.clone(), upperParallel, lowerParallel,
+                Arm.of(upperResistors, upperParallel), Arm.of(lowerResistors, lowerParallel),
+                vIn, vOutActual, vOutRequired);
+    }
+    
+    /**
+     * Делитель с плечами произвольной топологии
+     */
+    public DividerResult(Arm upperArm, Arm lowerArm, double vIn, double vOutActual, double vOutRequired) {
+        this(upperArm.getResistorValues(), lowerArm.getResistorValues(),
+                upperArm.getKind() == Arm.Kind.PARALLEL, lowerArm.getKind() == Arm.Kind.PARALLEL,
+                upperArm, lowerArm, vIn, vOutActual, vOutRequired);
+    }
+    
+    private DividerResult(double[] upperResistors, double[] lowerResistors,
+                          boolean upperParallel, boolean lowerParallel,
+                          Arm upperArm, Arm lowerArm,
+                          double vIn, double vOutActual, double vOutRequired) {
         this.upperResistors = upperResistors;
         this.lowerResistors = lowerResistors;
         this.upperParallel = upperParallel;
         this.lowerParallel = lowerParallel;
+        this.upperArm = upperArm;
+        this.lowerArm = lowerArm;
         this.vIn = vIn;
         this.vOutActual = vOutActual;
         this.vOutRequired = vOutRequired;
         this.errorPercent = Math.abs((vOutActual - vOutRequired) / vOutRequired) * 100;
         
-        double rUpper = calculateArmResistance(upperResistors, upperParallel);
-        double rLower = calculateArmResistance(lowerResistors, lowerParallel);
-        this.totalResistance = rUpper + rLower;
+        this.upperResistance = upperArm.getResistance();
+        this.lowerResistance = lowerArm.getResistance();
+        this.totalResistance = upperResistance + lowerResistance;
         this.current = vIn / totalResistance;
+        this.powerDissipation = vIn * current;
     }
     
-    private double calculateArmResistance(List<Double> resistors, boolean parallel) {
-        if (resistors.isEmpty()) return 0;
-        if (resistors.size() == 1) return resistors.get(0);
-        
-        if (parallel) {
-            double sum = 0;
-            for (double r : resistors) {
-                sum += 1.0 / r;
-            }
-            return 1.0 / sum;
-        } else {
-            double sum = 0;
-            for (double r : resistors) {
-                sum += r;
-            }
-            return sum;
+    /**
+     * Та же комбинация резисторов при другом входном напряжении. Сопротивления
+     * плеч не меняются, поэтому выходное напряжение, ток и мощность
+     * вычисляются заново, а погрешность относительно vOutRequired сохраняется
+     * при пропорциональном изменении обоих напряжений
+     */
+    public DividerResult withInputVoltage(double vIn, double vOutRequired) {
+        double vOutActual = vIn * lowerResistance / (upperResistance + lowerResistance);
+        return new DividerResult(upperResistors, lowerResistors, upperParallel, lowerParallel,
+                upperArm, lowerArm, vIn, vOutActual, vOutRequired);
+    }
+    
+    private static double[] toArray(List<Double> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
         }
+        return array;
     }
     
     public double getUpperResistance() {
-        return calculateArmResistance(upperResistors, upperParallel);
+        return upperResistance;
     }
     
     public double getLowerResistance() {
-        return calculateArmResistance(lowerResistors, lowerParallel);
+        return lowerResistance;
     }
     
     public List<Double> getUpperResistors() {
-        return upperResistors;
+        return new ArrayView(upperResistors);
     }
     
     public List<Double> getLowerResistors() {
-        return lowerResistors;
+        return new ArrayView(lowerResistors);
+    }
+    
+    public double getUpperResistor(int index) {
+        return upperResistors[index];
+    }
+    
+    public double getLowerResistor(int index) {
+        return lowerResistors[index];
+    }
+    
+    public int getUpperResistorCount() {
+        return upperResistors.length;
+    }
+    
+    public int getLowerResistorCount() {
+        return lowerResistors.length;
+    }
+    
+    public Arm getUpperArm() {
+        return upperArm;
+    }
+    
+    public Arm getLowerArm() {
+        return lowerArm;
+    }
+    
+    /**
+     * Есть ли в делителе плечо со смешанным соединением
+     */
+    public boolean isMixedTopology() {
+        return upperArm.isMixed() || lowerArm.isMixed();
     }
     
     public boolean isUpperParallel() {
@@ -104,44 +184,61 @@ public class DividerResult implements Comparable<DividerResult> {
     }
     
     public double getPowerDissipation() {
-        return vIn * current;
+        return powerDissipation;
+    }
+    
+    /**
+     * Выходное сопротивление делителя (по Тевенену): R1 || R2
+     */
+    public double getOutputResistance() {
+        return upperResistance * lowerResistance / totalResistance;
     }
     
     public int getTotalResistorCount() {
-        return upperResistors.size() + lowerResistors.size();
+        return upperResistors.length + lowerResistors.length;
     }
     
     public String getSchemaType() {
         StringBuilder sb = new StringBuilder();
-        sb.append("R_верх: ");
-        if (upperResistors.size() > 1) {
-            sb.append(upperParallel ? "параллельно" : "последовательно");
-        } else {
-            sb.append("одиночный");
-        }
-        sb.append(", R_низ: ");
-        if (lowerResistors.size() > 1) {
-            sb.append(lowerParallel ? "параллельно" : "последовательно");
-        } else {
-            sb.append("одиночный");
-        }
+        sb.append("R_верх: ").append(describeArm(upperArm));
+        sb.append(", R_низ: ").append(describeArm(lowerArm));
         return sb.toString();
     }
     
+    private static String describeArm(Arm arm) {
+        if (arm.isResistor()) {
+            return "одиночный";
+        } else if (arm.isMixed()) {
+            return "смешанно";
+        }
+        return arm.getKind() == Arm.Kind.PARALLEL ? "параллельно" : "последовательно";
+    }
+    
     @Override
     public int compareTo(DividerResult other) {
         // Сортировка: сначала по точности, потом по количеству элементов, потом по энергопотреблению
-        int cmp = Double.compare(this.errorPercent, other.errorPercent);
+        return compare(errorPercent, getTotalResistorCount(), powerDissipation,
+                other.errorPercent, other.getTotalResistorCount(), other.powerDissipation);
+    }
+    
+    /**
+     * Порядок {@link #compareTo} для характеристик, ещё не оформленных в объект
+     */
+    public static int compare(double errorA, int countA, double powerA,
+                              double errorB, int countB, double powerB) {
+        int cmp = Double.compare(errorA, errorB);
         if (cmp != 0) return cmp;
         
-        cmp = Integer.compare(this.getTotalResistorCount(), other.getTotalResistorCount());
+        cmp = Integer.compare(countA, countB);
         if (cmp != 0) return cmp;
         
-        return Double.compare(this.getPowerDissipation(), other.getPowerDissipation());
+        return Double.compare(powerA, powerB);
     }
     
     public String formatResistance(double value) {
-        if (value >= 1_000_000) {
+        if (value >= 1_000_000_000) {
+            return String.format("%.2f ГОм", value / 1_000_000_000);
+        } else if (value >= 1_000_000) {
             return String.format("%.2f МОм", value / 1_000_000);
         } else if (value >= 1000) {
             return String.format("%.2f кОм", value / 1000);
@@ -151,25 +248,11 @@ public class DividerResult implements Comparable<DividerResult> {
     }
     
     public String getUpperResistorsString() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < upperResistors.size(); i++) {
-            if (i > 0) {
-                sb.append(upperParallel ? " || " : " + ");
-            }
-            sb.append(formatResistance(upperResistors.get(i)));
-        }
-        return sb.toString();
+        return upperArm.format(this::formatResistance);
     }
     
     public String getLowerResistorsString() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < lowerResistors.size(); i++) {
-            if (i > 0) {
-                sb.append(lowerParallel ? " || " : " + ");
-            }
-            sb.append(formatResistance(lowerResistors.get(i)));
-        }
-        return sb.toString();
+        return lowerArm.format(this::formatResistance);
     }
     
     @Override
@@ -177,6 +260,26 @@ public class DividerResult implements Comparable<DividerResult> {
         return String.format("Vout=%.4f В (%.3f%%), R_верх=%s, R_низ=%s, %d резисторов",
                 vOutActual, errorPercent, getUpperResistorsString(), getLowerResistorsString(), getTotalResistorCount());
     }
+    
+    /**
+     * Неизменяемое представление массива номиналов в виде списка
+     */
+    private static final class ArrayView extends AbstractList<Double> implements RandomAccess {
+        
+        private final double[] values;
+        
+        ArrayView(double[] values) {
+            this.values = values;
+        }
+        
+        @Override
+        public Double get(int index) {
+            return values[index];
+        }
+        
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
 }
-
-
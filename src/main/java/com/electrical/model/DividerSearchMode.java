@@ -0,0 +1,26 @@
+package com.electrical.model;
+
+/**
+ * Режимы отбора комбинаций при подборе делителя
+ */
+public enum DividerSearchMode {
+    /** Лучшие K комбинаций в порядке {@link DividerResult#compareTo}: погрешность, количество резисторов, мощность */
+    BEST("Лучшие по точности"),
+    /** Все комбинации, не уступающие другим одновременно по погрешности, количеству резисторов и мощности */
+    PARETO("Парето-фронт");
+    
+    private final String displayName;
+    
+    DividerSearchMode(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,37 @@
+package com.electrical.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Результат поиска делителей: лучшие найденные комбинации и признак того,
+ * что перебор был остановлен досрочно (по отмене или истечении времени)
+ */
+public final class DividerSearchResult {
+    
+    private final List<DividerResult> results;
+    private final boolean truncated;
+    
+    public DividerSearchResult(List<DividerResult> results, boolean truncated) {
+        this.results = Collections.unmodifiableList(results);
+        this.truncated = truncated;
+    }
+    
+    /**
+     * Комбинации от лучшей к худшей
+     */
+    public List<DividerResult> getResults() {
+        return results;
+    }
+    
+    /**
+     * true, если перебор прерван и результаты — лучшие из уже найденных
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+    
+    public int size() {
+        return results.size();
+    }
+}
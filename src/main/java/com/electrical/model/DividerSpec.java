@@ -0,0 +1,49 @@
+package com.electrical.model;
+
+/**
+ * Задание на подбор делителя напряжения для пакетного расчёта
+ * @param id идентификатор задания (например, имя шины питания)
+ * @param vIn входное напряжение
+ * @param vOutRequired требуемое выходное напряжение
+ * @param tolerancePercent допустимое отклонение в процентах
+ * @param series ряд резисторов
+ * @param minResistance минимальное сопротивление
+ * @param maxResistance максимальное сопротивление
+ * @param maxResults максимальное количество результатов
+ * @param maxResistors максимальное общее количество резисторов
+ * @param mode режим отбора; в режиме {@link DividerSearchMode#PARETO}
+ *             возвращается весь Парето-фронт, а maxResults не учитывается
+ * @param constraints электрические ограничения делителя
+ */
+public record DividerSpec(
+        String id,
+        double vIn,
+        double vOutRequired,
+        double tolerancePercent,
+        ResistorSeries series,
+        double minResistance,
+        double maxResistance,
+        int maxResults,
+        int maxResistors,
+        DividerSearchMode mode,
+        DividerConstraints constraints) {
+    
+    /**
+     * Задание с отбором лучших комбинаций ({@link DividerSearchMode#BEST})
+     */
+    public DividerSpec(String id, double vIn, double vOutRequired, double tolerancePercent, ResistorSeries series,
+                       double minResistance, double maxResistance, int maxResults, int maxResistors) {
+        this(id, vIn, vOutRequired, tolerancePercent, series, minResistance, maxResistance,
+                maxResults, maxResistors, DividerSearchMode.BEST, DividerConstraints.NONE);
+    }
+    
+    /**
+     * Задание без электрических ограничений
+     */
+    public DividerSpec(String id, double vIn, double vOutRequired, double tolerancePercent, ResistorSeries series,
+                       double minResistance, double maxResistance, int maxResults, int maxResistors,
+                       DividerSearchMode mode) {
+        this(id, vIn, vOutRequired, tolerancePercent, series, minResistance, maxResistance,
+                maxResults, maxResistors, mode, DividerConstraints.NONE);
+    }
+}
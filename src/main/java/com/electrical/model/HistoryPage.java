@@ -0,0 +1,31 @@
+package com.electrical.model;
+
+import java.util.List;
+
+/**
+ * Страница истории расчётов при чтении по ключу (keyset): следующая страница
+ * начинается после последней записи этой, а не со смещения, поэтому её
+ * чтение не зависит от количества предыдущих записей.
+ *
+ * @param items записи страницы
+ * @param next положение после последней записи; null — страница последняя
+ */
+public record HistoryPage(List<CalculationHistory> items, Cursor next) {
+    
+    public HistoryPage {
+        items = List.copyOf(items);
+    }
+    
+    public boolean isLast() {
+        return next == null;
+    }
+    
+    /**
+     * Положение в упорядоченной истории: значение столбца упорядочивания и
+     * идентификатор записи, после которой начинается страница
+     *
+     * @param sortValue значение столбца в том виде, в котором его вернула база данных
+     */
+    public record Cursor(Object sortValue, long id) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.electrical.model;
+
+import com.electrical.util.FullTextQuery;
+
+/**
+ * Выборка истории расчётов для постраничного чтения.
+ *
+ * @param userId пользователь, чья история читается; null — все пользователи
+ * @param type тип расчёта; null — все типы
+ * @param search текст полнотекстового поиска по входным параметрам и результату;
+ *               null или текст без букв и цифр — без поиска
+ * @param sort столбец упорядочивания
+ * @param ascending по возрастанию; иначе — по убыванию
+ */
+public record HistoryQuery(Long userId, CalculationType type, String search, HistorySort sort, boolean ascending) {
+    
+    public HistoryQuery {
+        if (sort == null) {
+            throw new IllegalArgumentException("Не задан столбец упорядочивания истории");
+        }
+        search = FullTextQuery.isSearchable(search) ? search.strip() : null;
+        if (sort == HistorySort.RELEVANCE && search == null) {
+            throw new IllegalArgumentException("Упорядочивание по релевантности возможно только при поиске");
+        }
+    }
+    
+    public boolean hasSearch() {
+        return search != null;
+    }
+}
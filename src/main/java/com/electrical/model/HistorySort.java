@@ -0,0 +1,16 @@
+package com.electrical.model;
+
+/**
+ * Столбцы, по которым упорядочивается история расчётов. При равных
+ * значениях записи упорядочиваются по идентификатору
+ */
+public enum HistorySort {
+    ID,
+    CREATED_AT,
+    CALCULATION_TYPE,
+    INPUT_PARAMETERS,
+    RESULT,
+    USERNAME,
+    /** Релевантность полнотекстового поиска (bm25): по возрастанию — сначала наиболее подходящие */
+    RELEVANCE
+}
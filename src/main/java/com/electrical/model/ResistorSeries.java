@@ -1,14 +1,53 @@
 package com.electrical.model;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
 /**
- * Ряды стандартных резисторов E6, E12, E24, E96
+ * Ряд номиналов резисторов: стандартные ряды E6, E12, E24, E48, E96, E192
+ * и пользовательские ряды, загруженные из файлов.
+ *
+ * <p>Ряд задаётся базовыми значениями одной декады (1 ≤ x &lt; 10). Номиналы
+ * всех декад от {@value #MIN_DECADE} до {@value #MAX_DECADE} (от 0,1 Ом до
+ * 9,88 ГОм для E192) вычисляются один раз при создании ряда и хранятся в
+ * отсортированном массиве, поэтому выборка диапазона — два двоичных поиска
+ * и копирование части массива.</p>
+ *
+ * <p>Ряд неизменяем. Пользовательские ряды регистрируются через
+ * {@link #register(ResistorSeries)} и после этого возвращаются
+ * {@link #values()} и {@link #valueOf(String)} наравне со стандартными.</p>
  */
-public enum ResistorSeries {
-    E6("E6", new double[]{1.0, 1.5, 2.2, 3.3, 4.7, 6.8}),
-    E12("E12", new double[]{1.0, 1.2, 1.5, 1.8, 2.2, 2.7, 3.3, 3.9, 4.7, 5.6, 6.8, 8.2}),
-    E24("E24", new double[]{1.0, 1.1, 1.2, 1.3, 1.5, 1.6, 1.8, 2.0, 2.2, 2.4, 2.7, 3.0,
-            3.3, 3.6, 3.9, 4.3, 4.7, 5.1, 5.6, 6.2, 6.8, 7.5, 8.2, 9.1}),
-    E96("E96", new double[]{1.00, 1.02, 1.05, 1.07, 1.10, 1.13, 1.15, 1.18, 1.21, 1.24, 1.27, 1.30,
+public final class ResistorSeries {
+    
+    /** Наименьшая декада номиналов: 0,1–0,99 Ом */
+    public static final int MIN_DECADE = -1;
+    
+    /** Наибольшая декада номиналов: 1–9,99 ГОм */
+    public static final int MAX_DECADE = 9;
+    
+    /**
+     * Наибольшее количество базовых значений пользовательского ряда (как в E192):
+     * время и память поиска растут с квадратом количества номиналов
+     */
+    public static final int MAX_BASE_VALUES = 192;
+    
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+    
+    public static final ResistorSeries E6 = new ResistorSeries("E6", new double[]{1.0, 1.5, 2.2, 3.3, 4.7, 6.8});
+    public static final ResistorSeries E12 = new ResistorSeries("E12", new double[]{
+            1.0, 1.2, 1.5, 1.8, 2.2, 2.7, 3.3, 3.9, 4.7, 5.6, 6.8, 8.2});
+    public static final ResistorSeries E24 = new ResistorSeries("E24", new double[]{
+            1.0, 1.1, 1.2, 1.3, 1.5, 1.6, 1.8, 2.0, 2.2, 2.4, 2.7, 3.0,
+            3.3, 3.6, 3.9, 4.3, 4.7, 5.1, 5.6, 6.2, 6.8, 7.5, 8.2, 9.1});
+    public static final ResistorSeries E48 = new ResistorSeries("E48", new double[]{
+            1.00, 1.05, 1.10, 1.15, 1.21, 1.27, 1.33, 1.40, 1.47, 1.54, 1.62, 1.69,
+            1.78, 1.87, 1.96, 2.05, 2.15, 2.26, 2.37, 2.49, 2.61, 2.74, 2.87, 3.01,
+            3.16, 3.32, 3.48, 3.65, 3.83, 4.02, 4.22, 4.42, 4.64, 4.87, 5.11, 5.36,
+            5.62, 5.90, 6.19, 6.49, 6.81, 7.15, 7.50, 7.87, 8.25, 8.66, 9.09, 9.53});
+    public static final ResistorSeries E96 = new ResistorSeries("E96", new double[]{
+            1.00, 1.02, 1.05, 1.07, 1.10, 1.13, 1.15, 1.18, 1.21, 1.24, 1.27, 1.30,
             1.33, 1.37, 1.40, 1.43, 1.47, 1.50, 1.54, 1.58, 1.62, 1.65, 1.69, 1.74,
             1.78, 1.82, 1.87, 1.91, 1.96, 2.00, 2.05, 2.10, 2.15, 2.21, 2.26, 2.32,
             2.37, 2.43, 2.49, 2.55, 2.61, 2.67, 2.74, 2.80, 2.87, 2.94, 3.01, 3.09,
@@ -16,50 +55,188 @@ public enum ResistorSeries {
             4.22, 4.32, 4.42, 4.53, 4.64, 4.75, 4.87, 4.99, 5.11, 5.23, 5.36, 5.49,
             5.62, 5.76, 5.90, 6.04, 6.19, 6.34, 6.49, 6.65, 6.81, 6.98, 7.15, 7.32,
             7.50, 7.68, 7.87, 8.06, 8.25, 8.45, 8.66, 8.87, 9.09, 9.31, 9.53, 9.76});
-
+    public static final ResistorSeries E192 = new ResistorSeries("E192", new double[]{
+            1.00, 1.01, 1.02, 1.04, 1.05, 1.06, 1.07, 1.09, 1.10, 1.11, 1.13, 1.14,
+            1.15, 1.17, 1.18, 1.20, 1.21, 1.23, 1.24, 1.26, 1.27, 1.29, 1.30, 1.32,
+            1.33, 1.35, 1.37, 1.38, 1.40, 1.42, 1.43, 1.45, 1.47, 1.49, 1.50, 1.52,
+            1.54, 1.56, 1.58, 1.60, 1.62, 1.64, 1.65, 1.67, 1.69, 1.72, 1.74, 1.76,
+            1.78, 1.80, 1.82, 1.84, 1.87, 1.89, 1.91, 1.93, 1.96, 1.98, 2.00, 2.03,
+            2.05, 2.08, 2.10, 2.13, 2.15, 2.18, 2.21, 2.23, 2.26, 2.29, 2.32, 2.34,
+            2.37, 2.40, 2.43, 2.46, 2.49, 2.52, 2.55, 2.58, 2.61, 2.64, 2.67, 2.71,
+            2.74, 2.77, 2.80, 2.84, 2.87, 2.91, 2.94, 2.98, 3.01, 3.05, 3.09, 3.12,
+            3.16, 3.20, 3.24, 3.28, 3.32, 3.36, 3.40, 3.44, 3.48, 3.52, 3.57, 3.61,
+            3.65, 3.70, 3.74, 3.79, 3.83, 3.88, 3.92, 3.97, 4.02, 4.07, 4.12, 4.17,
+            4.22, 4.27, 4.32, 4.37, 4.42, 4.48, 4.53, 4.59, 4.64, 4.70, 4.75, 4.81,
+            4.87, 4.93, 4.99, 5.05, 5.11, 5.17, 5.23, 5.30, 5.36, 5.42, 5.49, 5.56,
+            5.62, 5.69, 5.76, 5.83, 5.90, 5.97, 6.04, 6.12, 6.19, 6.26, 6.34, 6.42,
+            6.49, 6.57, 6.65, 6.73, 6.81, 6.90, 6.98, 7.06, 7.15, 7.23, 7.32, 7.41,
+            7.50, 7.59, 7.68, 7.77, 7.87, 7.96, 8.06, 8.16, 8.25, 8.35, 8.45, 8.56,
+            8.66, 8.76, 8.87, 8.98, 9.09, 9.20, 9.31, 9.42, 9.53, 9.65, 9.76, 9.88});
+    
+    private static final List<ResistorSeries> STANDARD = List.of(E6, E12, E24, E48, E96, E192);
+    private static final double[] STANDARD_TOLERANCES = {20, 10, 5, 2, 1, 0.5};
+    
+    // Пользовательские ряды в порядке регистрации
+    private static final List<ResistorSeries> userSeries = new ArrayList<>();
+    
     private final String name;
     private final double[] baseValues;
-
-    ResistorSeries(String name, double[] baseValues) {
+    private final double[] values;              // Номиналы всех декад по возрастанию
+    
+    private ResistorSeries(String name, double[] baseValues) {
         this.name = name;
         this.baseValues = baseValues;
+        this.values = new double[baseValues.length * (MAX_DECADE - MIN_DECADE + 1)];
+        
+        int index = 0;
+        for (int decade = MIN_DECADE; decade <= MAX_DECADE; decade++) {
+            // Для декад от 1 Ом номиналы вычисляются так же, как раньше, чтобы
+            // сохранённые таблицы и результаты не менялись
+            double multiplier = Math.pow(10, Math.abs(decade));
+            for (double baseValue : baseValues) {
+                values[index++] = decade >= 0 ? baseValue * multiplier : baseValue / multiplier;
+            }
+        }
     }
-
+    
+    /**
+     * Создать пользовательский ряд
+     * @param name имя ряда (латинские буквы, цифры, '_' и '-', до 32 символов)
+     * @param baseValues базовые значения одной декады, 1 ≤ x &lt; 10, в любом порядке
+     * @throws IllegalArgumentException если имя или значения некорректны
+     */
+    public static ResistorSeries custom(String name, double[] baseValues) {
+        if (name == null || !NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException("Недопустимое имя ряда: " + name);
+        }
+        if (baseValues.length == 0) {
+            throw new IllegalArgumentException("Ряд " + name + " не содержит номиналов");
+        }
+        if (baseValues.length > MAX_BASE_VALUES) {
+            throw new IllegalArgumentException("Ряд " + name + " содержит больше "
+                    + MAX_BASE_VALUES + " номиналов в декаде: " + baseValues.length);
+        }
+        
+        double[] sorted = baseValues.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            if (!(sorted[i] >= 1.0 && sorted[i] < 10.0)) {
+                throw new IllegalArgumentException("Номинал ряда " + name
+                        + " должен быть в пределах декады 1 ≤ x < 10: " + sorted[i]);
+            }
+            if (i > 0 && sorted[i] == sorted[i - 1]) {
+                throw new IllegalArgumentException("Номинал ряда " + name + " повторяется: " + sorted[i]);
+            }
+        }
+        return new ResistorSeries(name, sorted);
+    }
+    
+    /**
+     * Зарегистрировать пользовательский ряд
+     * @throws IllegalArgumentException если ряд с таким именем уже есть
+     */
+    public static synchronized void register(ResistorSeries series) {
+        for (ResistorSeries existing : values()) {
+            if (existing.name.equalsIgnoreCase(series.name)) {
+                throw new IllegalArgumentException("Ряд " + series.name + " уже существует");
+            }
+        }
+        userSeries.add(series);
+    }
+    
+    /**
+     * Все ряды: стандартные, затем пользовательские
+     */
+    public static synchronized ResistorSeries[] values() {
+        List<ResistorSeries> all = new ArrayList<>(STANDARD);
+        all.addAll(userSeries);
+        return all.toArray(new ResistorSeries[0]);
+    }
+    
+    /**
+     * Ряд по имени
+     * @throws IllegalArgumentException если ряда с таким именем нет
+     */
+    public static ResistorSeries valueOf(String name) {
+        for (ResistorSeries series : values()) {
+            if (series.name.equals(name)) {
+                return series;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный ряд резисторов: " + name);
+    }
+    
     public String getName() {
         return name;
     }
-
+    
     public double[] getBaseValues() {
-        return baseValues;
+        return baseValues.clone();
     }
-
+    
+    /**
+     * Допуск номиналов ряда в процентах: 20% для E6, 10% для E12, 5% для E24,
+     * 2% для E48, 1% для E96 и 0,5% для E192. Для пользовательского ряда из
+     * n значений в декаде — половина относительного шага между соседними
+     * номиналами, (10^(1/n) - 1) / (10^(1/n) + 1); для стандартных рядов эта
+     * оценка округляется до приведённых значений
+     */
+    public double getTolerancePercent() {
+        int index = STANDARD.indexOf(this);
+        if (index >= 0) {
+            return STANDARD_TOLERANCES[index];
+        }
+        double step = Math.pow(10, 1.0 / baseValues.length);
+        return (step - 1) / (step + 1) * 100;
+    }
+    
     /**
-     * Генерирует все значения резисторов в заданном диапазоне
+     * Стандартный ряд (не пользовательский)
+     */
+    public boolean isStandard() {
+        return STANDARD.contains(this);
+    }
+    
+    /**
+     * Количество номиналов ряда во всех декадах
+     */
+    public int size() {
+        return values.length;
+    }
+    
+    /**
+     * Номиналы резисторов в заданном диапазоне
      * @param minValue минимальное значение в Ом
      * @param maxValue максимальное значение в Ом
-     * @return массив значений резисторов
+     * @return массив значений резисторов по возрастанию
      */
     public double[] getValuesInRange(double minValue, double maxValue) {
-        java.util.List<Double> values = new java.util.ArrayList<>();
+        if (!(minValue <= maxValue)) {
+            return new double[0];
+        }
         
-        // Генерируем значения для декад от 1 Ом до 10 МОм
-        for (int decade = 0; decade <= 7; decade++) {
-            double multiplier = Math.pow(10, decade);
-            for (double baseValue : baseValues) {
-                double value = baseValue * multiplier;
-                if (value >= minValue && value <= maxValue) {
-                    values.add(value);
-                }
+        // Первый номинал не меньше minValue и первый номинал больше maxValue
+        int from = search(minValue, false);
+        int to = search(maxValue, true);
+        return Arrays.copyOfRange(values, from, Math.max(from, to));
+    }
+    
+    private int search(double key, boolean inclusive) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key || (inclusive && values[mid] == key)) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
         }
-        
-        return values.stream().mapToDouble(Double::doubleValue).toArray();
+        return low;
     }
-
+    
     @Override
     public String toString() {
         return name;
     }
 }
-
-
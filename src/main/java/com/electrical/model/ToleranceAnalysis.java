@@ -0,0 +1,135 @@
+package com.electrical.model;
+
+import java.util.Comparator;
+
+/**
+ * Анализ влияния допуска резисторов на делитель: худший случай по всем
+ * 2^n сочетаниям крайних отклонений номиналов и распределение Vout по
+ * методу Монте-Карло.
+ *
+ * <p>Распределение хранится гистограммой на отрезке худшего случая: Vout
+ * монотонно зависит от каждого резистора, поэтому все выборки лежат между
+ * крайними значениями, а перцентили восстанавливаются с точностью до
+ * ширины интервала гистограммы.</p>
+ */
+public final class ToleranceAnalysis {
+    
+    /**
+     * Порядок по погрешности в худшем случае; при равенстве — порядок
+     * {@link DividerResult#compareTo} по номинальным значениям
+     */
+    public static final Comparator<ToleranceAnalysis> WORST_CASE_ORDER =
+            Comparator.comparingDouble(ToleranceAnalysis::getWorstCaseErrorPercent)
+                    .thenComparing(ToleranceAnalysis::getResult);
+    
+    private final DividerResult result;
+    private final double partTolerancePercent;
+    private final double worstCaseMin;
+    private final double worstCaseMax;
+    private final double mean;
+    private final double standardDeviation;
+    private final int[] histogram;             // Количество выборок Vout в равных интервалах [min, max]
+    private final long samples;
+    
+    /**
+     * @param histogram гистограмма Vout на отрезке [worstCaseMin, worstCaseMax]
+     */
+    public ToleranceAnalysis(DividerResult result, double partTolerancePercent,
+                             double worstCaseMin, double worstCaseMax,
+                             double mean, double standardDeviation, int[] histogram) {
+        this.result = result;
+        this.partTolerancePercent = partTolerancePercent;
+        this.worstCaseMin = worstCaseMin;
+        this.worstCaseMax = worstCaseMax;
+        this.mean = mean;
+        this.standardDeviation = standardDeviation;
+        this.histogram = histogram.clone();
+        long total = 0;
+        for (int count : histogram) {
+            total += count;
+        }
+        this.samples = total;
+    }
+    
+    public DividerResult getResult() {
+        return result;
+    }
+    
+    /**
+     * Допуск номиналов резисторов, ±%
+     */
+    public double getPartTolerancePercent() {
+        return partTolerancePercent;
+    }
+    
+    /**
+     * Количество выборок Монте-Карло
+     */
+    public long getSamples() {
+        return samples;
+    }
+    
+    /**
+     * Наименьшее выходное напряжение при крайних отклонениях номиналов
+     */
+    public double getWorstCaseMin() {
+        return worstCaseMin;
+    }
+    
+    /**
+     * Наибольшее выходное напряжение при крайних отклонениях номиналов
+     */
+    public double getWorstCaseMax() {
+        return worstCaseMax;
+    }
+    
+    /**
+     * Погрешность Vout относительно требуемого напряжения в худшем случае, %
+     */
+    public double getWorstCaseErrorPercent() {
+        double vOutRequired = result.getVOutRequired();
+        double deviation = Math.max(Math.abs(worstCaseMax - vOutRequired), Math.abs(worstCaseMin - vOutRequired));
+        return deviation / vOutRequired * 100;
+    }
+    
+    public double getMean() {
+        return mean;
+    }
+    
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+    
+    /**
+     * Перцентиль распределения Vout
+     * @param p доля выборок от 0 до 1, например 0.99
+     */
+    public double percentile(double p) {
+        if (!(p >= 0 && p <= 1)) {
+            throw new IllegalArgumentException("Доля должна быть от 0 до 1: " + p);
+        }
+        if (samples == 0 || worstCaseMax == worstCaseMin) {
+            return worstCaseMin;
+        }
+        double binWidth = (worstCaseMax - worstCaseMin) / histogram.length;
+        double rank = p * samples;
+        long cumulative = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            int count = histogram[i];
+            if (count > 0 && cumulative + count >= rank) {
+                // Внутри интервала выборки считаются распределёнными равномерно
+                double fraction = (rank - cumulative) / count;
+                return worstCaseMin + (i + fraction) * binWidth;
+            }
+            cumulative += count;
+        }
+        return worstCaseMax;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("±%.2f%%: Vout %.4f…%.4f В (худший случай %.3f%%), p1 %.4f, p50 %.4f, p99 %.4f",
+                partTolerancePercent, worstCaseMin, worstCaseMax, getWorstCaseErrorPercent(),
+                percentile(0.01), percentile(0.5), percentile(0.99));
+    }
+}
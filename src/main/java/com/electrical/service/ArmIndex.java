@@ -0,0 +1,215 @@
+package com.electrical.service;
+
+/**
+ * Индекс значений плеч делителя из двух резисторов.
+ *
+ * <p>Для каждой неупорядоченной пары номиналов (i &lt;= j) хранит сопротивление
+ * последовательного и параллельного соединения вместе с индексами компонентов.
+ * Значения отсортированы по возрастанию и лежат в примитивных массивах, поэтому
+ * поиск подходящего плеча сводится к бинарному поиску. Одиночные плечи
+ * представлены исходным отсортированным массивом номиналов.</p>
+ *
+ * <p>Пары, сопротивление которых совпадает с одним из номиналов (например,
+ * 1 кОм + 1 кОм = 2 кОм или 2 кОм || 2 кОм = 1 кОм), в индекс не входят:
+ * такое плечо лишь повторяет решение с меньшим количеством резисторов и
+ * вытесняло бы из результатов действительно разные варианты.</p>
+ */
+public final class ArmIndex {
+
+    /**
+     * Относительная погрешность, в пределах которой сопротивление пары
+     * считается равным номиналу
+     */
+    private static final double EQUAL_EPSILON = 1e-9;
+
+    /**
+     * Наибольшее количество плеч индекса: номера плеч упаковываются в ключи
+     * {@link DividerSearchEngine}
+     */
+    static final long MAX_SIZE = 1L << DividerSearchEngine.INDEX_BITS;
+
+    private final double[] resistors;
+    private final double[] values;
+    private final int[] first;
+    private final int[] second;
+    private final boolean[] parallel;
+
+    private ArmIndex(double[] resistors, double[] values, int[] first, int[] second, boolean[] parallel) {
+        this.resistors = resistors;
+        this.values = values;
+        this.first = first;
+        this.second = second;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Построить индекс для отсортированного массива номиналов
+     * @param resistors номиналы резисторов по возрастанию
+     * @return индекс всех последовательных и параллельных пар
+     * @throws IllegalArgumentException если пар больше {@link #MAX_SIZE}
+     */
+    public static ArmIndex build(double[] resistors) {
+        int n = resistors.length;
+        long pairs = (long) n * (n + 1);
+        if (pairs > MAX_SIZE) {
+            throw new IllegalArgumentException("Слишком много номиналов для индекса плеч: " + n);
+        }
+        int capacity = (int) pairs;
+
+        double[] rawValues = new double[capacity];
+        int[] rawFirst = new int[capacity];
+        int[] rawSecond = new int[capacity];
+        boolean[] rawParallel = new boolean[capacity];
+
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            double a = resistors[i];
+            for (int j = i; j < n; j++) {
+                double b = resistors[j];
+
+                double series = a + b;
+                if (!matchesResistor(resistors, series)) {
+                    rawValues[k] = series;
+                    rawFirst[k] = i;
+                    rawSecond[k] = j;
+                    k++;
+                }
+
+                double parallel = (a * b) / (a + b);
+                if (!matchesResistor(resistors, parallel)) {
+                    rawValues[k] = parallel;
+                    rawFirst[k] = i;
+                    rawSecond[k] = j;
+                    rawParallel[k] = true;
+                    k++;
+                }
+            }
+        }
+        int size = k;
+
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        sortByValue(order, rawValues);
+
+        double[] values = new double[size];
+        int[] first = new int[size];
+        int[] second = new int[size];
+        boolean[] parallel = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            int src = order[i];
+            values[i] = rawValues[src];
+            first[i] = rawFirst[src];
+            second[i] = rawSecond[src];
+            parallel[i] = rawParallel[src];
+        }
+
+        return new ArmIndex(resistors, values, first, second, parallel);
+    }
+
+    public double[] getResistors() {
+        return resistors;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public double value(int i) {
+        return values[i];
+    }
+
+    /**
+     * Сопротивления плеч по возрастанию (без копирования, не изменять)
+     */
+    double[] getValues() {
+        return values;
+    }
+
+    public int first(int i) {
+        return first[i];
+    }
+
+    public int second(int i) {
+        return second[i];
+    }
+
+    public double firstResistor(int i) {
+        return resistors[first[i]];
+    }
+
+    public double secondResistor(int i) {
+        return resistors[second[i]];
+    }
+
+    public boolean isParallel(int i) {
+        return parallel[i];
+    }
+
+    /**
+     * Совпадает ли сопротивление с одним из номиналов отсортированного массива
+     */
+    static boolean matchesResistor(double[] resistors, double value) {
+        int k = lowerBound(resistors, value * (1 - EQUAL_EPSILON));
+        return k < resistors.length && resistors[k] <= value * (1 + EQUAL_EPSILON);
+    }
+
+    /**
+     * Индекс первого плеча, сопротивление которого не меньше value
+     */
+    public int lowerBound(double value) {
+        return lowerBound(values, value);
+    }
+
+    /**
+     * Индекс первого элемента отсортированного массива, не меньшего value
+     */
+    public static int lowerBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Устойчивая сортировка перестановки order по ключам keys (сортировка слиянием)
+     */
+    static void sortByValue(int[] order, double[] keys) {
+        int[] buffer = new int[order.length];
+        for (int width = 1; width < order.length; width *= 2) {
+            for (int left = 0; left < order.length - width; left += 2 * width) {
+                int mid = left + width;
+                int right = Math.min(left + 2 * width, order.length);
+                merge(order, buffer, keys, left, mid, right);
+            }
+        }
+    }
+
+    private static void merge(int[] order, int[] buffer, double[] keys, int left, int mid, int right) {
+        System.arraycopy(order, left, buffer, left, right - left);
+        int i = left;
+        int j = mid;
+        int k = left;
+        while (i < mid && j < right) {
+            if (keys[buffer[j]] < keys[buffer[i]]) {
+                order[k++] = buffer[j++];
+            } else {
+                order[k++] = buffer[i++];
+            }
+        }
+        while (i < mid) {
+            order[k++] = buffer[i++];
+        }
+        while (j < right) {
+            order[k++] = buffer[j++];
+        }
+    }
+}
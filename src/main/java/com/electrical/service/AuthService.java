@@ -30,6 +30,22 @@ public class AuthService {
      * @return результат аутентификации
      */
     public AuthResult login(String username, String password) {
+        AuthResult result = authenticate(username, password);
+        if (result.success()) {
+            SessionManager.setCurrentUser(result.user());
+            logger.info("Пользователь вошёл в систему: " + username);
+        }
+        return result;
+    }
+    
+    /**
+     * Проверка имени и пароля без входа в систему: сессия приложения не
+     * меняется. Используется клиентами без графического интерфейса
+     * @param username имя пользователя
+     * @param password пароль
+     * @return результат аутентификации
+     */
+    public AuthResult authenticate(String username, String password) {
         if (username == null || username.trim().isEmpty()) {
             return new AuthResult(false, "Введите имя пользователя", null);
         }
@@ -52,9 +68,6 @@ public class AuthService {
             return new AuthResult(false, "Неверный пароль", null);
         }
         
-        SessionManager.setCurrentUser(user);
-        logger.info("Пользователь вошёл в систему: " + username);
-        
         return new AuthResult(true, "Вход выполнен успешно", user);
     }
     
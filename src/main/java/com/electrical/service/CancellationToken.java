@@ -0,0 +1,67 @@
+package com.electrical.service;
+
+import java.time.Duration;
+
+/**
+ * Признак отмены долгого расчёта.
+ *
+ * <p>Расчёт считается отменённым после вызова {@link #cancel()} или по
+ * истечении бюджета времени, если токен создан через {@link #withTimeout}.
+ * Проверка дешёвая, поэтому её можно выполнять на каждой итерации перебора.</p>
+ */
+public final class CancellationToken {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+
+    private CancellationToken(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Токен без ограничения по времени
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(NO_DEADLINE);
+    }
+
+    /**
+     * Токен, который срабатывает автоматически по истечении бюджета времени
+     * @param timeBudget допустимое время расчёта
+     */
+    public static CancellationToken withTimeout(Duration timeBudget) {
+        if (timeBudget.isNegative()) {
+            throw new IllegalArgumentException("Бюджет времени не может быть отрицательным");
+        }
+        long nanos;
+        try {
+            nanos = timeBudget.toNanos();
+        } catch (ArithmeticException e) {
+            return create();
+        }
+        return new CancellationToken(System.nanoTime() + nanos);
+    }
+
+    /**
+     * Отменить расчёт
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return true, если расчёт отменён или бюджет времени исчерпан
+     */
+    public boolean isCancelled() {
+        if (cancelled) {
+            return true;
+        }
+        if (deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0) {
+            cancelled = true;
+            return true;
+        }
+        return false;
+    }
+}
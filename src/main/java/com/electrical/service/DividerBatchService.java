@@ -0,0 +1,166 @@
+package com.electrical.service;
+
+import com.electrical.model.DividerSearchResult;
+import com.electrical.model.DividerSpec;
+import com.electrical.model.ResistorSeries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Пакетный подбор делителей напряжения для списка заданий.
+ *
+ * <p>Задания решаются параллельно в пуле поиска сервиса делителей, а
+ * результаты записываются в порядке заданий по мере готовности: в памяти
+ * держится не больше нескольких заданий на поток пула. Индексы плеч
+ * строятся один раз для каждого сочетания ряда и диапазона сопротивлений и
+ * используются всеми заданиями пакета; кэш запросов сервиса также общий.</p>
+ */
+public final class DividerBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DividerBatchService.class);
+
+    // Заданий в работе на один поток пула
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+
+    // Наибольшее количество общих индексов плеч в одном пакете
+    private static final int MAX_SHARED_INDICES = 64;
+
+    private final VoltageDividerService dividerService;
+    private final Duration specTimeBudget;
+
+    /**
+     * @param dividerService сервис делителей, чьи пул и кэш используются пакетом
+     * @param specTimeBudget бюджет времени на одно задание (null — без ограничения);
+     *                       при его исчерпании записываются лучшие найденные комбинации
+     */
+    public DividerBatchService(VoltageDividerService dividerService, Duration specTimeBudget) {
+        this.dividerService = dividerService;
+        this.specTimeBudget = specTimeBudget;
+    }
+
+    /**
+     * Итог пакета
+     * @param specs количество заданий
+     * @param failed количество заданий с ошибкой
+     * @param truncated количество заданий, остановленных по бюджету времени
+     * @param unmatched количество заданий без комбинаций в пределах допуска
+     */
+    public record Summary(int specs, int failed, int truncated, int unmatched) {
+    }
+
+    /**
+     * Решить все задания и записать результаты в порядке заданий
+     * @param specs задания
+     * @param writer получатель результатов
+     * @return итог пакета
+     * @throws IOException при ошибке записи результатов
+     */
+    public Summary solve(List<DividerSpec> specs, DividerBatchWriter writer) throws IOException {
+        ForkJoinPool pool = dividerService.getSearchPool();
+        SharedArmIndices armIndices = new SharedArmIndices();
+        int window = Math.max(1, pool.getParallelism() * IN_FLIGHT_PER_THREAD);
+
+        long start = System.nanoTime();
+        Deque<CompletableFuture<Outcome>> pending = new ArrayDeque<>();
+        Counters counters = new Counters();
+        try {
+            for (DividerSpec spec : specs) {
+                pending.addLast(CompletableFuture.supplyAsync(() -> solveOne(spec, armIndices), pool));
+                if (pending.size() >= window) {
+                    write(pending.removeFirst().join(), writer, counters);
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.removeFirst().join(), writer, counters);
+            }
+        } finally {
+            // При ошибке записи оставшиеся задания не нужны
+            pending.forEach(future -> future.cancel(false));
+            writer.flush();
+        }
+
+        logger.info("Пакет из {} заданий решён за {} мс, индексов плеч: {}",
+                specs.size(), (System.nanoTime() - start) / 1_000_000, armIndices.size());
+        return new Summary(specs.size(), counters.failed, counters.truncated, counters.unmatched);
+    }
+
+    private Outcome solveOne(DividerSpec spec, SharedArmIndices armIndices) {
+        // Бюджет времени отсчитывается с начала решения, а не с постановки в очередь
+        CancellationToken token = specTimeBudget != null
+                ? CancellationToken.withTimeout(specTimeBudget)
+                : CancellationToken.create();
+        try {
+            return new Outcome(spec, dividerService.solve(spec, armIndices::armIndex, token), null);
+        } catch (RuntimeException e) {
+            return new Outcome(spec, null, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    private static void write(Outcome outcome, DividerBatchWriter writer, Counters counters) throws IOException {
+        if (outcome.error() != null) {
+            counters.failed++;
+            writer.writeError(outcome.spec(), outcome.error());
+            return;
+        }
+        if (outcome.result().isTruncated()) {
+            counters.truncated++;
+        }
+        if (outcome.result().size() == 0) {
+            counters.unmatched++;
+        }
+        writer.write(outcome.spec(), outcome.result());
+    }
+
+    private record Outcome(DividerSpec spec, DividerSearchResult result, String error) {
+    }
+
+    private static final class Counters {
+        int failed;
+        int truncated;
+        int unmatched;
+    }
+
+    /**
+     * Индексы плеч, общие для заданий пакета с одинаковыми рядом и диапазоном
+     */
+    private static final class SharedArmIndices {
+
+        private final ConcurrentMap<RangeKey, ArmIndex> indices = new ConcurrentHashMap<>();
+
+        ArmIndex armIndex(ResistorSeries series, double[] rangeResistors) {
+            if (rangeResistors.length == 0) {
+                return ArmIndex.build(rangeResistors);
+            }
+            RangeKey key = new RangeKey(series, rangeResistors[0], rangeResistors.length);
+            ArmIndex index = indices.get(key);
+            if (index != null) {
+                return index;
+            }
+            if (indices.size() >= MAX_SHARED_INDICES) {
+                return ArmIndex.build(rangeResistors);
+            }
+            // Задания с одним диапазоном, начатые одновременно, ждут одного построения
+            return indices.computeIfAbsent(key, k -> ArmIndex.build(rangeResistors));
+        }
+
+        int size() {
+            return indices.size();
+        }
+    }
+
+    /**
+     * Непрерывный диапазон номиналов ряда задаётся первым номиналом и количеством
+     */
+    private record RangeKey(ResistorSeries series, double first, int length) {
+    }
+}
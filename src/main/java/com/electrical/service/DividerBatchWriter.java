@@ -0,0 +1,235 @@
+package com.electrical.service;
+
+import com.electrical.model.Arm;
+import com.electrical.model.DividerResult;
+import com.electrical.model.DividerSearchResult;
+import com.electrical.model.DividerSpec;
+import com.electrical.util.Json;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Запись результатов пакетного подбора делителей по мере их получения.
+ *
+ * <p>CSV содержит строку на каждую найденную комбинацию (или одну строку с
+ * сообщением, если комбинаций нет либо задание не решено). JSON Lines
+ * содержит по одному объекту на задание. Числа округляются до 6 значащих
+ * цифр, номиналы в плечах записываются в Омах, например {@code 4700 + (1000 || 2200)}.</p>
+ */
+public abstract class DividerBatchWriter implements Closeable {
+
+    /** Сообщение для задания без комбинаций в пределах допуска */
+    public static final String NO_MATCH_MESSAGE = "Нет комбинаций в пределах допуска";
+
+    private static final MathContext PRECISION = new MathContext(6);
+
+    protected final Writer out;
+
+    private DividerBatchWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Записывать в CSV
+     */
+    public static DividerBatchWriter csv(Writer out) throws IOException {
+        return new CsvWriter(out);
+    }
+
+    /**
+     * Записывать в JSON Lines
+     */
+    public static DividerBatchWriter jsonLines(Writer out) {
+        return new JsonLinesWriter(out);
+    }
+
+    /**
+     * Открыть файл результатов; формат определяется по расширению
+     * ({@code .csv} — CSV, иначе JSON Lines)
+     */
+    public static DividerBatchWriter open(Path file) throws IOException {
+        BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")
+                ? csv(out)
+                : jsonLines(out);
+    }
+
+    /**
+     * Записать результат задания
+     */
+    public abstract void write(DividerSpec spec, DividerSearchResult result) throws IOException;
+
+    /**
+     * Записать ошибку задания
+     */
+    public abstract void writeError(DividerSpec spec, String message) throws IOException;
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Число, округлённое до 6 значащих цифр, без экспоненты
+     */
+    static String format(double value) {
+        return new BigDecimal(value).round(PRECISION).stripTrailingZeros().toPlainString();
+    }
+
+    static double round(double value) {
+        return new BigDecimal(value).round(PRECISION).doubleValue();
+    }
+
+    static String formatArm(Arm arm) {
+        return arm.format(DividerBatchWriter::format);
+    }
+
+    private static final class CsvWriter extends DividerBatchWriter {
+
+        private static final String HEADER = "id,vin,vout,rank,vout_actual,error_percent,upper,lower,"
+                + "upper_ohms,lower_ohms,resistors,current_a,power_w,output_ohms,truncated,error";
+
+        CsvWriter(Writer out) throws IOException {
+            super(out);
+            out.write(HEADER);
+            out.write('\n');
+        }
+
+        @Override
+        public void write(DividerSpec spec, DividerSearchResult result) throws IOException {
+            if (result.size() == 0) {
+                writeRow(spec, null, 0, result.isTruncated(), NO_MATCH_MESSAGE);
+                return;
+            }
+            int rank = 1;
+            for (DividerResult r : result.getResults()) {
+                writeRow(spec, r, rank++, result.isTruncated(), "");
+            }
+        }
+
+        @Override
+        public void writeError(DividerSpec spec, String message) throws IOException {
+            writeRow(spec, null, 0, false, message);
+        }
+
+        private void writeRow(DividerSpec spec, DividerResult r, int rank, boolean truncated,
+                              String error) throws IOException {
+            List<String> cells = new ArrayList<>(16);
+            cells.add(spec.id());
+            cells.add(format(spec.vIn()));
+            cells.add(format(spec.vOutRequired()));
+            if (r != null) {
+                cells.add(Integer.toString(rank));
+                cells.add(format(r.getVOutActual()));
+                cells.add(format(r.getErrorPercent()));
+                cells.add(formatArm(r.getUpperArm()));
+                cells.add(formatArm(r.getLowerArm()));
+                cells.add(format(r.getUpperResistance()));
+                cells.add(format(r.getLowerResistance()));
+                cells.add(Integer.toString(r.getTotalResistorCount()));
+                cells.add(format(r.getCurrent()));
+                cells.add(format(r.getPowerDissipation()));
+                cells.add(format(r.getOutputResistance()));
+            } else {
+                for (int i = 0; i < 11; i++) {
+                    cells.add("");
+                }
+            }
+            cells.add(Boolean.toString(truncated));
+            cells.add(error);
+
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < cells.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append(escape(cells.get(i)));
+            }
+            line.append('\n');
+            out.write(line.toString());
+        }
+
+        private static String escape(String cell) {
+            if (cell.indexOf(',') < 0 && cell.indexOf('"') < 0 && cell.indexOf('\n') < 0) {
+                return cell;
+            }
+            return '"' + cell.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class JsonLinesWriter extends DividerBatchWriter {
+
+        JsonLinesWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(DividerSpec spec, DividerSearchResult result) throws IOException {
+            List<Object> results = new ArrayList<>(result.size());
+            for (DividerResult r : result.getResults()) {
+                results.add(toJson(r));
+            }
+            Map<String, Object> line = header(spec);
+            line.put("results", results);
+            line.put("truncated", result.isTruncated());
+            writeLine(line);
+        }
+
+        @Override
+        public void writeError(DividerSpec spec, String message) throws IOException {
+            Map<String, Object> line = header(spec);
+            line.put("error", message);
+            writeLine(line);
+        }
+
+        private static Map<String, Object> header(DividerSpec spec) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("id", spec.id());
+            line.put("vin", spec.vIn());
+            line.put("vout", spec.vOutRequired());
+            return line;
+        }
+
+        private void writeLine(Map<String, Object> line) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            Json.write(sb, line);
+            sb.append('\n');
+            out.write(sb.toString());
+        }
+    }
+
+    /**
+     * Комбинация в виде JSON-объекта
+     */
+    public static Map<String, Object> toJson(DividerResult r) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("voutActual", round(r.getVOutActual()));
+        json.put("errorPercent", round(r.getErrorPercent()));
+        json.put("upper", formatArm(r.getUpperArm()));
+        json.put("lower", formatArm(r.getLowerArm()));
+        json.put("upperOhms", round(r.getUpperResistance()));
+        json.put("lowerOhms", round(r.getLowerResistance()));
+        json.put("resistors", r.getTotalResistorCount());
+        json.put("currentA", round(r.getCurrent()));
+        json.put("powerW", round(r.getPowerDissipation()));
+        json.put("outputOhms", round(r.getOutputResistance()));
+        return json;
+    }
+}
@@ -0,0 +1,233 @@
+package com.electrical.service;
+
+import com.electrical.model.DividerResult;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограниченный сборщик лучших результатов поиска делителей.
+ *
+ * <p>Хранит не более {@code capacity} кандидатов в двоичной куче, на вершине
+ * которой находится худший из отобранных. Кандидат описывается только
+ * примитивами — погрешностью, количеством резисторов, мощностью и ключом
+ * перебора, по которому поиск потом восстанавливает комбинацию. Куча лежит
+ * в параллельных массивах, поэтому отбор кандидатов не создаёт объектов;
+ * {@link DividerResult} оформляются только для итоговых K результатов.</p>
+ *
+ * <p>Порядок кандидатов совпадает с {@link DividerResult#compareTo}, а при
+ * равенстве лучшим считается кандидат с меньшим ключом перебора. Поэтому итог
+ * совпадает с устойчивой сортировкой всех попаданий в порядке перебора и
+ * отсечением первых K, в том числе после объединения сборщиков параллельных
+ * подзадач.</p>
+ *
+ * <p>Пока куча не заполнена, граница погрешности равна допуску запроса; после
+ * заполнения она сужается до погрешности худшего отобранного кандидата, и
+ * поиск отбрасывает заведомо худших кандидатов. Сборщики одного поиска могут
+ * разделять общую границу: её значение никогда не меньше погрешности K-го
+ * лучшего кандидата среди всех подзадач.</p>
+ */
+public final class DividerCollector {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int capacity;
+    private final double tolerancePercent;
+    private final AtomicLong sharedBound;
+    private double[] errors;
+    private int[] counts;
+    private double[] powers;
+    private long[] keys;
+    private int size;
+
+    /**
+     * @param capacity максимальное количество результатов
+     * @param tolerancePercent допустимое отклонение в процентах
+     */
+    public DividerCollector(int capacity, double tolerancePercent) {
+        this(capacity, tolerancePercent, new AtomicLong(Double.doubleToLongBits(tolerancePercent)));
+    }
+
+    /**
+     * @param capacity максимальное количество результатов
+     * @param tolerancePercent допустимое отклонение в процентах
+     * @param sharedBound общая граница погрешности (биты double) сборщиков одного поиска
+     */
+    public DividerCollector(int capacity, double tolerancePercent, AtomicLong sharedBound) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Количество результатов не может быть отрицательным");
+        }
+        this.capacity = capacity;
+        this.tolerancePercent = tolerancePercent;
+        this.sharedBound = sharedBound;
+        int initial = Math.min(capacity, INITIAL_CAPACITY);
+        this.errors = new double[initial];
+        this.counts = new int[initial];
+        this.powers = new double[initial];
+        this.keys = new long[initial];
+    }
+
+    /**
+     * Текущая граница погрешности: кандидаты с большей погрешностью
+     * уже не могут попасть в результат
+     */
+    public double errorBound() {
+        if (capacity == 0) {
+            return -1;
+        }
+        double shared = Double.longBitsToDouble(sharedBound.get());
+        if (size < capacity) {
+            return Math.min(tolerancePercent, shared);
+        }
+        return Math.min(errors[0], shared);
+    }
+
+    /**
+     * Предложить кандидата сборщику
+     * @param error погрешность в процентах
+     * @param count количество резисторов
+     * @param power рассеиваемая мощность
+     * @param key ключ перебора, по которому восстанавливается комбинация
+     * @return true, если кандидат отобран
+     */
+    public boolean offer(double error, int count, double power, long key) {
+        if (capacity == 0 || error > tolerancePercent) {
+            return false;
+        }
+
+        if (size < capacity) {
+            ensureCapacity();
+            set(size, error, count, power, key);
+            siftUp(size++);
+            if (size == capacity) {
+                publishBound();
+            }
+            return true;
+        }
+
+        if (!isBetter(error, count, power, key, 0)) {
+            return false;
+        }
+
+        set(0, error, count, power, key);
+        siftDown(0);
+        publishBound();
+        return true;
+    }
+
+    /**
+     * Перенести в этот сборщик кандидатов другого сборщика того же поиска
+     */
+    public void merge(DividerCollector other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.errors[i], other.counts[i], other.powers[i], other.keys[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ключи отобранных кандидатов от лучшего к худшему
+     */
+    public long[] sortedKeys() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int cmp = DividerResult.compare(errors[a], counts[a], powers[a], errors[b], counts[b], powers[b]);
+            return cmp != 0 ? cmp : Long.compare(keys[a], keys[b]);
+        });
+
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = keys[order[i]];
+        }
+        return sorted;
+    }
+
+    private boolean isBetter(double error, int count, double power, long key, int j) {
+        int cmp = DividerResult.compare(error, count, power, errors[j], counts[j], powers[j]);
+        return cmp < 0 || (cmp == 0 && key < keys[j]);
+    }
+
+    private boolean isBetter(int i, int j) {
+        return isBetter(errors[i], counts[i], powers[i], keys[i], j);
+    }
+
+    /**
+     * Сузить общую границу до погрешности худшего отобранного кандидата
+     */
+    private void publishBound() {
+        double bound = errors[0];
+        long current = sharedBound.get();
+        while (bound < Double.longBitsToDouble(current)
+                && !sharedBound.compareAndSet(current, Double.doubleToLongBits(bound))) {
+            current = sharedBound.get();
+        }
+    }
+
+    private void set(int i, double error, int count, double power, long key) {
+        errors[i] = error;
+        counts[i] = count;
+        powers[i] = power;
+        keys[i] = key;
+    }
+
+    private void ensureCapacity() {
+        if (size == errors.length) {
+            int grown = (int) Math.min(capacity, Math.max(INITIAL_CAPACITY, 2L * errors.length));
+            errors = Arrays.copyOf(errors, grown);
+            counts = Arrays.copyOf(counts, grown);
+            powers = Arrays.copyOf(powers, grown);
+            keys = Arrays.copyOf(keys, grown);
+        }
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!isBetter(parent, i)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && isBetter(left, right)) {
+                worst = right;
+            }
+            if (!isBetter(i, worst)) {
+                break;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int i, int j) {
+        double error = errors[i];
+        errors[i] = errors[j];
+        errors[j] = error;
+        int count = counts[i];
+        counts[i] = counts[j];
+        counts[j] = count;
+        double power = powers[i];
+        powers[i] = powers[j];
+        powers[j] = power;
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+    }
+}
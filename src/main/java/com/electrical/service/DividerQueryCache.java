@@ -0,0 +1,161 @@
+package com.electrical.service;
+
+import com.electrical.model.DividerConstraints;
+import com.electrical.model.DividerResult;
+import com.electrical.model.DividerSearchMode;
+import com.electrical.model.DividerSearchResult;
+import com.electrical.model.ResistorSeries;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ограниченный по размеру LRU-кэш результатов поиска делителей.
+ *
+ * <p>Подобранные комбинации зависят только от отношения Vout/Vin, допуска,
+ * ряда, диапазона сопротивлений и допустимого количества резисторов;
+ * входное напряжение лишь масштабирует напряжения, ток и мощность. Поэтому ключ кэша не содержит Vin, а при
+ * попадании результаты пересчитываются для нового входного напряжения.
+ * Погрешности и порядок комбинаций при этом не меняются.</p>
+ *
+ * <p>Запись, сохранённая для K результатов, обслуживает и запросы с меньшим
+ * количеством: их ответ — начало того же отсортированного списка. Неполные
+ * (прерванные) результаты не кэшируются. Парето-фронт кэшируется отдельно
+ * от лучших K комбинаций того же запроса.</p>
+ *
+ * <p>Электрические ограничения входят в ключ в виде границ сопротивлений
+ * (наименьшее R1 + R2 и наибольшее R1‖R2): ограничения тока и мощности
+ * зависят от Vin, и запрос с другим входным напряжением совпадает с
+ * сохранённым, только если границы те же.</p>
+ */
+public final class DividerQueryCache {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final int capacity;
+    private final Map<Key, Entry> entries;
+
+    public DividerQueryCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity максимальное количество запросов в кэше (0 — кэш отключён)
+     */
+    public DividerQueryCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Размер кэша не может быть отрицательным");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > DividerQueryCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Найти результат запроса в кэше
+     * @param maxResistors максимальное общее количество резисторов делителя
+     * @return результаты, пересчитанные для vIn, или null, если запрос не закэширован
+     */
+    public DividerSearchResult get(double vIn, double vOutRequired, double tolerancePercent,
+                                   ResistorSeries series, double minResistance,
+                                   double maxResistance, int maxResistors, int maxResults) {
+        return get(vIn, vOutRequired, tolerancePercent, series, minResistance, maxResistance,
+                maxResistors, DividerSearchMode.BEST, DividerConstraints.NONE, maxResults);
+    }
+
+    /**
+     * Найти результат запроса в кэше
+     * @param mode режим отбора; для Парето-фронта maxResults не учитывается
+     * @param constraints электрические ограничения делителя
+     * @return результаты, пересчитанные для vIn, или null, если запрос не закэширован
+     */
+    public synchronized DividerSearchResult get(double vIn, double vOutRequired, double tolerancePercent,
+                                                ResistorSeries series, double minResistance, double maxResistance,
+                                                int maxResistors, DividerSearchMode mode,
+                                                DividerConstraints constraints, int maxResults) {
+        if (mode == DividerSearchMode.PARETO) {
+            maxResults = Integer.MAX_VALUE;
+        }
+        Entry entry = entries.get(new Key(vOutRequired / vIn, tolerancePercent, series,
+                minResistance, maxResistance, maxResistors, mode,
+                constraints.minTotalResistance(vIn), constraints.maxOutputResistance()));
+        if (entry == null || !entry.covers(maxResults)) {
+            return null;
+        }
+
+        List<DividerResult> cached = entry.result.getResults();
+        int count = Math.min(maxResults, cached.size());
+        List<DividerResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DividerResult result = cached.get(i);
+            results.add(result.getVIn() == vIn ? result : result.withInputVoltage(vIn, vOutRequired));
+        }
+        return new DividerSearchResult(results, false);
+    }
+
+    /**
+     * Сохранить полный результат запроса
+     */
+    public void put(double vIn, double vOutRequired, double tolerancePercent,
+                    ResistorSeries series, double minResistance, double maxResistance,
+                    int maxResistors, int maxResults, DividerSearchResult result) {
+        put(vIn, vOutRequired, tolerancePercent, series, minResistance, maxResistance,
+                maxResistors, DividerSearchMode.BEST, DividerConstraints.NONE, maxResults, result);
+    }
+
+    /**
+     * Сохранить полный результат запроса
+     * @param mode режим отбора; для Парето-фронта maxResults не учитывается
+     * @param constraints электрические ограничения делителя
+     */
+    public synchronized void put(double vIn, double vOutRequired, double tolerancePercent,
+                                 ResistorSeries series, double minResistance, double maxResistance,
+                                 int maxResistors, DividerSearchMode mode, DividerConstraints constraints,
+                                 int maxResults, DividerSearchResult result) {
+        if (capacity == 0 || result.isTruncated()) {
+            return;
+        }
+        if (mode == DividerSearchMode.PARETO) {
+            maxResults = Integer.MAX_VALUE;
+        }
+        Key key = new Key(vOutRequired / vIn, tolerancePercent, series, minResistance, maxResistance,
+                maxResistors, mode, constraints.minTotalResistance(vIn), constraints.maxOutputResistance());
+        Entry existing = entries.get(key);
+        if (existing == null || !existing.covers(maxResults)) {
+            entries.put(key, new Entry(maxResults, result));
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Ключ запроса, нормированный по входному напряжению
+     */
+    private record Key(double ratio, double tolerancePercent, ResistorSeries series,
+                       double minResistance, double maxResistance, int maxResistors, DividerSearchMode mode,
+                       double minTotalResistance, double maxOutputResistance) {
+    }
+
+    private record Entry(int maxResults, DividerSearchResult result) {
+
+        /**
+         * Содержит ли запись ответ на запрос с заданным количеством результатов:
+         * либо отобрано не меньше, либо найдены вообще все подходящие комбинации
+         */
+        boolean covers(int requested) {
+            return requested <= maxResults || result.size() < maxResults;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.electrical.service;
+
+import com.electrical.model.DividerSearchResult;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Издатель постепенно улучшающихся результатов поиска делителей.
+ *
+ * <p>Каждый подписчик запускает собственный поиск и получает
+ * полный текущий список лучших комбинаций после каждой группы этапов: сначала
+ * делители из 2 резисторов, затем из большего количества. Каждый следующий
+ * список заменяет предыдущий.</p>
+ *
+ * <p>Противодавление: пока подписчик не запросил очередной элемент, новые
+ * списки не копятся в очереди — хранится только последний из них. Отмена
+ * подписки останавливает перебор. {@code onComplete} вызывается только после
+ * доставки итогового списка.</p>
+ *
+ * <p>Если поиск остановлен токеном отмены или по истечении бюджета времени,
+ * итоговый список содержит лучшие из уже найденных комбинаций и помечен как
+ * неполный.</p>
+ */
+public final class DividerResultPublisher implements Flow.Publisher<DividerSearchResult> {
+
+    /**
+     * Поиск, выполняемый для одного подписчика
+     */
+    @FunctionalInterface
+    interface Search {
+
+        /**
+         * @param cancelled признак отмены поиска
+         * @param progress получатель промежуточных результатов
+         * @return итоговый результат
+         */
+        DividerSearchResult run(BooleanSupplier cancelled, Consumer<DividerSearchResult> progress);
+    }
+
+    private final Search search;
+    private final CancellationToken token;
+    private final Executor executor;
+
+    /**
+     * @param search поиск, запускаемый для каждого подписчика
+     * @param token признак отмены, общий для всех подписчиков
+     * @param executor исполнитель, в котором запускается поиск
+     */
+    DividerResultPublisher(Search search, CancellationToken token, Executor executor) {
+        this.search = search;
+        this.token = token;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DividerSearchResult> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        SearchSubscription subscription = new SearchSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+    }
+
+    /**
+     * Подписка на один поиск: доставляет последний опубликованный список
+     * с учётом запрошенного количества элементов
+     */
+    private final class SearchSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super DividerSearchResult> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicReference<DividerSearchResult> latest = new AtomicReference<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile Throwable error;
+        private boolean terminated;
+
+        SearchSubscription(Flow.Subscriber<? super DividerSearchResult> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void start() {
+            if (cancelled) {
+                return;
+            }
+            executor.execute(() -> {
+                try {
+                    latest.set(search.run(this::isStopped, this::publish));
+                } catch (Throwable e) {
+                    error = e;
+                }
+                done = true;
+                drain();
+            });
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Количество запрашиваемых элементов должно быть положительным");
+                done = true;
+                cancelled = true;
+            } else {
+                long current;
+                long updated;
+                do {
+                    current = demand.get();
+                    updated = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!demand.compareAndSet(current, updated));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            latest.set(null);
+        }
+
+        /**
+         * Поиск останавливается при отмене подписки и при срабатывании токена
+         */
+        private boolean isStopped() {
+            return cancelled || token.isCancelled();
+        }
+
+        private void publish(DividerSearchResult snapshot) {
+            latest.set(snapshot);
+            drain();
+        }
+
+        /**
+         * Доставить подписчику последний список, если он запрошен. Сигналы
+         * подписчику отправляются только из одного потока одновременно
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!terminated) {
+                    deliver();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void deliver() {
+            Throwable failure = error;
+            if (failure != null && done) {
+                terminated = true;
+                latest.set(null);
+                subscriber.onError(failure);
+                return;
+            }
+            if (cancelled) {
+                terminated = true;
+                latest.set(null);
+                return;
+            }
+
+            boolean finished = done;
+            if (demand.get() > 0) {
+                DividerSearchResult snapshot = latest.getAndSet(null);
+                if (snapshot != null) {
+                    demand.decrementAndGet();
+                    subscriber.onNext(snapshot);
+                }
+            }
+
+            if (finished && latest.get() == null && !cancelled) {
+                terminated = true;
+                subscriber.onComplete();
+            }
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package com.electrical.service;
+
+import com.electrical.model.DividerConstraints;
+import com.electrical.model.DividerResult;
+import com.electrical.model.DividerSearchMode;
+import com.electrical.model.DividerSearchResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Параллельный перебор комбинаций резисторов для делителя напряжения.
+ *
+ * <p>Внешние циклы всех этапов (2, 3 и 4 резистора) делятся на подзадачи
+ * fork/join. Каждая подзадача собирает собственный {@link DividerCollector},
+ * а при объединении сборщиков равные результаты упорядочиваются по ключу
+ * перебора (этап, внешний индекс, внутренний индекс). Поэтому итог в точности
+ * совпадает с последовательным перебором независимо от числа потоков.</p>
+ *
+ * <p>Границы погрешности заполненных сборщиков публикуются в общую границу:
+ * если какая-либо подзадача уже нашла K результатов с погрешностью не хуже e,
+ * кандидаты хуже e не могут войти в итог ни в одной подзадаче.</p>
+ *
+ * <p>Погрешности кандидатов внутри интервала подходящих нижних плеч
+ * вычисляет {@link RatioKernel} — векторно, если доступен Vector API.</p>
+ *
+ * <p>В режиме {@link DividerSearchMode#PARETO} подзадачи вместо K лучших
+ * собирают {@link ParetoFront}: граница погрешности для внешнего плеча
+ * определяется кандидатами фронта, мощность которых не больше наименьшей
+ * мощности делителей с этим плечом, поэтому доминируемые кандидаты
+ * отсекаются ещё при выборе интервала нижних плеч.</p>
+ *
+ * <p>Признак отмены (в том числе истечение бюджета времени) проверяется на
+ * каждой итерации внешних циклов; после отмены подзадачи завершаются, не
+ * досчитав свой диапазон, а поиск возвращает лучшие из уже найденных
+ * комбинаций с признаком неполного перебора.</p>
+ */
+final class DividerSearchEngine {
+
+    private static final int STAGE_TWO = 0;
+    private static final int STAGE_THREE_UPPER_PAIR = 1;
+    private static final int STAGE_THREE_LOWER_PAIR = 2;
+    private static final int STAGE_FOUR = 3;
+
+    /**
+     * Группы этапов в порядке выполнения: после каждой группы публикуется
+     * промежуточный результат, поэтому быстрые решения из 2 резисторов
+     * доступны сразу, пока идёт перебор 3 и 4 резисторов
+     */
+    private static final int[][] STAGE_GROUPS = {
+            {STAGE_TWO},
+            {STAGE_THREE_UPPER_PAIR, STAGE_THREE_LOWER_PAIR},
+            {STAGE_FOUR}
+    };
+
+    // Разрядность номера плеча в ключе участка перебора
+    static final int INDEX_BITS = 28;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final int MIN_GRAIN = 16;
+
+    /**
+     * Относительный запас границ интервала поиска, перекрывающий ошибку округления;
+     * окончательное решение всегда принимается точной проверкой погрешности
+     */
+    private static final double BOUND_EPSILON = 1e-9;
+
+    private final double[] resistors;
+    private final ArmIndex armIndex;
+    private final double vIn;
+    private final double vOutRequired;
+    private final double targetRatio;
+    private final double tolerancePercent;
+    private final int maxResults;
+    private final DividerSearchMode mode;
+    private final DividerConstraints constraints;
+    private final double minTotal;
+    private final double maxOutput;
+    private final AtomicLong sharedBound;
+    private final AtomicReference<ParetoFront<Long>> sharedFront;
+    private final BooleanSupplier cancelled;
+    private final RatioKernel kernel;
+    private volatile boolean truncated;
+
+    DividerSearchEngine(double[] resistors, double vIn, double vOutRequired,
+                        double tolerancePercent, int maxResults) {
+        this(resistors, vIn, vOutRequired, tolerancePercent, maxResults, () -> false);
+    }
+
+    /**
+     * @param cancelled признак отмены поиска
+     */
+    DividerSearchEngine(double[] resistors, double vIn, double vOutRequired,
+                        double tolerancePercent, int maxResults, BooleanSupplier cancelled) {
+        this(ArmIndex.build(resistors), vIn, vOutRequired, tolerancePercent, maxResults,
+                DividerSearchMode.BEST, DividerConstraints.NONE, cancelled);
+    }
+
+    /**
+     * @param armIndex готовый индекс плеч для номиналов запроса
+     * @param maxResults максимальное количество результатов (в режиме Парето-фронта не учитывается)
+     * @param mode режим отбора комбинаций
+     * @param constraints электрические ограничения делителя
+     * @param cancelled признак отмены поиска
+     */
+    DividerSearchEngine(ArmIndex armIndex, double vIn, double vOutRequired, double tolerancePercent,
+                        int maxResults, DividerSearchMode mode, DividerConstraints constraints,
+                        BooleanSupplier cancelled) {
+        this.resistors = armIndex.getResistors();
+        this.armIndex = armIndex;
+        this.vIn = vIn;
+        this.vOutRequired = vOutRequired;
+        // Требуемое соотношение: Vout/Vin = R2/(R1+R2)
+        this.targetRatio = vOutRequired / vIn;
+        this.tolerancePercent = tolerancePercent;
+        this.maxResults = maxResults;
+        this.mode = mode;
+        this.constraints = constraints;
+        this.minTotal = constraints.minTotalResistance(vIn);
+        this.maxOutput = constraints.maxOutputResistance();
+        this.sharedBound = new AtomicLong(Double.doubleToLongBits(tolerancePercent));
+        this.sharedFront = new AtomicReference<>(new ParetoFront<Long>(tolerancePercent, Comparator.naturalOrder()));
+        this.cancelled = cancelled;
+        this.kernel = RatioKernel.forDivider(vIn, vOutRequired);
+    }
+
+    /**
+     * Выполнить поиск в пуле fork/join
+     * @return лучшие комбинации, от лучшей к худшей
+     */
+    DividerSearchResult search(ForkJoinPool pool) {
+        return search(pool, null);
+    }
+
+    /**
+     * Выполнить поиск в пуле fork/join, сообщая промежуточные результаты
+     * @param progress получатель лучших комбинаций после каждой группы этапов,
+     *                 кроме последней (может быть null)
+     * @return лучшие комбинации, от лучшей к худшей
+     */
+    DividerSearchResult search(ForkJoinPool pool, Consumer<DividerSearchResult> progress) {
+        int grain = Math.max(MIN_GRAIN, armIndex.size() / (pool.getParallelism() * 8));
+        Candidates collector = newCollector();
+
+        for (int group = 0; group < STAGE_GROUPS.length; group++) {
+            if (shouldStop()) {
+                break;
+            }
+            collector.merge(pool.invoke(new StagesTask(STAGE_GROUPS[group], grain)));
+            if (progress != null && group < STAGE_GROUPS.length - 1 && !truncated) {
+                progress.accept(new DividerSearchResult(materialize(collector), false));
+            }
+        }
+
+        return new DividerSearchResult(materialize(collector), truncated);
+    }
+
+    /**
+     * Проверить признак отмены и запомнить, что перебор остановлен досрочно
+     */
+    private boolean shouldStop() {
+        if (cancelled.getAsBoolean()) {
+            truncated = true;
+            return true;
+        }
+        return false;
+    }
+
+    private List<DividerResult> materialize(Candidates collector) {
+        long[] keys = collector.sortedKeys();
+        List<DividerResult> results = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            results.add(materialize(key));
+        }
+        return results;
+    }
+
+    /**
+     * Оформить отобранного кандидата в {@link DividerResult} по ключу перебора
+     */
+    private DividerResult materialize(long key) {
+        int stage = (int) (key >>> (2 * INDEX_BITS));
+        int outer = (int) ((key >>> INDEX_BITS) & INDEX_MASK);
+        int inner = (int) (key & INDEX_MASK);
+
+        double[] upper;
+        double[] lower;
+        boolean upperParallel = false;
+        boolean lowerParallel = false;
+        double r1;
+        double r2;
+
+        switch (stage) {
+            case STAGE_TWO -> {
+                upper = new double[]{resistors[outer]};
+                lower = new double[]{resistors[inner]};
+                r1 = resistors[outer];
+                r2 = resistors[inner];
+            }
+            case STAGE_THREE_UPPER_PAIR -> {
+                upper = pairValues(outer);
+                lower = new double[]{resistors[inner]};
+                upperParallel = armIndex.isParallel(outer);
+                r1 = armIndex.value(outer);
+                r2 = resistors[inner];
+            }
+            case STAGE_THREE_LOWER_PAIR -> {
+                upper = new double[]{resistors[outer]};
+                lower = pairValues(inner);
+                lowerParallel = armIndex.isParallel(inner);
+                r1 = resistors[outer];
+                r2 = armIndex.value(inner);
+            }
+            default -> {
+                upper = pairValues(outer);
+                lower = pairValues(inner);
+                upperParallel = armIndex.isParallel(outer);
+                lowerParallel = armIndex.isParallel(inner);
+                r1 = armIndex.value(outer);
+                r2 = armIndex.value(inner);
+            }
+        }
+
+        return new DividerResult(upper, lower, upperParallel, lowerParallel,
+                vIn, calculateVout(r1, r2), vOutRequired);
+    }
+
+    private double[] pairValues(int arm) {
+        return new double[]{armIndex.firstResistor(arm), armIndex.secondResistor(arm)};
+    }
+
+    private Candidates newCollector() {
+        if (mode == DividerSearchMode.PARETO) {
+            return new FrontCandidates(new ParetoFront<Long>(tolerancePercent, Comparator.naturalOrder()), sharedFront);
+        }
+        return new BestCandidates(new DividerCollector(maxResults, tolerancePercent, sharedBound));
+    }
+
+    private int outerSize(int stage) {
+        return switch (stage) {
+            case STAGE_TWO, STAGE_THREE_LOWER_PAIR -> resistors.length;
+            default -> armIndex.size();
+        };
+    }
+
+    /**
+     * Перебор диапазона внешнего цикла этапа. Во всех этапах внешний цикл
+     * идёт по верхнему плечу, а нижние плечи берутся из отсортированного массива:
+     * одиночных номиналов или плеч из двух резисторов
+     */
+    private void searchRange(int stage, int from, int to, Candidates collector) {
+        double[] upperValues = stage == STAGE_TWO || stage == STAGE_THREE_LOWER_PAIR
+                ? resistors : armIndex.getValues();
+        double[] lowerValues = stage == STAGE_TWO || stage == STAGE_THREE_UPPER_PAIR
+                ? resistors : armIndex.getValues();
+        int resistorCount = switch (stage) {
+            case STAGE_TWO -> 2;
+            case STAGE_THREE_UPPER_PAIR, STAGE_THREE_LOWER_PAIR -> 3;
+            default -> 4;
+        };
+        RatioSelection selection = new RatioSelection();
+
+        // Электрические ограничения задают интервал верхних плеч: при отношении
+        // k = R2/(R1+R2) общее сопротивление равно R1/(1-k), а R1‖R2 = R1·k
+        double ratioLow = targetRatio * (1 - tolerancePercent / 100);
+        double ratioHigh = targetRatio * (1 + tolerancePercent / 100);
+        double r1Min = minTotal * (1 - ratioHigh) * (1 - BOUND_EPSILON);
+        double r1Max = ratioLow > 0 ? maxOutput / ratioLow * (1 + BOUND_EPSILON) : Double.POSITIVE_INFINITY;
+        int begin = Math.max(from, ArmIndex.lowerBound(upperValues, r1Min));
+        int end = Math.min(to, ArmIndex.lowerBound(upperValues, Math.nextUp(r1Max)));
+
+        for (int u = begin; u < end; u++) {
+            if (shouldStop()) {
+                return;
+            }
+            // Для фиксированного R1 подходящие R2 образуют непрерывный интервал,
+            // поэтому ищем его границы бинарным поиском, а погрешности внутри
+            // интервала вычисляет ядро. Граница погрешности сужается по мере
+            // заполнения сборщика, а ограничения сужают интервал ещё до ядра:
+            // R2 не меньше minTotal - R1, а R1‖R2 растёт с R2
+            double r1 = upperValues[u];
+            double r2Min = minTotal - r1;
+            double r2Max = r1 > maxOutput ? maxOutput * r1 / (r1 - maxOutput) : Double.POSITIVE_INFINITY;
+            double minPower = calculatePower(r1,
+                    Math.min(r2Max, lowerArmForRatio(r1, targetRatio * (1 + tolerancePercent / 100))));
+            double errorBound = collector.errorBound(resistorCount, minPower);
+            double r2Low = Math.max(r2Min, lowerArmForRatio(r1, targetRatio * (1 - errorBound / 100)))
+                    * (1 - BOUND_EPSILON);
+            double r2High = Math.min(r2Max, lowerArmForRatio(r1, targetRatio * (1 + errorBound / 100)))
+                    * (1 + BOUND_EPSILON);
+            int first = ArmIndex.lowerBound(lowerValues, r2Low);
+            int last = Math.max(first, ArmIndex.lowerBound(lowerValues, Math.nextUp(r2High)));
+
+            kernel.select(r1, lowerValues, first, last, errorBound, selection);
+            for (int k = 0; k < selection.size(); k++) {
+                double error = selection.error(k);
+                int l = selection.index(k);
+                if (error <= collector.errorBound(resistorCount, minPower)
+                        && constraints.accepts(vIn, r1, lowerValues[l])) {
+                    collector.offer(error, resistorCount, calculatePower(r1, lowerValues[l]), key(stage, u, l));
+                }
+            }
+        }
+    }
+
+    private double calculateVout(double r1, double r2) {
+        return vIn * r2 / (r1 + r2);
+    }
+
+    /**
+     * Мощность, рассеиваемая делителем; вычисляется так же, как в {@link DividerResult}
+     */
+    private double calculatePower(double r1, double r2) {
+        return vIn * (vIn / (r1 + r2));
+    }
+
+    /**
+     * Ключ кандидата, монотонный в порядке последовательного перебора
+     */
+    private static long key(int stage, int outer, int inner) {
+        return ((long) stage << (2 * INDEX_BITS)) | ((long) outer << INDEX_BITS) | inner;
+    }
+
+    /**
+     * Сопротивление нижнего плеча, при котором делитель с верхним плечом r1
+     * даёт отношение ratio = R2/(R1+R2)
+     */
+    private static double lowerArmForRatio(double r1, double ratio) {
+        if (ratio <= 0) {
+            return 0;
+        }
+        if (ratio >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return r1 * ratio / (1 - ratio);
+    }
+
+    /**
+     * Корневая задача: запускает группу этапов перебора параллельно
+     */
+    private final class StagesTask extends RecursiveTask<Candidates> {
+
+        private final int[] stages;
+        private final int grain;
+
+        StagesTask(int[] stages, int grain) {
+            this.stages = stages;
+            this.grain = grain;
+        }
+
+        @Override
+        protected Candidates compute() {
+            RangeTask[] tasks = new RangeTask[stages.length];
+            for (int i = 0; i < stages.length; i++) {
+                tasks[i] = new RangeTask(stages[i], 0, outerSize(stages[i]), grain);
+            }
+            invokeAll(tasks);
+
+            Candidates collector = newCollector();
+            for (RangeTask task : tasks) {
+                collector.merge(task.join());
+            }
+            return collector;
+        }
+    }
+
+    /**
+     * Подзадача перебора диапазона внешнего цикла одного этапа
+     */
+    private final class RangeTask extends RecursiveTask<Candidates> {
+
+        private final int stage;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        RangeTask(int stage, int from, int to, int grain) {
+            this.stage = stage;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected Candidates compute() {
+            if (to - from <= grain) {
+                Candidates collector = newCollector();
+                searchRange(stage, from, to, collector);
+                collector.publish();
+                return collector;
+            }
+
+            int mid = (from + to) >>> 1;
+            RangeTask left = new RangeTask(stage, from, mid, grain);
+            RangeTask right = new RangeTask(stage, mid, to, grain);
+            right.fork();
+            Candidates collector = left.compute();
+            collector.merge(right.join());
+            return collector;
+        }
+    }
+
+    /**
+     * Кандидаты, отобранные подзадачей, с ключами перебора
+     */
+    private interface Candidates {
+
+        /**
+         * Граница погрешности для кандидатов из count резисторов с мощностью
+         * не меньше minPower
+         */
+        double errorBound(int count, double minPower);
+
+        void offer(double error, int count, double power, long key);
+
+        void merge(Candidates other);
+
+        /**
+         * Сообщить отобранных кандидатов остальным подзадачам
+         */
+        void publish();
+
+        long[] sortedKeys();
+    }
+
+    /**
+     * Лучшие K кандидатов; граница не зависит от количества резисторов и мощности
+     */
+    private record BestCandidates(DividerCollector collector) implements Candidates {
+
+        @Override
+        public double errorBound(int count, double minPower) {
+            return collector.errorBound();
+        }
+
+        @Override
+        public void offer(double error, int count, double power, long key) {
+            collector.offer(error, count, power, key);
+        }
+
+        @Override
+        public void merge(Candidates other) {
+            collector.merge(((BestCandidates) other).collector);
+        }
+
+        @Override
+        public void publish() {
+            // Граница погрешности публикуется сборщиком при заполнении
+        }
+
+        @Override
+        public long[] sortedKeys() {
+            return collector.sortedKeys();
+        }
+    }
+
+    /**
+     * Парето-фронт кандидатов; равные кандидаты упорядочиваются по ключу перебора.
+     * Завершённые подзадачи публикуют фронт в общий (sharedFront), и граница
+     * учитывает его: отсекаются только строго доминируемые кандидаты, поэтому
+     * результат не зависит от порядка завершения подзадач
+     */
+    private record FrontCandidates(ParetoFront<Long> front, AtomicReference<ParetoFront<Long>> sharedFront)
+            implements Candidates {
+
+        @Override
+        public double errorBound(int count, double minPower) {
+            return Math.min(front.errorBound(count, minPower), sharedFront.get().errorBound(count, minPower));
+        }
+
+        @Override
+        public void offer(double error, int count, double power, long key) {
+            front.offer(error, count, power, key);
+        }
+
+        @Override
+        public void merge(Candidates other) {
+            front.merge(((FrontCandidates) other).front);
+        }
+
+        @Override
+        public void publish() {
+            if (front.size() > 0) {
+                sharedFront.accumulateAndGet(front, ParetoFront::union);
+            }
+        }
+
+        @Override
+        public long[] sortedKeys() {
+            List<Long> keys = front.sorted();
+            long[] sorted = new long[keys.size()];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = keys.get(i);
+            }
+            return sorted;
+        }
+    }
+}
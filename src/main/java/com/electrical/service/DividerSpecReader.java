@@ -0,0 +1,211 @@
+package com.electrical.service;
+
+import com.electrical.model.DividerConstraints;
+import com.electrical.model.DividerSearchMode;
+import com.electrical.model.DividerSpec;
+import com.electrical.model.ResistorSeries;
+import com.electrical.util.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Чтение заданий пакетного подбора делителей из CSV и JSON.
+ *
+ * <p>Поля задания: {@code id}, {@code vin}, {@code vout}, {@code tolerance}
+ * (в процентах), {@code series}, {@code min} и {@code max} (в Ом),
+ * {@code maxResults}, {@code maxResistors}, {@code mode} ({@code best} — лучшие
+ * комбинации, {@code pareto} — Парето-фронт), необязательные ограничения
+ * {@code maxCurrent} (А), {@code maxPower} (Вт), {@code minTotal} и
+ * {@code maxOutput} (общее и выходное сопротивление, Ом). Обязательны только {@code vin} и
+ * {@code vout}, остальные поля по умолчанию совпадают с окном калькулятора.</p>
+ *
+ * <p>CSV: первая строка — заголовок с именами полей в любом порядке,
+ * разделитель — запятая, дробная часть отделяется точкой; пустые строки и
+ * строки, начинающиеся с {@code #}, пропускаются. JSON: массив объектов или
+ * объект с массивом {@code specs}.</p>
+ */
+public final class DividerSpecReader {
+
+    public static final double DEFAULT_TOLERANCE = 1.0;
+    public static final ResistorSeries DEFAULT_SERIES = ResistorSeries.E24;
+    public static final double DEFAULT_MIN_RESISTANCE = 100;
+    public static final double DEFAULT_MAX_RESISTANCE = 1_000_000;
+    public static final int DEFAULT_MAX_RESULTS = 1;
+
+    private DividerSpecReader() {
+    }
+
+    /**
+     * Прочитать задания из файла; формат определяется по расширению
+     * ({@code .json} — JSON, иначе CSV)
+     * @throws IllegalArgumentException если файл содержит некорректные задания
+     */
+    public static List<DividerSpec> read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")
+                    ? readJson(reader)
+                    : readCsv(reader);
+        }
+    }
+
+    /**
+     * Прочитать задания в формате CSV
+     * @throws IllegalArgumentException если строка содержит некорректные значения
+     */
+    public static List<DividerSpec> readCsv(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        List<DividerSpec> specs = new ArrayList<>();
+        String[] header = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.stripLeading().startsWith("#")) {
+                continue;
+            }
+            String[] cells = line.split(",", -1);
+            if (header == null) {
+                header = cells;
+                continue;
+            }
+
+            Map<String, Object> fields = new HashMap<>();
+            for (int i = 0; i < header.length && i < cells.length; i++) {
+                String cell = cells[i].strip();
+                if (!cell.isEmpty()) {
+                    fields.put(header[i].strip(), cell);
+                }
+            }
+            try {
+                specs.add(toSpec(fields, Integer.toString(lineNumber)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Строка " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return specs;
+    }
+
+    /**
+     * Прочитать задания в формате JSON
+     * @throws IllegalArgumentException если документ или задания некорректны
+     */
+    public static List<DividerSpec> readJson(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) > 0) {
+            text.append(buffer, 0, read);
+        }
+
+        Object document = Json.parse(text.toString());
+        if (document instanceof Map<?, ?> map && map.get("specs") != null) {
+            document = map.get("specs");
+        }
+        if (!(document instanceof List<?> items)) {
+            throw new IllegalArgumentException("Ожидался массив заданий");
+        }
+
+        List<DividerSpec> specs = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (!(items.get(i) instanceof Map<?, ?> item)) {
+                throw new IllegalArgumentException("Задание " + (i + 1) + ": ожидался объект");
+            }
+            Map<String, Object> fields = new HashMap<>();
+            item.forEach((key, value) -> fields.put(String.valueOf(key), value));
+            try {
+                specs.add(toSpec(fields, Integer.toString(i + 1)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Задание " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return specs;
+    }
+
+    /**
+     * Задание из значений полей; имена полей сравниваются без учёта регистра
+     * @param defaultId идентификатор, если поле id не задано
+     * @throws IllegalArgumentException если значения полей некорректны
+     */
+    public static DividerSpec toSpec(Map<String, Object> fields, String defaultId) {
+        Map<String, Object> normalized = new HashMap<>();
+        fields.forEach((key, value) -> normalized.put(key.toLowerCase(Locale.ROOT), value));
+
+        Object id = normalized.get("id");
+        Object series = normalized.get("series");
+        Object mode = normalized.get("mode");
+        DividerSpec spec = new DividerSpec(
+                id != null ? stringValue(id) : defaultId,
+                number(normalized, "vin", Double.NaN),
+                number(normalized, "vout", Double.NaN),
+                number(normalized, "tolerance", DEFAULT_TOLERANCE),
+                series != null ? ResistorSeries.valueOf(stringValue(series)) : DEFAULT_SERIES,
+                number(normalized, "min", DEFAULT_MIN_RESISTANCE),
+                number(normalized, "max", DEFAULT_MAX_RESISTANCE),
+                (int) number(normalized, "maxresults", DEFAULT_MAX_RESULTS),
+                (int) number(normalized, "maxresistors", VoltageDividerService.DEFAULT_MAX_RESISTORS),
+                mode != null ? mode(stringValue(mode)) : DividerSearchMode.BEST,
+                new DividerConstraints(
+                        number(normalized, "maxcurrent", Double.POSITIVE_INFINITY),
+                        number(normalized, "maxpower", Double.POSITIVE_INFINITY),
+                        number(normalized, "mintotal", 0),
+                        number(normalized, "maxoutput", Double.POSITIVE_INFINITY)));
+
+        if (!(spec.tolerancePercent() > 0)) {
+            throw new IllegalArgumentException("допуск должен быть положительным");
+        }
+        if (!(spec.minResistance() > 0 && spec.minResistance() < spec.maxResistance())) {
+            throw new IllegalArgumentException("диапазон сопротивлений задан неверно");
+        }
+        if (spec.maxResults() < 1) {
+            throw new IllegalArgumentException("количество результатов должно быть не меньше 1");
+        }
+        return spec;
+    }
+
+    /**
+     * Режим отбора по имени без учёта регистра: best или pareto
+     */
+    public static DividerSearchMode mode(String name) {
+        try {
+            return DividerSearchMode.valueOf(name.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("режим должен быть best или pareto: " + name);
+        }
+    }
+
+    private static double number(Map<String, Object> fields, String name, double defaultValue) {
+        Object value = fields.get(name);
+        if (value == null) {
+            if (Double.isNaN(defaultValue)) {
+                throw new IllegalArgumentException("не задано поле " + name);
+            }
+            return defaultValue;
+        }
+        if (value instanceof Number n) {
+            return n.doubleValue();
+        }
+        try {
+            return Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("поле " + name + " должно быть числом: " + value);
+        }
+    }
+
+    private static String stringValue(Object value) {
+        // Числовой идентификатор из JSON записывается без дробной части
+        if (value instanceof Double d && d == Math.rint(d)) {
+            return Long.toString(d.longValue());
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.electrical.service;
+
+import com.electrical.dao.CalculationHistoryDAO;
+import com.electrical.model.CalculationHistory;
+import com.electrical.model.HistoryPage;
+import com.electrical.model.HistoryQuery;
+import com.electrical.model.HistorySort;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Доступ к выборке истории по номеру записи с чтением страницами.
+ *
+ * <p>Страницы читаются по ключу ({@link CalculationHistoryDAO#findPage}) при
+ * первом обращении к их записям, и в памяти хранится не больше
+ * {@code maxPages} последних использованных страниц. Положение начала
+ * прочитанной страницы запоминается, поэтому листание вперёд и назад не
+ * использует OFFSET; при переходе к далёкой непрочитанной странице её начало
+ * находится одним запросом {@link CalculationHistoryDAO#findCursor}.</p>
+ *
+ * <p>Количество записей фиксируется при создании: новые записи видны в новом
+ * экземпляре. Класс не потокобезопасен.</p>
+ */
+public final class HistoryPager {
+
+    /** Размер страницы по умолчанию */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /** Количество страниц в памяти по умолчанию */
+    public static final int DEFAULT_MAX_PAGES = 8;
+
+    private final CalculationHistoryDAO historyDAO;
+    private final HistoryQuery query;
+    private final int pageSize;
+    private final int maxPages;
+    private final int size;
+    private final Map<Integer, HistoryPage.Cursor> pageStarts = new HashMap<>();
+    private final Map<Integer, List<CalculationHistory>> pages;
+
+    /**
+     * @param historyDAO DAO, из которого читаются страницы
+     * @param query выборка и её порядок
+     * @param pageSize количество записей в странице
+     * @param maxPages наибольшее количество страниц в памяти
+     */
+    public HistoryPager(CalculationHistoryDAO historyDAO, HistoryQuery query, int pageSize, int maxPages) {
+        this(historyDAO, query, pageSize, maxPages, historyDAO.count(query));
+    }
+
+    private HistoryPager(CalculationHistoryDAO historyDAO, HistoryQuery query, int pageSize, int maxPages,
+                         long count) {
+        if (pageSize < 1 || maxPages < 1) {
+            throw new IllegalArgumentException("Размер страницы и количество страниц должны быть положительными");
+        }
+        this.historyDAO = historyDAO;
+        this.query = query;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.size = (int) Math.min(count, Integer.MAX_VALUE);
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<CalculationHistory>> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    /**
+     * Пустая выборка, которая не обращается к базе данных
+     */
+    public static HistoryPager empty(HistoryQuery query) {
+        return new HistoryPager(null, query, DEFAULT_PAGE_SIZE, 1, 0);
+    }
+
+    /**
+     * Та же выборка в другом порядке; количество записей не пересчитывается
+     */
+    public HistoryPager reorder(HistorySort sort, boolean ascending) {
+        HistoryQuery reordered = new HistoryQuery(query.userId(), query.type(), query.search(), sort, ascending);
+        return new HistoryPager(historyDAO, reordered, pageSize, maxPages, size);
+    }
+
+    public HistoryQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Количество записей выборки на момент создания
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Запись с номером index (от 0)
+     * @return запись или null, если она удалена после создания выборки
+     */
+    public CalculationHistory get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Номер записи " + index + " вне выборки из " + size);
+        }
+        List<CalculationHistory> page = page(index / pageSize);
+        int offset = index % pageSize;
+        return offset < page.size() ? page.get(offset) : null;
+    }
+
+    private List<CalculationHistory> page(int number) {
+        List<CalculationHistory> page = pages.get(number);
+        if (page != null) {
+            return page;
+        }
+
+        HistoryPage.Cursor start = null;
+        if (number > 0) {
+            start = pageStarts.get(number);
+            if (start == null) {
+                // Начало страницы — после последней записи предыдущей
+                start = historyDAO.findCursor(query, (long) number * pageSize - 1);
+            }
+            if (start == null) {
+                pages.put(number, List.of());
+                return List.of();
+            }
+        }
+
+        HistoryPage loaded = historyDAO.findPage(query, start, pageSize);
+        if (number > 0) {
+            pageStarts.put(number, start);
+        }
+        if (!loaded.isLast()) {
+            pageStarts.put(number + 1, loaded.next());
+        }
+        pages.put(number, loaded.items());
+        return loaded.items();
+    }
+}
@@ -1,8 +1,14 @@
 package com.electrical.service;
 
 import com.electrical.dao.CalculationHistoryDAO;
+import com.electrical.dao.HistoryWriter;
 import com.electrical.model.CalculationHistory;
 import com.electrical.model.CalculationType;
+import com.electrical.model.HistoryPage;
+import com.electrical.model.HistoryQuery;
+import com.electrical.model.HistorySort;
+import com.electrical.model.User;
+import com.electrical.util.FullTextQuery;
 import com.electrical.util.SessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,25 +16,36 @@ import org.slf4j.LoggerFactory;
 import java.util.List;
 
 /**
- * Сервис для работы с историей расчётов
+ * Сервис для работы с историей расчётов.
+ *
+ * <p>Расчёты сохраняются в историю в фоне ({@link HistoryWriter}), поэтому
+ * перед чтением и удалением сервис дожидается записи поставленных в очередь
+ * расчётов.</p>
  */
 public class HistoryService {
     
     private static final Logger logger = LoggerFactory.getLogger(HistoryService.class);
+    
+    /**
+     * Наибольшее количество найденных записей, которые по умолчанию
+     * упорядочиваются по релевантности: релевантность вычисляется для всех
+     * совпадений, а записи по убыванию id индекс поиска выдаёт без сортировки
+     */
+    public static final int MAX_RANKED_MATCHES = 2000;
+    
     private final CalculationHistoryDAO historyDAO;
+    private final HistoryWriter historyWriter;
     
     public HistoryService() {
         this.historyDAO = new CalculationHistoryDAO();
+        this.historyWriter = HistoryWriter.getInstance();
     }
     
     /**
      * Получить историю текущего пользователя
      */
     public List<CalculationHistory> getCurrentUserHistory() {
-        if (!SessionManager.isLoggedIn()) {
-            return List.of();
-        }
-        return historyDAO.findByUserId(SessionManager.getCurrentUser().getId());
+        return getHistory(SessionManager.getCurrentUser(), null, false);
     }
     
     /**
@@ -39,6 +56,7 @@ public class HistoryService {
             logger.warn("Попытка получить всю историю от не-администратора");
             return getCurrentUserHistory();
         }
+        historyWriter.flush();
         return historyDAO.findAll();
     }
     
@@ -46,18 +64,99 @@ public class HistoryService {
      * Получить историю по типу расчёта
      */
     public List<CalculationHistory> getHistoryByType(CalculationType type, boolean allUsers) {
-        if (allUsers && SessionManager.isAdmin()) {
-            return historyDAO.findByType(type);
-        } else if (SessionManager.isLoggedIn()) {
-            return historyDAO.findByUserIdAndType(SessionManager.getCurrentUser().getId(), type);
+        return getHistory(SessionManager.getCurrentUser(), type, allUsers);
+    }
+    
+    /**
+     * Получить историю указанного пользователя, независимо от сессии приложения
+     * @param user пользователь (null — пустая история)
+     * @param type тип расчёта (null — все типы)
+     * @param allUsers история всех пользователей; учитывается только для администратора
+     */
+    public List<CalculationHistory> getHistory(User user, CalculationType type, boolean allUsers) {
+        if (user == null) {
+            return List.of();
+        }
+        historyWriter.flush();
+        if (allUsers && user.isAdmin()) {
+            return type != null ? historyDAO.findByType(type) : historyDAO.findAll();
         }
-        return List.of();
+        return type != null
+                ? historyDAO.findByUserIdAndType(user.getId(), type)
+                : historyDAO.findByUserId(user.getId());
+    }
+    
+    /**
+     * Страница истории указанного пользователя, сначала новые записи (по
+     * убыванию id). Страница читается по ключу, поэтому чтение не зависит от
+     * размера истории
+     * @param user пользователь (null — пустая страница)
+     * @param type тип расчёта (null — все типы)
+     * @param allUsers история всех пользователей; учитывается только для администратора
+     * @param afterId id последней записи предыдущей страницы; null — первая страница
+     * @param limit наибольшее количество записей страницы
+     */
+    public HistoryPage getHistoryPage(User user, CalculationType type, boolean allUsers, Long afterId, int limit) {
+        if (user == null) {
+            return new HistoryPage(List.of(), null);
+        }
+        historyWriter.flush();
+        HistoryPage.Cursor after = afterId != null ? new HistoryPage.Cursor(afterId, afterId) : null;
+        return historyDAO.findPage(newestFirst(user, type, allUsers), after, limit);
+    }
+    
+    /**
+     * Количество записей истории указанного пользователя
+     * @see #getHistoryPage(User, CalculationType, boolean, Long, int)
+     */
+    public long countHistory(User user, CalculationType type, boolean allUsers) {
+        if (user == null) {
+            return 0;
+        }
+        historyWriter.flush();
+        return historyDAO.count(newestFirst(user, type, allUsers));
+    }
+    
+    /**
+     * Открыть выборку истории указанного пользователя для постраничного чтения
+     * с упорядочиванием в базе данных
+     * @param user пользователь (null — пустая выборка)
+     * @param type тип расчёта (null — все типы)
+     * @param allUsers история всех пользователей; учитывается только для администратора
+     * @param search текст полнотекстового поиска (null — без поиска)
+     * @param sort столбец упорядочивания; null — порядок по умолчанию: при поиске
+     *             по релевантности, если найдено не больше {@value #MAX_RANKED_MATCHES}
+     *             записей, иначе и без поиска — сначала новые записи
+     * @param ascending по возрастанию; иначе — по убыванию. Без столбца не учитывается
+     */
+    public HistoryPager openPager(User user, CalculationType type, boolean allUsers, String search,
+                                  HistorySort sort, boolean ascending) {
+        Long userId = userIdFilter(user, allUsers);
+        HistoryQuery query;
+        if (sort != null) {
+            query = new HistoryQuery(userId, type, search, sort, ascending);
+        } else if (FullTextQuery.isSearchable(search)) {
+            query = new HistoryQuery(userId, type, search, HistorySort.RELEVANCE, true);
+        } else {
+            query = new HistoryQuery(userId, type, null, HistorySort.CREATED_AT, false);
+        }
+        if (user == null) {
+            return HistoryPager.empty(query);
+        }
+        historyWriter.flush();
+        HistoryPager pager = new HistoryPager(historyDAO, query,
+                HistoryPager.DEFAULT_PAGE_SIZE, HistoryPager.DEFAULT_MAX_PAGES);
+        if (sort == null && query.sort() == HistorySort.RELEVANCE && pager.size() > MAX_RANKED_MATCHES) {
+            return pager.reorder(HistorySort.ID, false);
+        }
+        return pager;
     }
     
     /**
      * Удалить запись из истории
      */
     public void deleteHistoryEntry(Long id) {
+        historyWriter.flush();
         historyDAO.delete(id);
         logger.info("Запись истории удалена, ID: " + id);
     }
@@ -67,10 +166,20 @@ public class HistoryService {
      */
     public void clearCurrentUserHistory() {
         if (SessionManager.isLoggedIn()) {
+            historyWriter.flush();
             historyDAO.deleteByUserId(SessionManager.getCurrentUser().getId());
             logger.info("История пользователя очищена: " + SessionManager.getCurrentUser().getUsername());
         }
     }
+    
+    private static HistoryQuery newestFirst(User user, CalculationType type, boolean allUsers) {
+        return new HistoryQuery(userIdFilter(user, allUsers), type, null, HistorySort.ID, false);
+    }
+    
+    /**
+     * Фильтр по пользователю: null — все пользователи, только для администратора
+     */
+    private static Long userIdFilter(User user, boolean allUsers) {
+        return user != null && !(allUsers && user.isAdmin()) ? user.getId() : null;
+    }
 }
-
-
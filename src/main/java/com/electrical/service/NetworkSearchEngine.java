@@ -0,0 +1,1044 @@
+package com.electrical.service;
+
+import com.electrical.model.Arm;
+import com.electrical.model.DividerConstraints;
+import com.electrical.model.DividerResult;
+import com.electrical.model.DividerSearchMode;
+import com.electrical.model.DividerSearchResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Поиск делителей с плечами произвольной последовательно-параллельной
+ * топологии, например R1 + (R2 || R3), с ограничением общего количества
+ * резисторов.
+ *
+ * <p>Для каждого количества резисторов в плече заранее построены все
+ * канонические формы соединений (для 4 резисторов — 10 форм). Перебор
+ * ведётся методом ветвей и границ: резисторы формы выбираются по одному,
+ * и для частично заполненной формы вычисляется интервал достижимых
+ * сопротивлений — сопротивление цепи монотонно по каждому резистору, поэтому
+ * нижняя граница получается при минимальных, а верхняя — при максимальных
+ * номиналах ещё не выбранных резисторов. Ветви, интервал которых не
+ * пересекает допустимое окно, отбрасываются без перебора.</p>
+ *
+ * <p>Для каждой пары размеров плеч полностью перебирается плечо с меньшим
+ * числом резисторов; по его сопротивлению и текущей границе погрешности
+ * вычисляется окно для второго плеча, которое строится ветвями и границами.
+ * Одинаковые ветви одного соединения перебираются в неубывающем порядке,
+ * поэтому каждая комбинация встречается один раз; плечи из нескольких
+ * резисторов, равные одиночному номиналу, пропускаются (см. {@link ArmIndex}).</p>
+ *
+ * <p>Делители перебираются группами по общему количеству резисторов, от
+ * меньшего к большему; если все отобранные комбинации уже точные, группы
+ * с большим количеством резисторов пропускаются. Внутри группы работа
+ * делится на подзадачи fork/join по формам и первому резистору
+ * перебираемого плеча. Равные по {@link DividerResult#compareTo} кандидаты
+ * упорядочиваются по форме и индексам резисторов, поэтому результат не
+ * зависит от числа потоков.</p>
+ *
+ * <p>В режиме {@link DividerSearchMode#PARETO} кандидаты собираются в
+ * {@link ParetoFront}, а группы с большим количеством резисторов не
+ * пропускаются: они могут войти во фронт за счёт меньшей мощности.</p>
+ */
+final class NetworkSearchEngine {
+
+    /** Максимальное количество резисторов в одном плече */
+    static final int MAX_ARM_RESISTORS = 4;
+
+    /** Максимальное общее количество резисторов делителя */
+    static final int MAX_TOTAL_RESISTORS = 2 * MAX_ARM_RESISTORS;
+
+    private static final double BOUND_EPSILON = 1e-9;
+
+    /** Максимальный размер таблицы плеч одного размера */
+    private static final int ARM_LIST_LIMIT = 1 << 21;
+
+    /** Разрядность индекса резистора в упакованной записи таблицы плеч */
+    private static final int ARM_LIST_INDEX_BITS = 12;
+
+    private static final Shape LEAF = new Shape(Arm.Kind.RESISTOR, new Shape[0], 0);
+
+    /** Подформы по количеству резисторов и типу корня; одинаковые формы — один объект */
+    private static final Map<String, List<Shape>> SUB_SHAPES = new HashMap<>();
+
+    /** Канонические формы плеча по количеству резисторов */
+    private static final Shape[][] SHAPES = buildShapes();
+
+    private final double[] resistors;
+    private final double vIn;
+    private final double vOutRequired;
+    private final double targetRatio;
+    private final double tolerancePercent;
+    private final int maxResults;
+    private final int maxResistors;
+    private final DividerSearchMode mode;
+    private final DividerConstraints constraints;
+    private final double minTotal;
+    private final double maxOutput;
+    private final AtomicLong sharedBound;
+    private final AtomicReference<ParetoFront<Candidate>> sharedFront;
+    private final BooleanSupplier cancelled;
+    private final ArmList[] armLists = new ArmList[MAX_ARM_RESISTORS + 1];
+    private final boolean[] armListsBuilt = new boolean[MAX_ARM_RESISTORS + 1];
+    private volatile boolean truncated;
+
+    /**
+     * @param resistors номиналы по возрастанию
+     * @param maxResults максимальное количество результатов (в режиме Парето-фронта не учитывается)
+     * @param maxResistors максимальное общее количество резисторов (2..{@value #MAX_TOTAL_RESISTORS})
+     * @param mode режим отбора комбинаций
+     * @param constraints электрические ограничения делителя
+     * @param cancelled признак отмены поиска
+     */
+    NetworkSearchEngine(double[] resistors, double vIn, double vOutRequired, double tolerancePercent,
+                        int maxResults, int maxResistors, DividerSearchMode mode,
+                        DividerConstraints constraints, BooleanSupplier cancelled) {
+        if (maxResistors < 2 || maxResistors > MAX_TOTAL_RESISTORS) {
+            throw new IllegalArgumentException(
+                    "Количество резисторов должно быть от 2 до " + MAX_TOTAL_RESISTORS);
+        }
+        this.resistors = resistors;
+        this.vIn = vIn;
+        this.vOutRequired = vOutRequired;
+        this.targetRatio = vOutRequired / vIn;
+        this.tolerancePercent = tolerancePercent;
+        this.maxResults = maxResults;
+        this.maxResistors = maxResistors;
+        this.mode = mode;
+        this.constraints = constraints;
+        this.minTotal = constraints.minTotalResistance(vIn);
+        this.maxOutput = constraints.maxOutputResistance();
+        this.sharedBound = new AtomicLong(Double.doubleToLongBits(tolerancePercent));
+        this.sharedFront = new AtomicReference<>(new ParetoFront<>(tolerancePercent, ORDER));
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Выполнить поиск в пуле fork/join
+     * @return лучшие комбинации, от лучшей к худшей
+     */
+    DividerSearchResult search(ForkJoinPool pool) {
+        return search(pool, null);
+    }
+
+    /**
+     * Выполнить поиск в пуле fork/join, сообщая промежуточные результаты.
+     * Делители перебираются группами по общему количеству резисторов, от
+     * меньшего к большему
+     * @param progress получатель лучших комбинаций после каждой группы,
+     *                 кроме последней (может быть null)
+     * @return лучшие комбинации, от лучшей к худшей
+     */
+    DividerSearchResult search(ForkJoinPool pool, Consumer<DividerSearchResult> progress) {
+        Collector collector = newCollector();
+
+        for (int total = 2; total <= maxResistors; total++) {
+            if (shouldStop()) {
+                break;
+            }
+            // Все лучшие комбинации точные и содержат меньше резисторов: больше ничего не войдёт
+            if (collector.excludes(total)) {
+                break;
+            }
+            List<WorkItem> items = workItems(total);
+            if (!items.isEmpty()) {
+                collector.merge(pool.invoke(new RangeTask(items, 0, items.size())));
+            }
+            if (progress != null && total < maxResistors && !truncated) {
+                progress.accept(new DividerSearchResult(materialize(collector), false));
+            }
+        }
+
+        return new DividerSearchResult(materialize(collector), truncated);
+    }
+
+    /**
+     * Участки работы для делителей из total резисторов
+     */
+    private List<WorkItem> workItems(int total) {
+        List<WorkItem> items = new ArrayList<>();
+        if (resistors.length == 0) {
+            return items;
+        }
+        int minUpper = Math.max(1, total - MAX_ARM_RESISTORS);
+        int maxUpper = Math.min(MAX_ARM_RESISTORS, total - 1);
+        for (int upper = minUpper; upper <= maxUpper; upper++) {
+            int lower = total - upper;
+            // Меньшее плечо берётся из таблицы, если она помещается в память, а большее
+            // перебирается; иначе меньшее перебирается, а большее строится ветвями и границами
+            int smaller = Math.min(upper, lower);
+            boolean fromList = smaller >= 2 && armList(smaller) != null;
+            boolean enumerateUpper = fromList ? upper >= lower : upper <= lower;
+            int size = enumerateUpper ? upper : lower;
+            for (Shape shape : SHAPES[size]) {
+                for (int first = 0; first < resistors.length; first++) {
+                    items.add(new WorkItem(upper, lower, enumerateUpper, fromList, shape, first));
+                }
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Таблица всех плеч заданного размера, строится при первом обращении
+     * @return таблица или null, если она превышает {@link #ARM_LIST_LIMIT}
+     */
+    private ArmList armList(int size) {
+        if (!armListsBuilt[size]) {
+            armListsBuilt[size] = true;
+            if (resistors.length <= 1 << ARM_LIST_INDEX_BITS) {
+                armLists[size] = new Searcher(null, null).collectArms(size);
+            }
+        }
+        return armLists[size];
+    }
+
+    /**
+     * Проверить признак отмены и запомнить, что перебор остановлен досрочно
+     */
+    private boolean shouldStop() {
+        if (cancelled.getAsBoolean()) {
+            truncated = true;
+            return true;
+        }
+        return false;
+    }
+
+    private List<DividerResult> materialize(Collector collector) {
+        List<Candidate> candidates = collector.sorted();
+        List<DividerResult> results = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            results.add(materialize(candidate));
+        }
+        return results;
+    }
+
+    private DividerResult materialize(Candidate candidate) {
+        Arm upper = SHAPES[candidate.upperSize][candidate.upperShape].toArm(resistors, candidate.upperIndices);
+        Arm lower = SHAPES[candidate.lowerSize][candidate.lowerShape].toArm(resistors, candidate.lowerIndices);
+        double r1 = upper.getResistance();
+        double r2 = lower.getResistance();
+        return new DividerResult(upper, lower, vIn, vIn * r2 / (r1 + r2), vOutRequired);
+    }
+
+    private Collector newCollector() {
+        return new Collector(maxResults, tolerancePercent, sharedBound,
+                mode == DividerSearchMode.PARETO ? sharedFront : null);
+    }
+
+    /**
+     * Участок работы: форма и первый резистор перебираемого плеча; второе
+     * плечо берётся из таблицы (fromList) или строится ветвями и границами
+     */
+    private record WorkItem(int upperSize, int lowerSize, boolean enumerateUpper, boolean fromList,
+                            Shape shape, int first) {
+
+        int innerSize() {
+            return enumerateUpper ? lowerSize : upperSize;
+        }
+    }
+
+    private final class RangeTask extends RecursiveTask<Collector> {
+
+        private final List<WorkItem> items;
+        private final int from;
+        private final int to;
+
+        RangeTask(List<WorkItem> items, int from, int to) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Collector compute() {
+            if (to - from == 1) {
+                Collector collector = newCollector();
+                new Searcher(items.get(from), collector).run();
+                collector.publishFront();
+                return collector;
+            }
+            int mid = (from + to) >>> 1;
+            RangeTask right = new RangeTask(items, mid, to);
+            right.fork();
+            Collector collector = new RangeTask(items, from, mid).compute();
+            collector.merge(right.join());
+            return collector;
+        }
+    }
+
+    /**
+     * Перебор одного участка работы. Держит изменяемое состояние обхода,
+     * поэтому используется одним потоком
+     */
+    private final class Searcher {
+
+        private final WorkItem item;
+        private final Collector collector;
+        private final ArmList innerList;
+        private final Branch outer;
+        private final Branch inner;
+        private boolean stopped;
+
+        /**
+         * @param item участок работы (null — только для построения таблицы плеч)
+         */
+        Searcher(WorkItem item, Collector collector) {
+            this.item = item;
+            this.collector = collector;
+            this.innerList = item != null && item.fromList ? armLists[item.innerSize()] : null;
+            this.outer = new Branch(MAX_ARM_RESISTORS);
+            this.inner = new Branch(MAX_ARM_RESISTORS);
+        }
+
+        void run() {
+            double low = Double.NEGATIVE_INFINITY;
+            double high = Double.POSITIVE_INFINITY;
+            if (innerList != null) {
+                if (innerList.size == 0) {
+                    return;
+                }
+                // Перебираемое плечо ограничено окном, в котором найдётся пара из таблицы
+                double[] window = window(innerList.values[0], !item.enumerateUpper, tolerancePercent);
+                low = window[0];
+                double[] upperWindow = window(innerList.values[innerList.size - 1], !item.enumerateUpper,
+                        tolerancePercent);
+                high = upperWindow[1];
+            }
+            // Электрические ограничения отсекают ветви перебираемого плеча целиком
+            double[] bounds = outerBounds();
+            low = Math.max(low, bounds[0]);
+            high = Math.min(high, bounds[1]);
+            if (low > high) {
+                return;
+            }
+            outer.start(item.shape);
+            outer.search(0, low, high, item.first, this::onOuterArm);
+        }
+
+        /**
+         * Все плечи заданного размера по возрастанию сопротивления
+         * @return таблица или null, если она превышает {@link #ARM_LIST_LIMIT}
+         */
+        ArmList collectArms(int size) {
+            ArmList list = new ArmList(size);
+            for (Shape shape : SHAPES[size]) {
+                inner.start(shape);
+                inner.search(0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, -1, value -> {
+                    if (!list.add(value, inner.shape.id, inner.indices)) {
+                        stopped = true;
+                    }
+                });
+                if (stopped) {
+                    return null;
+                }
+            }
+            list.sort();
+            return list;
+        }
+
+        /**
+         * Перебираемое плечо построено: ищем к нему второе плечо в окне погрешности
+         */
+        private void onOuterArm(double outerValue) {
+            if (shouldStop()) {
+                stopped = true;
+                return;
+            }
+
+            int count = item.upperSize + item.lowerSize;
+            double minPower = mode == DividerSearchMode.PARETO ? paretoMinPower(outerValue, count) : 0;
+            double errorBound = collector.errorBound(count, minPower);
+            if (errorBound < 0) {
+                stopped = true;
+                return;
+            }
+            double[] window = innerWindow(outerValue, errorBound);
+            double low = window[0];
+            double high = window[1];
+
+            if (innerList != null) {
+                for (int k = innerList.firstAtLeast(low); k < innerList.size && !stopped; k++) {
+                    double innerValue = innerList.values[k];
+                    if (innerValue > high) {
+                        break;
+                    }
+                    double error = errorOf(outerValue, innerValue);
+                    if (error <= collector.errorBound(count, minPower)) {
+                        offer(error, outerValue, innerValue, innerList.shape(k), innerList.indices(k));
+                    }
+                }
+                return;
+            }
+
+            for (Shape shape : SHAPES[item.innerSize()]) {
+                inner.start(shape);
+                inner.search(0, low, high, -1, innerValue -> {
+                    double error = errorOf(outerValue, innerValue);
+                    if (error <= collector.errorBound(count, minPower)) {
+                        offer(error, outerValue, innerValue, inner.shape.id, inner.indices());
+                    }
+                });
+            }
+        }
+
+        /**
+         * Наименьшая мощность недоминируемых делителей из count резисторов
+         * с перебираемым плечом outerValue
+         */
+        private double paretoMinPower(double outerValue, int count) {
+            double minPower = minPower(outerValue, tolerancePercent);
+            // Граница погрешности сужает окно второго плеча, а более узкое окно
+            // повышает наименьшую мощность
+            return minPower(outerValue, collector.errorBound(count, minPower));
+        }
+
+        /**
+         * Наименьшая мощность делителей с перебираемым плечом outerValue и
+         * погрешностью не больше errorBound
+         */
+        private double minPower(double outerValue, double errorBound) {
+            double innerHigh = innerWindow(outerValue, errorBound)[1];
+            return vIn * (vIn / (outerValue + innerHigh));
+        }
+
+        /**
+         * Интервал перебираемого плеча, вне которого ни одно второе плечо в
+         * пределах допуска не удовлетворяет ограничениям. При отношении
+         * k = R2/(R1+R2) общее сопротивление равно R1/(1-k) = R2/k, а
+         * выходное R1‖R2 = R1·k = R2·(1-k)
+         */
+        private double[] outerBounds() {
+            double ratioLow = targetRatio * (1 - tolerancePercent / 100);
+            double ratioHigh = Math.min(1, targetRatio * (1 + tolerancePercent / 100));
+            double low = item.enumerateUpper ? minTotal * (1 - ratioHigh) : minTotal * ratioLow;
+            double high = item.enumerateUpper
+                    ? (ratioLow <= 0 ? Double.POSITIVE_INFINITY : maxOutput / ratioLow)
+                    : (ratioHigh >= 1 ? Double.POSITIVE_INFINITY : maxOutput / (1 - ratioHigh));
+            return new double[]{low * (1 - BOUND_EPSILON), high * (1 + BOUND_EPSILON)};
+        }
+
+        /**
+         * Окно второго плеча по погрешности, суженное ограничениями:
+         * R1 + R2 не меньше minTotal, R1‖R2 не больше maxOutput
+         */
+        private double[] innerWindow(double outerValue, double errorBound) {
+            double[] window = window(outerValue, item.enumerateUpper, errorBound);
+            window[0] = Math.max(window[0], (minTotal - outerValue) * (1 - BOUND_EPSILON));
+            if (outerValue > maxOutput) {
+                window[1] = Math.min(window[1], maxOutput * outerValue / (outerValue - maxOutput) * (1 + BOUND_EPSILON));
+            }
+            return window;
+        }
+
+        /**
+         * Окно сопротивления второго плеча, при котором погрешность не превышает errorBound
+         * @param value сопротивление известного плеча
+         * @param upperKnown известно верхнее плечо
+         * @return нижняя и верхняя границы окна
+         */
+        private double[] window(double value, boolean upperKnown, double errorBound) {
+            double ratioLow = targetRatio * (1 - errorBound / 100);
+            double ratioHigh = targetRatio * (1 + errorBound / 100);
+
+            double low;
+            double high;
+            if (upperKnown) {
+                // Vout/Vin = R2/(R1+R2) => R2 = R1*k/(1-k)
+                low = ratioLow <= 0 ? 0 : value * ratioLow / (1 - ratioLow);
+                high = ratioHigh >= 1 ? Double.POSITIVE_INFINITY : value * ratioHigh / (1 - ratioHigh);
+            } else {
+                // R1 = R2*(1-k)/k
+                low = ratioHigh >= 1 ? 0 : value * (1 - ratioHigh) / ratioHigh;
+                high = ratioLow <= 0 ? Double.POSITIVE_INFINITY : value * (1 - ratioLow) / ratioLow;
+            }
+            return new double[]{low * (1 - BOUND_EPSILON), high * (1 + BOUND_EPSILON)};
+        }
+
+        private double errorOf(double outerValue, double innerValue) {
+            double r1 = item.enumerateUpper ? outerValue : innerValue;
+            double r2 = item.enumerateUpper ? innerValue : outerValue;
+            double vOut = vIn * r2 / (r1 + r2);
+            return Math.abs((vOut - vOutRequired) / vOutRequired) * 100;
+        }
+
+        private void offer(double error, double outerValue, double innerValue, int innerShape, int[] innerIndices) {
+            double r1 = item.enumerateUpper ? outerValue : innerValue;
+            double r2 = item.enumerateUpper ? innerValue : outerValue;
+            // Границы окон расширены на погрешность округления, точная проверка — здесь
+            if (!constraints.accepts(vIn, r1, r2)) {
+                return;
+            }
+            double total = outerValue + innerValue;
+            int outerShape = outer.shape.id;
+            int[] outerIndices = outer.indices();
+            if (item.enumerateUpper) {
+                collector.offer(new Candidate(error, item.upperSize + item.lowerSize, vIn * (vIn / total),
+                        item.upperSize, outerShape, outerIndices, item.lowerSize, innerShape, innerIndices));
+            } else {
+                collector.offer(new Candidate(error, item.upperSize + item.lowerSize, vIn * (vIn / total),
+                        item.upperSize, innerShape, innerIndices, item.lowerSize, outerShape, outerIndices));
+            }
+        }
+
+        /**
+         * Обход ветвей и границ для одной формы плеча
+         */
+        private final class Branch {
+
+            private final int[] indices;
+            private final double[] lowValues;
+            private final double[] highValues;
+            private Shape shape;
+
+            Branch(int capacity) {
+                this.indices = new int[capacity];
+                this.lowValues = new double[capacity];
+                this.highValues = new double[capacity];
+            }
+
+            void start(Shape shape) {
+                this.shape = shape;
+            }
+
+            int[] indices() {
+                return Arrays.copyOf(indices, shape.leafCount);
+            }
+
+            /**
+             * Выбрать резистор для позиции leaf и продолжить обход
+             * @param low нижняя граница окна сопротивления плеча
+             * @param high верхняя граница окна сопротивления плеча
+             * @param fixed индекс резистора для позиции 0 или -1
+             */
+            void search(int leaf, double low, double high, int fixed, ArmVisitor visitor) {
+                int from = minIndex(leaf);
+                int to = resistors.length - 1;
+                if (leaf == 0 && fixed >= 0) {
+                    from = Math.max(from, fixed);
+                    to = Math.min(to, fixed);
+                }
+                if (from > to) {
+                    return;
+                }
+
+                // Верхняя граница интервала монотонна по индексу: бинарный поиск первой подходящей ветви
+                int lo = from;
+                int hi = to + 1;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (upperBound(leaf, mid) < low) {
+                        lo = mid + 1;
+                    } else {
+                        hi = mid;
+                    }
+                }
+
+                for (int i = lo; i <= to && !stopped; i++) {
+                    if (lowerBound(leaf, i) > high) {
+                        break;
+                    }
+                    indices[leaf] = i;
+                    if (leaf + 1 < shape.leafCount) {
+                        search(leaf + 1, low, high, fixed, visitor);
+                    } else if (shape.isCanonical(indices)) {
+                        double[] values = fillBounds(lowValues, leaf, true);
+                        if (!shape.isReducible(values, resistors)) {
+                            visitor.accept(shape.evaluate(values));
+                        }
+                    }
+                }
+            }
+
+            /**
+             * Минимальный индекс резистора в позиции: не меньше, чем у
+             * предыдущего резистора того же соединения
+             */
+            private int minIndex(int leaf) {
+                int previous = shape.previousSibling[leaf];
+                return previous < 0 ? 0 : indices[previous];
+            }
+
+            private double upperBound(int leaf, int index) {
+                indices[leaf] = index;
+                return shape.evaluate(fillBounds(highValues, leaf, false));
+            }
+
+            private double lowerBound(int leaf, int index) {
+                indices[leaf] = index;
+                return shape.evaluate(fillBounds(lowValues, leaf, true));
+            }
+
+            /**
+             * Значения резисторов при выбранных позициях 0..leaf; остальные
+             * заменены минимальными или максимальными допустимыми номиналами
+             */
+            private double[] fillBounds(double[] values, int leaf, boolean minimal) {
+                for (int l = 0; l <= leaf; l++) {
+                    values[l] = resistors[indices[l]];
+                }
+                for (int l = leaf + 1; l < shape.leafCount; l++) {
+                    if (!minimal) {
+                        values[l] = resistors[resistors.length - 1];
+                    } else {
+                        int previous = shape.previousSibling[l];
+                        values[l] = previous < 0 ? resistors[0] : values[previous];
+                    }
+                }
+                return values;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ArmVisitor {
+        void accept(double value);
+    }
+
+    /**
+     * Таблица плеч одного размера по возрастанию сопротивления: форма и
+     * индексы резисторов упакованы в long
+     */
+    private static final class ArmList {
+
+        private static final long INDEX_MASK = (1L << ARM_LIST_INDEX_BITS) - 1;
+        private static final int SHAPE_SHIFT = MAX_ARM_RESISTORS * ARM_LIST_INDEX_BITS;
+
+        private final int leafCount;
+        private double[] values = new double[256];
+        private long[] arms = new long[256];
+        private int size;
+
+        ArmList(int leafCount) {
+            this.leafCount = leafCount;
+        }
+
+        /**
+         * @return false, если таблица заполнена
+         */
+        boolean add(double value, int shape, int[] indices) {
+            if (size == ARM_LIST_LIMIT) {
+                return false;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+                arms = Arrays.copyOf(arms, 2 * size);
+            }
+            long arm = (long) shape << SHAPE_SHIFT;
+            for (int i = 0; i < leafCount; i++) {
+                arm |= (long) indices[i] << (i * ARM_LIST_INDEX_BITS);
+            }
+            values[size] = value;
+            arms[size] = arm;
+            size++;
+            return true;
+        }
+
+        void sort() {
+            double[] keys = Arrays.copyOf(values, size);
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            ArmIndex.sortByValue(order, keys);
+
+            long[] packed = new long[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = keys[order[i]];
+                packed[i] = arms[order[i]];
+            }
+            values = Arrays.copyOf(values, size);
+            arms = packed;
+        }
+
+        /**
+         * Индекс первого плеча с сопротивлением не меньше value
+         */
+        int firstAtLeast(double value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int shape(int k) {
+            return (int) (arms[k] >>> SHAPE_SHIFT);
+        }
+
+        int[] indices(int k) {
+            int[] indices = new int[leafCount];
+            for (int i = 0; i < leafCount; i++) {
+                indices[i] = (int) ((arms[k] >>> (i * ARM_LIST_INDEX_BITS)) & INDEX_MASK);
+            }
+            return indices;
+        }
+    }
+
+    /**
+     * Кандидат: характеристики для упорядочивания и описание обоих плеч
+     */
+    private record Candidate(double error, int count, double power,
+                             int upperSize, int upperShape, int[] upperIndices,
+                             int lowerSize, int lowerShape, int[] lowerIndices) {
+    }
+
+    /**
+     * Порядок кандидатов: как у {@link DividerResult#compareTo}, затем по
+     * формам и индексам резисторов
+     */
+    private static final Comparator<Candidate> ORDER = (a, b) -> {
+        int cmp = DividerResult.compare(a.error, a.count, a.power, b.error, b.count, b.power);
+        if (cmp != 0) return cmp;
+        cmp = Integer.compare(a.upperSize, b.upperSize);
+        if (cmp != 0) return cmp;
+        cmp = Integer.compare(a.upperShape, b.upperShape);
+        if (cmp != 0) return cmp;
+        cmp = Arrays.compare(a.upperIndices, b.upperIndices);
+        if (cmp != 0) return cmp;
+        cmp = Integer.compare(a.lowerSize, b.lowerSize);
+        if (cmp != 0) return cmp;
+        cmp = Integer.compare(a.lowerShape, b.lowerShape);
+        if (cmp != 0) return cmp;
+        return Arrays.compare(a.lowerIndices, b.lowerIndices);
+    };
+
+    /**
+     * Ограниченный сборщик лучших кандидатов; граница погрешности общая для
+     * всех подзадач, как в {@link DividerCollector}. В режиме Парето-фронта
+     * кандидаты собираются в {@link ParetoFront}; завершённые подзадачи
+     * публикуют свой фронт в общий, по которому отсекают кандидатов остальные
+     */
+    private static final class Collector {
+
+        private final int capacity;
+        private final double tolerancePercent;
+        private final AtomicLong sharedBound;
+        private final PriorityQueue<Candidate> heap = new PriorityQueue<>(ORDER.reversed());
+        private final ParetoFront<Candidate> front;
+        private final AtomicReference<ParetoFront<Candidate>> sharedFront;
+
+        /**
+         * @param sharedFront общий фронт подзадач (null — отбор лучших кандидатов)
+         */
+        Collector(int capacity, double tolerancePercent, AtomicLong sharedBound,
+                  AtomicReference<ParetoFront<Candidate>> sharedFront) {
+            this.capacity = capacity;
+            this.tolerancePercent = tolerancePercent;
+            this.sharedBound = sharedBound;
+            this.sharedFront = sharedFront;
+            this.front = sharedFront != null ? new ParetoFront<>(tolerancePercent, ORDER) : null;
+        }
+
+        /**
+         * Граница погрешности для кандидатов из count резисторов с мощностью
+         * не меньше minPower; для лучших K от них не зависит
+         */
+        double errorBound(int count, double minPower) {
+            if (front != null) {
+                // Отсекаются только строго доминируемые кандидаты, поэтому фронт
+                // не зависит от того, какие подзадачи успели опубликовать свой
+                return Math.min(front.errorBound(count, minPower), sharedFront.get().errorBound(count, minPower));
+            }
+            if (capacity == 0) {
+                return -1;
+            }
+            double shared = Double.longBitsToDouble(sharedBound.get());
+            if (heap.size() < capacity) {
+                return Math.min(tolerancePercent, shared);
+            }
+            return Math.min(heap.peek().error, shared);
+        }
+
+        void offer(Candidate candidate) {
+            if (front != null) {
+                front.offer(candidate.error, candidate.count, candidate.power, candidate);
+                return;
+            }
+            if (capacity == 0 || candidate.error > tolerancePercent) {
+                return;
+            }
+            if (heap.size() < capacity) {
+                heap.add(candidate);
+            } else if (ORDER.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            } else {
+                return;
+            }
+            if (heap.size() == capacity) {
+                publishBound(heap.peek().error);
+            }
+        }
+
+        /**
+         * Ни одна комбинация из count резисторов не войдёт в результат: все
+         * отобранные кандидаты точные и содержат меньше резисторов
+         */
+        boolean excludes(int count) {
+            if (front != null) {
+                return false;
+            }
+            if (capacity == 0) {
+                return true;
+            }
+            Candidate worst = heap.peek();
+            return heap.size() == capacity && worst.error == 0 && worst.count < count;
+        }
+
+        void merge(Collector other) {
+            if (front != null) {
+                front.merge(other.front);
+                return;
+            }
+            for (Candidate candidate : other.heap) {
+                offer(candidate);
+            }
+        }
+
+        List<Candidate> sorted() {
+            if (front != null) {
+                return front.sorted();
+            }
+            List<Candidate> list = new ArrayList<>(heap);
+            list.sort(ORDER);
+            return list;
+        }
+
+        /**
+         * Добавить кандидатов фронта в общий фронт подзадач
+         */
+        void publishFront() {
+            if (front != null && front.size() > 0) {
+                sharedFront.accumulateAndGet(front, ParetoFront::union);
+            }
+        }
+
+        private void publishBound(double bound) {
+            long current = sharedBound.get();
+            while (bound < Double.longBitsToDouble(current)
+                    && !sharedBound.compareAndSet(current, Double.doubleToLongBits(bound))) {
+                current = sharedBound.get();
+            }
+        }
+    }
+
+    /**
+     * Форма плеча: дерево соединений с пронумерованными позициями резисторов
+     */
+    private static final class Shape {
+
+        private final Arm.Kind kind;
+        private final Shape[] children;
+        private final int leafCount;
+        private final int id;
+        private final int[] previousSibling;        // Предыдущий резистор того же соединения
+        private final int[][] equalSiblings;        // Одинаковые ветви: начало первой, начало второй, длина
+
+        Shape(Arm.Kind kind, Shape[] children, int id) {
+            this.kind = kind;
+            this.children = children;
+            this.id = id;
+
+            int leaves = 0;
+            for (Shape child : children) {
+                leaves += child.leafCount;
+            }
+            this.leafCount = kind == Arm.Kind.RESISTOR ? 1 : leaves;
+
+            this.previousSibling = new int[leafCount];
+            Arrays.fill(previousSibling, -1);
+            List<int[]> pairs = new ArrayList<>();
+            collectSymmetry(0, previousSibling, pairs);
+            this.equalSiblings = pairs.toArray(new int[0][]);
+        }
+
+        private int collectSymmetry(int offset, int[] previous, List<int[]> pairs) {
+            if (kind == Arm.Kind.RESISTOR) {
+                return offset + 1;
+            }
+            int childOffset = offset;
+            for (int c = 0; c < children.length; c++) {
+                Shape child = children[c];
+                if (c > 0 && children[c - 1] == child) {
+                    int previousOffset = childOffset - child.leafCount;
+                    if (child.kind == Arm.Kind.RESISTOR) {
+                        previous[childOffset] = previousOffset;
+                    } else {
+                        pairs.add(new int[]{previousOffset, childOffset, child.leafCount});
+                    }
+                }
+                childOffset = child.collectSymmetry(childOffset, previous, pairs);
+            }
+            return childOffset;
+        }
+
+        /**
+         * Одинаковые ветви соединения должны идти в неубывающем порядке индексов,
+         * иначе та же цепь уже встречалась с переставленными ветвями
+         */
+        boolean isCanonical(int[] indices) {
+            for (int[] pair : equalSiblings) {
+                int cmp = Arrays.compare(indices, pair[0], pair[0] + pair[2], indices, pair[1], pair[1] + pair[2]);
+                if (cmp > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double evaluate(double[] values) {
+            return evaluate(values, 0);
+        }
+
+        /**
+         * Есть ли в цепи соединение, равное одиночному номиналу: такая цепь
+         * повторяет цепь с меньшим количеством резисторов
+         */
+        boolean isReducible(double[] values, double[] resistors) {
+            return isReducible(values, 0, resistors);
+        }
+
+        private boolean isReducible(double[] values, int offset, double[] resistors) {
+            if (kind == Arm.Kind.RESISTOR) {
+                return false;
+            }
+            if (ArmIndex.matchesResistor(resistors, evaluate(values, offset))) {
+                return true;
+            }
+            for (Shape child : children) {
+                if (child.isReducible(values, offset, resistors)) {
+                    return true;
+                }
+                offset += child.leafCount;
+            }
+            return false;
+        }
+
+        /**
+         * Сопротивление поддерева с позициями резисторов начиная с offset;
+         * порядок операций совпадает с {@link Arm#combine}
+         */
+        private double evaluate(double[] values, int offset) {
+            if (kind == Arm.Kind.RESISTOR) {
+                return values[offset];
+            }
+            if (kind == Arm.Kind.PARALLEL && children.length == 2) {
+                double a = children[0].evaluate(values, offset);
+                double b = children[1].evaluate(values, offset + children[0].leafCount);
+                return (a * b) / (a + b);
+            }
+            double sum = 0;
+            for (Shape child : children) {
+                double value = child.evaluate(values, offset);
+                sum += kind == Arm.Kind.PARALLEL ? 1.0 / value : value;
+                offset += child.leafCount;
+            }
+            return kind == Arm.Kind.PARALLEL ? 1.0 / sum : sum;
+        }
+
+        Arm toArm(double[] resistors, int[] indices) {
+            return toArm(resistors, indices, 0);
+        }
+
+        private Arm toArm(double[] resistors, int[] indices, int offset) {
+            if (kind == Arm.Kind.RESISTOR) {
+                return Arm.resistor(resistors[indices[offset]]);
+            }
+            List<Arm> arms = new ArrayList<>(children.length);
+            for (Shape child : children) {
+                arms.add(child.toArm(resistors, indices, offset));
+                offset += child.leafCount;
+            }
+            return kind == Arm.Kind.PARALLEL ? Arm.parallel(arms) : Arm.series(arms);
+        }
+    }
+
+    /**
+     * Построить канонические формы плеч из 1..MAX_ARM_RESISTORS резисторов
+     */
+    private static Shape[][] buildShapes() {
+        Shape[][] shapes = new Shape[MAX_ARM_RESISTORS + 1][];
+        shapes[0] = new Shape[0];
+        shapes[1] = new Shape[]{LEAF};
+        for (int leaves = 2; leaves <= MAX_ARM_RESISTORS; leaves++) {
+            List<Shape> all = new ArrayList<>(rootedShapes(leaves, Arm.Kind.SERIES, 0));
+            all.addAll(rootedShapes(leaves, Arm.Kind.PARALLEL, all.size()));
+            shapes[leaves] = all.toArray(new Shape[0]);
+        }
+        return shapes;
+    }
+
+    /**
+     * Формы с заданным числом резисторов, корень которых не является
+     * соединением типа excluded (вложенные одинаковые соединения сливаются)
+     */
+    private static List<Shape> subShapes(int leaves, Arm.Kind excluded) {
+        if (leaves == 1) {
+            return List.of(LEAF);
+        }
+        Arm.Kind kind = excluded == Arm.Kind.SERIES ? Arm.Kind.PARALLEL : Arm.Kind.SERIES;
+        String key = leaves + ":" + kind;
+        List<Shape> shapes = SUB_SHAPES.get(key);
+        if (shapes == null) {
+            shapes = rootedShapes(leaves, kind, 0);
+            SUB_SHAPES.put(key, shapes);
+        }
+        return shapes;
+    }
+
+    /**
+     * Формы с корнем-соединением kind: разбиения числа резисторов на
+     * неубывающие части, для равных частей — неубывающие номера подформ
+     */
+    private static List<Shape> rootedShapes(int leaves, Arm.Kind kind, int firstId) {
+        List<Shape> result = new ArrayList<>();
+        if (leaves < 2) {
+            return result;
+        }
+        List<List<Shape>> combinations = new ArrayList<>();
+        // Части меньше целого: соединение содержит не меньше двух ветвей
+        partitions(leaves, 1, leaves - 1, kind, new ArrayList<>(), -1, combinations);
+        for (List<Shape> children : combinations) {
+            result.add(new Shape(kind, children.toArray(new Shape[0]), firstId + result.size()));
+        }
+        return result;
+    }
+
+    private static void partitions(int remaining, int minPart, int maxPart, Arm.Kind kind,
+                                   List<Shape> chosen, int lastChoice, List<List<Shape>> out) {
+        if (remaining == 0) {
+            out.add(new ArrayList<>(chosen));
+            return;
+        }
+        for (int part = minPart; part <= Math.min(remaining, maxPart); part++) {
+            List<Shape> options = subShapes(part, kind);
+            int lastSize = chosen.isEmpty() ? 0 : chosen.get(chosen.size() - 1).leafCount;
+            int start = part == lastSize ? lastChoice : 0;
+            for (int option = Math.max(start, 0); option < options.size(); option++) {
+                chosen.add(options.get(option));
+                partitions(remaining - part, part, maxPart, kind, chosen, option, out);
+                chosen.remove(chosen.size() - 1);
+            }
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.electrical.service;
 
-import com.electrical.dao.CalculationHistoryDAO;
+import com.electrical.dao.HistoryWriter;
 import com.electrical.model.CalculationHistory;
 import com.electrical.model.CalculationType;
+import com.electrical.model.User;
 import com.electrical.util.SessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Supplier;
+
 /**
  * Сервис расчётов по закону Ома
  * V = I * R
@@ -16,10 +19,23 @@ import org.slf4j.LoggerFactory;
 public class OhmCalculatorService {
     
     private static final Logger logger = LoggerFactory.getLogger(OhmCalculatorService.class);
-    private final CalculationHistoryDAO historyDAO;
+    private final HistoryWriter historyWriter;
+    private final Supplier<User> historyUser;
     
+    /**
+     * Расчёты сохраняются в историю пользователя текущей сессии
+     */
     public OhmCalculatorService() {
-        this.historyDAO = new CalculationHistoryDAO();
+        this(SessionManager::getCurrentUser);
+    }
+    
+    /**
+     * @param historyUser пользователь, в чью историю сохраняются расчёты
+     *                    (null — расчёты не сохраняются)
+     */
+    public OhmCalculatorService(Supplier<User> historyUser) {
+        this.historyWriter = HistoryWriter.getInstance();
+        this.historyUser = historyUser;
     }
     
     /**
@@ -98,14 +114,15 @@ public class OhmCalculatorService {
     }
     
     private void saveToHistory(String inputParams, String result) {
-        if (SessionManager.isLoggedIn()) {
+        User user = historyUser.get();
+        if (user != null) {
             CalculationHistory history = new CalculationHistory(
-                    SessionManager.getCurrentUser().getId(),
+                    user.getId(),
                     CalculationType.OHM_LAW,
                     inputParams,
                     result
             );
-            historyDAO.save(history);
+            historyWriter.submit(history);
         }
     }
     
@@ -156,6 +173,16 @@ public class OhmCalculatorService {
             String inputParameters,
             String resultString
     ) {
+        /**
+         * Рассчитанная величина: напряжение, ток или сопротивление
+         */
+        public double value() {
+            return switch (calculatedParam) {
+                case "voltage" -> voltage;
+                case "current" -> current;
+                default -> resistance;
+            };
+        }
     }
 }
 
@@ -0,0 +1,187 @@
+package com.electrical.service;
+
+import com.electrical.model.DividerResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Парето-фронт кандидатов поиска делителей по погрешности, количеству
+ * резисторов и рассеиваемой мощности.
+ *
+ * <p>Кандидат A доминирует над B, если он не хуже B по всем трём критериям
+ * и лучше хотя бы по одному. Фронт хранит только недоминируемых кандидатов
+ * и проверяет каждого нового кандидата при переборе: доминируемый
+ * отбрасывается сразу, а принятый удаляет из фронта тех, над кем доминирует.
+ * Из кандидатов, равных по всем критериям, остаётся меньший в порядке
+ * {@code tieOrder}, поэтому фронт не зависит от порядка предложения
+ * кандидатов и от объединения фронтов параллельных подзадач.</p>
+ *
+ * <p>Общее сопротивление делителя отдельным критерием не является: при
+ * заданном входном напряжении мощность равна Vin²/(R1 + R2), и меньшая
+ * мощность всегда означает большее общее сопротивление.</p>
+ *
+ * <p>Кандидаты с одинаковым количеством резисторов образуют «лестницу»:
+ * по возрастанию мощности погрешность строго убывает. Поэтому проверка
+ * доминирования — бинарный поиск в лестнице каждого меньшего или равного
+ * количества, а доминируемые кандидаты лестницы идут подряд.</p>
+ *
+ * @param <T> описание кандидата, по которому поиск восстанавливает комбинацию
+ */
+final class ParetoFront<T> {
+
+    private final double tolerancePercent;
+    private final Comparator<T> tieOrder;
+    private final List<List<Member<T>>> steps = new ArrayList<>();
+    private int size;
+
+    /**
+     * @param tolerancePercent допустимое отклонение в процентах
+     * @param tieOrder порядок кандидатов, равных по всем критериям
+     */
+    ParetoFront(double tolerancePercent, Comparator<T> tieOrder) {
+        this.tolerancePercent = tolerancePercent;
+        this.tieOrder = tieOrder;
+    }
+
+    /**
+     * Граница погрешности для кандидатов из count резисторов с мощностью не
+     * меньше minPower: кандидаты с большей погрешностью доминируемы
+     */
+    double errorBound(int count, double minPower) {
+        double bound = tolerancePercent;
+        for (int c = 0; c <= count && c < steps.size(); c++) {
+            List<Member<T>> step = steps.get(c);
+            int i = lastAtMostPower(step, minPower);
+            if (i >= 0) {
+                bound = Math.min(bound, step.get(i).error);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Предложить кандидата фронту
+     * @return true, если кандидат вошёл во фронт
+     */
+    boolean offer(double error, int count, double power, T item) {
+        if (error > tolerancePercent) {
+            return false;
+        }
+        while (steps.size() <= count) {
+            steps.add(new ArrayList<>());
+        }
+
+        // Доминирующий кандидат с не большим количеством резисторов — последний
+        // в лестнице с мощностью не больше: у него наименьшая погрешность
+        for (int c = 0; c <= count; c++) {
+            List<Member<T>> step = steps.get(c);
+            int i = lastAtMostPower(step, power);
+            if (i < 0) {
+                continue;
+            }
+            Member<T> member = step.get(i);
+            if (member.error <= error) {
+                boolean equal = c == count && member.power == power && member.error == error;
+                if (!equal || tieOrder.compare(member.item, item) <= 0) {
+                    return false;
+                }
+            }
+        }
+
+        // Новый кандидат вытесняет кандидатов с не меньшими количеством,
+        // мощностью и погрешностью; в каждой лестнице они идут подряд
+        for (int c = count; c < steps.size(); c++) {
+            List<Member<T>> step = steps.get(c);
+            int from = lastAtMostPower(step, power);
+            if (from < 0 || step.get(from).power < power) {
+                from++;
+            }
+            int to = from;
+            while (to < step.size() && step.get(to).error >= error) {
+                to++;
+            }
+            if (to > from) {
+                step.subList(from, to).clear();
+                size -= to - from;
+            }
+            if (c == count) {
+                step.add(from, new Member<>(error, power, item));
+                size++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Перенести во фронт кандидатов другого фронта того же поиска
+     */
+    void merge(ParetoFront<T> other) {
+        for (int c = 0; c < other.steps.size(); c++) {
+            for (Member<T> member : other.steps.get(c)) {
+                offer(member.error, c, member.power, member.item);
+            }
+        }
+    }
+
+    /**
+     * Новый фронт из кандидатов этого и другого фронта; оба не изменяются
+     */
+    ParetoFront<T> union(ParetoFront<T> other) {
+        ParetoFront<T> union = new ParetoFront<>(tolerancePercent, tieOrder);
+        union.merge(this);
+        union.merge(other);
+        return union;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Кандидаты фронта в порядке {@link DividerResult#compareTo}
+     */
+    List<T> sorted() {
+        List<Entry<T>> entries = new ArrayList<>(size);
+        for (int c = 0; c < steps.size(); c++) {
+            for (Member<T> member : steps.get(c)) {
+                entries.add(new Entry<>(member, c));
+            }
+        }
+        entries.sort((a, b) -> {
+            int cmp = DividerResult.compare(a.member.error, a.count, a.member.power,
+                    b.member.error, b.count, b.member.power);
+            return cmp != 0 ? cmp : tieOrder.compare(a.member.item, b.member.item);
+        });
+
+        List<T> items = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            items.add(entry.member.item);
+        }
+        return items;
+    }
+
+    /**
+     * Индекс последнего кандидата лестницы с мощностью не больше power или -1
+     */
+    private static <E> int lastAtMostPower(List<Member<E>> step, double power) {
+        int low = 0;
+        int high = step.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (step.get(mid).power <= power) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    private record Member<T>(double error, double power, T item) {
+    }
+
+    private record Entry<T>(Member<T> member, int count) {
+    }
+}
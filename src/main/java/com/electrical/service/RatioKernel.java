@@ -0,0 +1,71 @@
+package com.electrical.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Вычисление погрешностей делителя для отрезка отсортированных
+ * сопротивлений нижнего плеча при фиксированном верхнем плече.
+ *
+ * <p>Для каждого R2 из отрезка вычисляется Vout = Vin * R2 / (R1 + R2) и
+ * погрешность |(Vout - Vout_треб) / Vout_треб| * 100; отбираются индексы,
+ * погрешность которых не превышает границу. Все реализации выполняют одни
+ * и те же операции IEEE 754 в одном порядке, поэтому дают побитово
+ * одинаковые погрешности.</p>
+ *
+ * <p>Векторная реализация на Vector API используется, если модуль
+ * {@code jdk.incubator.vector} доступен (например, {@code --add-modules
+ * jdk.incubator.vector}); иначе — скалярная. Векторную реализацию можно
+ * отключить свойством {@value #DISABLE_VECTOR_PROPERTY}=true.</p>
+ */
+interface RatioKernel {
+
+    /** Системное свойство, отключающее векторную реализацию */
+    String DISABLE_VECTOR_PROPERTY = "electrical.vector.disabled";
+
+    /**
+     * Отобрать сопротивления values[from..to), дающие погрешность не больше bound
+     * @param r1 сопротивление верхнего плеча
+     * @param values сопротивления нижнего плеча по возрастанию
+     * @param selection приёмник отобранных индексов и их погрешностей (очищается)
+     */
+    void select(double r1, double[] values, int from, int to, double bound, RatioSelection selection);
+
+    /**
+     * Ядро для делителя с заданными напряжениями: векторное, если оно доступно
+     */
+    static RatioKernel forDivider(double vIn, double vOutRequired) {
+        return Implementation.VECTOR_AVAILABLE
+                ? new VectorRatioKernel(vIn, vOutRequired)
+                : new ScalarRatioKernel(vIn, vOutRequired);
+    }
+
+    /**
+     * Однократная проверка доступности Vector API
+     */
+    final class Implementation {
+
+        private static final Logger logger = LoggerFactory.getLogger(RatioKernel.class);
+
+        static final boolean VECTOR_AVAILABLE = detectVector();
+
+        private Implementation() {
+        }
+
+        private static boolean detectVector() {
+            if (Boolean.getBoolean(DISABLE_VECTOR_PROPERTY)) {
+                logger.info("Векторное ядро отключено свойством {}", DISABLE_VECTOR_PROPERTY);
+                return false;
+            }
+            try {
+                // Загрузка класса инициализирует вид вектора и проверяет, что модуль доступен
+                new VectorRatioKernel(1, 0.5);
+                logger.info("Используется векторное ядро: {} бит", VectorRatioKernel.vectorBits());
+                return true;
+            } catch (LinkageError e) {
+                logger.info("Модуль jdk.incubator.vector недоступен, используется скалярное ядро");
+                return false;
+            }
+        }
+    }
+}
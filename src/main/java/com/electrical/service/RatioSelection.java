@@ -0,0 +1,36 @@
+package com.electrical.service;
+
+/**
+ * Результат {@link RatioKernel#select}: индексы отобранных сопротивлений и их
+ * погрешности. Буферы переиспользуются между вызовами одной подзадачи
+ */
+final class RatioSelection {
+
+    int[] indices = new int[64];
+    double[] errors = new double[64];
+    int size;
+
+    /**
+     * Очистить выборку и подготовить буферы не меньше чем на capacity элементов
+     */
+    void reset(int capacity) {
+        if (capacity > indices.length) {
+            int length = Math.max(capacity, 2 * indices.length);
+            indices = new int[length];
+            errors = new double[length];
+        }
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int index(int k) {
+        return indices[k];
+    }
+
+    double error(int k) {
+        return errors[k];
+    }
+}
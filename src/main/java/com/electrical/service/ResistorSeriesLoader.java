@@ -0,0 +1,123 @@
+package com.electrical.service;
+
+import com.electrical.model.ResistorSeries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Загрузка пользовательских рядов резисторов из текстовых файлов.
+ *
+ * <p>Каждый файл {@code <имя>.txt} в каталоге задаёт один ряд с этим именем.
+ * Файл содержит базовые значения одной декады (1 ≤ x &lt; 10), разделённые
+ * пробелами, переводами строк, запятыми или точкой с запятой (дробная часть
+ * отделяется точкой); текст после {@code #} до конца строки — комментарий.
+ * Например, ряд из наличия на складе:</p>
+ * <pre>
+ * # Номиналы в наличии
+ * 1.0 2.2 4.7
+ * 6.8
+ * </pre>
+ */
+public final class ResistorSeriesLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResistorSeriesLoader.class);
+
+    /** Системное свойство с каталогом пользовательских рядов */
+    public static final String DIRECTORY_PROPERTY = "electrical.series.dir";
+
+    private static final String FILE_SUFFIX = ".txt";
+
+    private ResistorSeriesLoader() {
+    }
+
+    /**
+     * Каталог пользовательских рядов из свойства {@value #DIRECTORY_PROPERTY},
+     * по умолчанию — {@code series} рядом с базой данных
+     */
+    public static Path defaultDirectory() {
+        String configured = System.getProperty(DIRECTORY_PROPERTY);
+        return Path.of(configured != null ? configured : "series");
+    }
+
+    /**
+     * Загрузить и зарегистрировать все ряды каталога. Некорректные файлы
+     * пропускаются с предупреждением в журнале
+     * @param directory каталог файлов рядов; если его нет, ничего не загружается
+     * @return зарегистрированные ряды
+     */
+    public static List<ResistorSeries> loadAll(Path directory) {
+        List<ResistorSeries> loaded = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return loaded;
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            logger.warn("Не удалось прочитать каталог рядов {}", directory, e);
+            return loaded;
+        }
+        files.sort(null);
+
+        for (Path file : files) {
+            try {
+                ResistorSeries series = load(file);
+                ResistorSeries.register(series);
+                loaded.add(series);
+                logger.info("Загружен ряд {}: {} номиналов в декаде", series, series.getBaseValues().length);
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("Ряд из файла {} не загружен: {}", file, e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Прочитать ряд из файла; имя ряда — имя файла без расширения
+     * @throws IllegalArgumentException если файл содержит некорректные значения
+     */
+    public static ResistorSeries load(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        String name = fileName.endsWith(FILE_SUFFIX)
+                ? fileName.substring(0, fileName.length() - FILE_SUFFIX.length())
+                : fileName;
+        return parse(name, Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разобрать строки файла ряда
+     * @param name имя ряда
+     * @param lines строки файла
+     * @throws IllegalArgumentException если строки содержат некорректные значения
+     */
+    public static ResistorSeries parse(String name, List<String> lines) {
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            for (String token : line.split("[\\s,;]+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                try {
+                    values.add(Double.parseDouble(token));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Строка " + (i + 1) + ": некорректный номинал '" + token + "'");
+                }
+            }
+        }
+        return ResistorSeries.custom(name, values.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+}
@@ -0,0 +1,34 @@
+package com.electrical.service;
+
+/**
+ * Скалярная реализация {@link RatioKernel}: по одному сопротивлению за шаг
+ */
+final class ScalarRatioKernel implements RatioKernel {
+
+    private final double vIn;
+    private final double vOutRequired;
+
+    ScalarRatioKernel(double vIn, double vOutRequired) {
+        this.vIn = vIn;
+        this.vOutRequired = vOutRequired;
+    }
+
+    @Override
+    public void select(double r1, double[] values, int from, int to, double bound, RatioSelection selection) {
+        selection.reset(to - from);
+        int[] indices = selection.indices;
+        double[] errors = selection.errors;
+        int count = 0;
+        for (int j = from; j < to; j++) {
+            double r2 = values[j];
+            double vOut = vIn * r2 / (r1 + r2);
+            double error = Math.abs((vOut - vOutRequired) / vOutRequired) * 100;
+            if (error <= bound) {
+                indices[count] = j;
+                errors[count] = error;
+                count++;
+            }
+        }
+        selection.size = count;
+    }
+}
@@ -0,0 +1,298 @@
+package com.electrical.service;
+
+import com.electrical.model.Arm;
+import com.electrical.model.DividerResult;
+import com.electrical.model.ToleranceAnalysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Анализ допусков найденных делителей: худший случай и Монте-Карло.
+ *
+ * <p>Худший случай перебирает все 2^n сочетаний крайних отклонений n
+ * резисторов делителя. В методе Монте-Карло номинал каждого резистора
+ * равномерно распределён в пределах ±допуска; выборки делятся на участки
+ * фиксированного размера, которые выполняются параллельно в пуле fork/join.
+ * Генератор каждого участка получается расщеплением
+ * ({@link SplittableRandom#split()}) в порядке, зависящем только от
+ * разбиения, поэтому результат при заданном зерне не зависит от числа
+ * потоков.</p>
+ *
+ * <p>Плечи делителя компилируются в стековую программу над массивом
+ * номиналов, а участок выборок работает с заранее выделенными массивами:
+ * во внутреннем цикле нет выделения памяти.</p>
+ */
+public final class ToleranceAnalyzer {
+
+    /**
+     * Выборок на делитель по умолчанию: 100 делителей анализируются за доли секунды
+     */
+    public static final int DEFAULT_SAMPLES = 100_000;
+
+    private static final long DEFAULT_SEED = 0x5DEECE66DL;
+    private static final int HISTOGRAM_BINS = 2048;
+    // Размер участка выборок, выполняемого одной подзадачей
+    private static final int CHUNK = 16_384;
+
+    private final ForkJoinPool pool;
+
+    public ToleranceAnalyzer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ToleranceAnalyzer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Проанализировать делители с {@value #DEFAULT_SAMPLES} выборками на каждый
+     * @param partTolerancePercent допуск номиналов резисторов, ±%
+     * @return анализы в порядке делителей
+     */
+    public List<ToleranceAnalysis> analyze(List<DividerResult> results, double partTolerancePercent) {
+        return analyze(results, partTolerancePercent, DEFAULT_SAMPLES, DEFAULT_SEED);
+    }
+
+    /**
+     * Проанализировать делители
+     * @param partTolerancePercent допуск номиналов резисторов, ±%
+     * @param samples количество выборок Монте-Карло на делитель
+     * @param seed зерно генератора случайных чисел
+     * @return анализы в порядке делителей
+     */
+    public List<ToleranceAnalysis> analyze(List<DividerResult> results, double partTolerancePercent,
+                                           int samples, long seed) {
+        if (!(partTolerancePercent >= 0 && partTolerancePercent < 100)) {
+            throw new IllegalArgumentException("Допуск резисторов должен быть от 0 до 100%");
+        }
+        if (samples < 1) {
+            throw new IllegalArgumentException("Количество выборок должно быть положительным");
+        }
+        double tolerance = partTolerancePercent / 100;
+
+        // Подзадачи всех делителей запускаются вместе, чтобы пул был занят
+        // и при небольшом количестве выборок на делитель
+        List<Circuit> circuits = new ArrayList<>(results.size());
+        List<SampleTask> tasks = new ArrayList<>(results.size());
+        SplittableRandom root = new SplittableRandom(seed);
+        for (DividerResult result : results) {
+            Circuit circuit = new Circuit(result, tolerance);
+            circuits.add(circuit);
+            tasks.add(new SampleTask(circuit, 0, samples, root.split()));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+
+        List<ToleranceAnalysis> analyses = new ArrayList<>(results.size());
+        for (int i = 0; i < circuits.size(); i++) {
+            Circuit circuit = circuits.get(i);
+            Accumulator accumulator = tasks.get(i).join();
+            double mean = accumulator.sum / accumulator.count;
+            double variance = Math.max(0, accumulator.sumSquares / accumulator.count - mean * mean);
+            analyses.add(new ToleranceAnalysis(circuit.result, partTolerancePercent,
+                    circuit.worstCaseMin, circuit.worstCaseMax,
+                    circuit.nominal + mean, Math.sqrt(variance), accumulator.histogram));
+        }
+        return analyses;
+    }
+
+    /**
+     * Анализы, упорядоченные по погрешности в худшем случае
+     */
+    public static List<ToleranceAnalysis> rankByWorstCase(List<ToleranceAnalysis> analyses) {
+        List<ToleranceAnalysis> ranked = new ArrayList<>(analyses);
+        ranked.sort(ToleranceAnalysis.WORST_CASE_ORDER);
+        return ranked;
+    }
+
+    /**
+     * Делитель, скомпилированный для вычисления Vout при отклонённых номиналах
+     */
+    private static final class Circuit {
+
+        private final DividerResult result;
+        private final double vIn;
+        private final double tolerance;
+        private final double[] values;          // Номиналы: сначала верхнего, затем нижнего плеча
+        private final int[] upperProgram;
+        private final int[] lowerProgram;
+        private final int stackSize;
+        private final double nominal;
+        private final double worstCaseMin;
+        private final double worstCaseMax;
+
+        Circuit(DividerResult result, double tolerance) {
+            this.result = result;
+            this.vIn = result.getVIn();
+            this.tolerance = tolerance;
+
+            List<Double> leaves = new ArrayList<>();
+            List<Integer> upper = new ArrayList<>();
+            List<Integer> lower = new ArrayList<>();
+            compile(result.getUpperArm(), leaves, upper);
+            compile(result.getLowerArm(), leaves, lower);
+            this.values = leaves.stream().mapToDouble(Double::doubleValue).toArray();
+            this.upperProgram = upper.stream().mapToInt(Integer::intValue).toArray();
+            this.lowerProgram = lower.stream().mapToInt(Integer::intValue).toArray();
+            this.stackSize = Math.max(upperProgram.length, lowerProgram.length);
+
+            double[] stack = new double[stackSize];
+            this.nominal = vOut(values, stack);
+
+            // Все 2^n сочетаний крайних отклонений
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double[] corner = new double[values.length];
+            for (int mask = 0; mask < 1 << values.length; mask++) {
+                for (int i = 0; i < values.length; i++) {
+                    corner[i] = values[i] * ((mask & (1 << i)) != 0 ? 1 + tolerance : 1 - tolerance);
+                }
+                double vOut = vOut(corner, stack);
+                min = Math.min(min, vOut);
+                max = Math.max(max, vOut);
+            }
+            this.worstCaseMin = min;
+            this.worstCaseMax = max;
+        }
+
+        /**
+         * Программа плеча в обратной польской записи: неотрицательный код —
+         * номинал с этим индексом, отрицательный — соединение последних
+         * значений стека (-1 - 2·count — последовательное, -2 - 2·count — параллельное)
+         */
+        private static void compile(Arm arm, List<Double> leaves, List<Integer> program) {
+            if (arm.isResistor()) {
+                program.add(leaves.size());
+                leaves.add(arm.getValue());
+                return;
+            }
+            for (Arm child : arm.getChildren()) {
+                compile(child, leaves, program);
+            }
+            int count = arm.getChildren().size();
+            program.add(arm.getKind() == Arm.Kind.PARALLEL ? -2 - 2 * count : -1 - 2 * count);
+        }
+
+        double vOut(double[] resistors, double[] stack) {
+            double r1 = evaluate(upperProgram, resistors, stack);
+            double r2 = evaluate(lowerProgram, resistors, stack);
+            return vIn * r2 / (r1 + r2);
+        }
+
+        private static double evaluate(int[] program, double[] resistors, double[] stack) {
+            int top = 0;
+            for (int op : program) {
+                if (op >= 0) {
+                    stack[top++] = resistors[op];
+                    continue;
+                }
+                int code = -1 - op;
+                int count = code >>> 1;
+                double sum = 0;
+                if ((code & 1) == 0) {
+                    for (int i = 0; i < count; i++) {
+                        sum += stack[--top];
+                    }
+                    stack[top++] = sum;
+                } else {
+                    for (int i = 0; i < count; i++) {
+                        sum += 1.0 / stack[--top];
+                    }
+                    stack[top++] = 1.0 / sum;
+                }
+            }
+            return stack[0];
+        }
+    }
+
+    /**
+     * Итог участка выборок. Сумма и сумма квадратов считаются от номинального
+     * Vout, чтобы не терять точность на малых отклонениях
+     */
+    private static final class Accumulator {
+
+        private final int[] histogram = new int[HISTOGRAM_BINS];
+        private long count;
+        private double sum;
+        private double sumSquares;
+
+        void merge(Accumulator other) {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            count += other.count;
+            sum += other.sum;
+            sumSquares += other.sumSquares;
+        }
+    }
+
+    /**
+     * Выборки [from, to) одного делителя
+     */
+    private static final class SampleTask extends RecursiveTask<Accumulator> {
+
+        private final Circuit circuit;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        SampleTask(Circuit circuit, int from, int to, SplittableRandom random) {
+            this.circuit = circuit;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= CHUNK) {
+                return sample();
+            }
+            int mid = (from + to) >>> 1;
+            // Правая половина получает генератор до начала выборок левой
+            SampleTask right = new SampleTask(circuit, mid, to, random.split());
+            right.fork();
+            Accumulator accumulator = new SampleTask(circuit, from, mid, random).compute();
+            accumulator.merge(right.join());
+            return accumulator;
+        }
+
+        private Accumulator sample() {
+            Accumulator accumulator = new Accumulator();
+            double[] nominal = circuit.values;
+            double[] resistors = new double[nominal.length];
+            double[] stack = new double[circuit.stackSize];
+            double tolerance = circuit.tolerance;
+            double min = circuit.worstCaseMin;
+            double range = circuit.worstCaseMax - min;
+            double scale = range > 0 ? HISTOGRAM_BINS / range : 0;
+            double sum = 0;
+            double sumSquares = 0;
+
+            for (int s = from; s < to; s++) {
+                for (int i = 0; i < nominal.length; i++) {
+                    resistors[i] = nominal[i] * (1 + tolerance * (2 * random.nextDouble() - 1));
+                }
+                double vOut = circuit.vOut(resistors, stack);
+                double deviation = vOut - circuit.nominal;
+                sum += deviation;
+                sumSquares += deviation * deviation;
+                int bin = (int) ((vOut - min) * scale);
+                accumulator.histogram[Math.max(0, Math.min(HISTOGRAM_BINS - 1, bin))]++;
+            }
+            accumulator.count = to - from;
+            accumulator.sum = sum;
+            accumulator.sumSquares = sumSquares;
+            return accumulator;
+        }
+    }
+}
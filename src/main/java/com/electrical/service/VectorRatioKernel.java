@@ -0,0 +1,77 @@
+package com.electrical.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Реализация {@link RatioKernel} на Vector API: погрешности и маска допуска
+ * вычисляются сразу для всех дорожек вектора, хвост отрезка — скалярно.
+ *
+ * <p>Класс загружается только после проверки доступности модуля
+ * {@code jdk.incubator.vector} (см. {@link RatioKernel#forDivider}).</p>
+ */
+final class VectorRatioKernel implements RatioKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final double vIn;
+    private final double vOutRequired;
+
+    VectorRatioKernel(double vIn, double vOutRequired) {
+        this.vIn = vIn;
+        this.vOutRequired = vOutRequired;
+    }
+
+    static int vectorBits() {
+        return SPECIES.vectorBitSize();
+    }
+
+    @Override
+    public void select(double r1, double[] values, int from, int to, double bound, RatioSelection selection) {
+        selection.reset(to - from);
+        int[] indices = selection.indices;
+        double[] errors = selection.errors;
+        int count = 0;
+
+        int lanes = SPECIES.length();
+        int j = from;
+        int vectorEnd = from + SPECIES.loopBound(to - from);
+        for (; j < vectorEnd; j += lanes) {
+            // Тот же порядок операций, что и в скалярной реализации
+            DoubleVector r2 = DoubleVector.fromArray(SPECIES, values, j);
+            DoubleVector vOut = r2.mul(vIn).div(r2.add(r1));
+            DoubleVector error = vOut.sub(vOutRequired).div(vOutRequired).abs().mul(100);
+            VectorMask<Double> mask = error.compare(VectorOperators.LE, bound);
+
+            long bits = mask.toLong();
+            if (bits == 0) {
+                continue;
+            }
+            // Погрешности всех дорожек записываются подряд, затем сжимаются по маске;
+            // запись не выходит за to - from, так как count <= j - from
+            int base = count;
+            error.intoArray(errors, base);
+            while (bits != 0) {
+                int lane = Long.numberOfTrailingZeros(bits);
+                indices[count] = j + lane;
+                errors[count] = errors[base + lane];
+                count++;
+                bits &= bits - 1;
+            }
+        }
+
+        for (; j < to; j++) {
+            double r2 = values[j];
+            double vOut = vIn * r2 / (r1 + r2);
+            double error = Math.abs((vOut - vOutRequired) / vOutRequired) * 100;
+            if (error <= bound) {
+                indices[count] = j;
+                errors[count] = error;
+                count++;
+            }
+        }
+        selection.size = count;
+    }
+}
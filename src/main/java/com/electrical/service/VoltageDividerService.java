@@ -1,15 +1,25 @@
 package com.electrical.service;
 
-import com.electrical.dao.CalculationHistoryDAO;
+import com.electrical.dao.HistoryWriter;
 import com.electrical.model.CalculationHistory;
 import com.electrical.model.CalculationType;
+import com.electrical.model.DividerConstraints;
 import com.electrical.model.DividerResult;
+import com.electrical.model.DividerSearchMode;
+import com.electrical.model.DividerSearchResult;
+import com.electrical.model.DividerSpec;
 import com.electrical.model.ResistorSeries;
+import com.electrical.model.ToleranceAnalysis;
+import com.electrical.model.User;
 import com.electrical.util.SessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.*;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 /**
  * Сервис расчёта делителя напряжения
@@ -18,10 +28,39 @@ import java.util.*;
 public class VoltageDividerService {
     
     private static final Logger logger = LoggerFactory.getLogger(VoltageDividerService.class);
-    private final CalculationHistoryDAO historyDAO;
+    
+    /**
+     * Количество резисторов по умолчанию: плечи из 1–2 резисторов,
+     * соединённых последовательно или параллельно
+     */
+    public static final int DEFAULT_MAX_RESISTORS = 4;
+    
+    /**
+     * Наибольшее количество резисторов делителя (плечи до 4 резисторов
+     * смешанного соединения)
+     */
+    public static final int MAX_RESISTORS = NetworkSearchEngine.MAX_TOTAL_RESISTORS;
+    
+    // Кэш запросов общий для всех экземпляров сервиса: контроллер создаёт
+    // сервис заново при каждом открытии окна калькулятора
+    private static final DividerQueryCache SHARED_QUERY_CACHE = new DividerQueryCache();
+    
+    private final HistoryWriter historyWriter;
+    private final ForkJoinPool searchPool;
+    private final DividerQueryCache queryCache;
     
     public VoltageDividerService() {
-        this.historyDAO = new CalculationHistoryDAO();
+        this(ForkJoinPool.commonPool(), SHARED_QUERY_CACHE);
+    }
+    
+    /**
+     * @param searchPool пул fork/join для параллельного перебора комбинаций
+     * @param queryCache кэш результатов поиска
+     */
+    public VoltageDividerService(ForkJoinPool searchPool, DividerQueryCache queryCache) {
+        this.historyWriter = HistoryWriter.getInstance();
+        this.searchPool = searchPool;
+        this.queryCache = queryCache;
     }
     
     /**
@@ -44,180 +83,311 @@ public class VoltageDividerService {
             double maxResistance,
             int maxResults) {
         
-        if (vOutRequired >= vIn) {
-            throw new IllegalArgumentException("Выходное напряжение должно быть меньше входного");
-        }
-        
-        if (vOutRequired <= 0) {
-            throw new IllegalArgumentException("Выходное напряжение должно быть положительным");
-        }
+        return findDividerCombinations(vIn, vOutRequired, tolerancePercent, series,
+                minResistance, maxResistance, maxResults, CancellationToken.create()).getResults();
+    }
+    
+    /**
+     * Подобрать комбинации резисторов с возможностью отмены. Поиск также
+     * останавливается при прерывании вызывающего потока
+     * @param token признак отмены; токен с бюджетом времени ограничивает длительность поиска
+     * @return лучшие найденные комбинации; если поиск остановлен досрочно,
+     *         результат помечен как неполный
+     */
+    public DividerSearchResult findDividerCombinations(
+            double vIn,
+            double vOutRequired,
+            double tolerancePercent,
+            ResistorSeries series,
+            double minResistance,
+            double maxResistance,
+            int maxResults,
+            CancellationToken token) {
         
-        double[] resistors = series.getValuesInRange(minResistance, maxResistance);
-        List<DividerResult> results = new ArrayList<>();
+        return findDividerCombinations(vIn, vOutRequired, tolerancePercent, series,
+                minResistance, maxResistance, maxResults, DEFAULT_MAX_RESISTORS, token);
+    }
+    
+    /**
+     * Подобрать комбинации резисторов с ограничением общего количества
+     * резисторов. При количестве больше {@value #DEFAULT_MAX_RESISTORS}
+     * плечи могут содержать до 4 резисторов в смешанном соединении,
+     * например R1 + (R2 || R3)
+     * @param maxResistors максимальное общее количество резисторов
+     *                     ({@value #DEFAULT_MAX_RESISTORS}..{@value #MAX_RESISTORS})
+     * @param token признак отмены; токен с бюджетом времени ограничивает длительность поиска
+     * @return лучшие найденные комбинации; если поиск остановлен досрочно,
+     *         результат помечен как неполный
+     */
+    public DividerSearchResult findDividerCombinations(
+            double vIn,
+            double vOutRequired,
+            double tolerancePercent,
+            ResistorSeries series,
+            double minResistance,
+            double maxResistance,
+            int maxResults,
+            int maxResistors,
+            CancellationToken token) {
         
-        // Требуемое соотношение: Vout/Vin = R2/(R1+R2)
-        double targetRatio = vOutRequired / vIn;
+        return findDividerCombinations(vIn, vOutRequired, tolerancePercent, series, minResistance,
+                maxResistance, maxResults, maxResistors, DividerSearchMode.BEST, token);
+    }
+    
+    /**
+     * Подобрать комбинации резисторов в заданном режиме отбора. В режиме
+     * {@link DividerSearchMode#PARETO} возвращаются все комбинации, над
+     * которыми не доминирует другая комбинация по погрешности, количеству
+     * резисторов и мощности, а maxResults не учитывается
+     * @param mode режим отбора комбинаций
+     * @param token признак отмены; токен с бюджетом времени ограничивает длительность поиска
+     * @return отобранные комбинации в порядке {@link DividerResult#compareTo};
+     *         если поиск остановлен досрочно, результат помечен как неполный
+     */
+    public DividerSearchResult findDividerCombinations(
+            double vIn,
+            double vOutRequired,
+            double tolerancePercent,
+            ResistorSeries series,
+            double minResistance,
+            double maxResistance,
+            int maxResults,
+            int maxResistors,
+            DividerSearchMode mode,
+            CancellationToken token) {
         
-        logger.info("Поиск делителей: Vin={}, Vout={}, tolerance={}%, ряд={}",
-                vIn, vOutRequired, tolerancePercent, series);
+        return findDividerCombinations(vIn, vOutRequired, tolerancePercent, series, minResistance,
+                maxResistance, maxResults, maxResistors, mode, DividerConstraints.NONE, token);
+    }
+    
+    /**
+     * Подобрать комбинации резисторов с электрическими ограничениями: током,
+     * мощностью, общим и выходным сопротивлением делителя. Ограничения
+     * проверяются при переборе как границы сопротивлений плеч, поэтому все
+     * maxResults результатов им удовлетворяют, а поиск сужается
+     * @param mode режим отбора комбинаций
+     * @param constraints электрические ограничения делителя
+     * @param token признак отмены; токен с бюджетом времени ограничивает длительность поиска
+     * @return отобранные комбинации в порядке {@link DividerResult#compareTo};
+     *         если поиск остановлен досрочно, результат помечен как неполный
+     */
+    public DividerSearchResult findDividerCombinations(
+            double vIn,
+            double vOutRequired,
+            double tolerancePercent,
+            ResistorSeries series,
+            double minResistance,
+            double maxResistance,
+            int maxResults,
+            int maxResistors,
+            DividerSearchMode mode,
+            DividerConstraints constraints,
+            CancellationToken token) {
         
-        // 1. Два резистора (классический делитель)
-        findTwoResistorCombinations(resistors, vIn, vOutRequired, tolerancePercent, targetRatio, results);
+        validate(vIn, vOutRequired, maxResistors);
         
-        // 2. Три резистора
-        findThreeResistorCombinations(resistors, vIn, vOutRequired, tolerancePercent, targetRatio, results);
+        Thread caller = Thread.currentThread();
+        return search(vIn, vOutRequired, tolerancePercent, series, minResistance, maxResistance, maxResults,
+                maxResistors, mode, constraints, () -> token.isCancelled() || caller.isInterrupted(), null,
+                VoltageDividerService::buildArmIndex);
+    }
+    
+    /**
+     * Подобрать комбинации резисторов, публикуя промежуточные результаты.
+     * Подписчик сначала получает лучшие делители из 2 резисторов, затем
+     * улучшенные списки после перебора 3 и 4 резисторов; отмена подписки
+     * останавливает поиск
+     * @param token признак отмены; токен с бюджетом времени ограничивает длительность поиска
+     * @return издатель списков лучших комбинаций (последний список — итоговый)
+     */
+    public DividerResultPublisher streamDividerCombinations(
+            double vIn,
+            double vOutRequired,
+            double tolerancePercent,
+            ResistorSeries series,
+            double minResistance,
+            double maxResistance,
+            int maxResults,
+            CancellationToken token) {
         
-        // 3. Четыре резистора
-        findFourResistorCombinations(resistors, vIn, vOutRequired, tolerancePercent, targetRatio, results);
+        return streamDividerCombinations(vIn, vOutRequired, tolerancePercent, series,
+                minResistance, maxResistance, maxResults, DEFAULT_MAX_RESISTORS, token);
+    }
+    
+    /**
+     * Подобрать комбинации резисторов с ограничением общего количества
+     * резисторов, публикуя промежуточные результаты после перебора делителей
+     * из 2, 3, 4 и т.д. резисторов
+     * @param maxResistors максимальное общее количество резисторов
+     *                     ({@value #DEFAULT_MAX_RESISTORS}..{@value #MAX_RESISTORS})
+     * @param token признак отмены; токен с бюджетом времени ограничивает длительность поиска
+     * @return издатель списков лучших комбинаций (последний список — итоговый)
+     */
+    public DividerResultPublisher streamDividerCombinations(
+            double vIn,
+            double vOutRequired,
+            double tolerancePercent,
+            ResistorSeries series,
+            double minResistance,
+            double maxResistance,
+            int maxResults,
+            int maxResistors,
+            CancellationToken token) {
         
-        // Сортировка и ограничение результатов
-        Collections.sort(results);
+        return streamDividerCombinations(vIn, vOutRequired, tolerancePercent, series, minResistance,
+                maxResistance, maxResults, maxResistors, DividerSearchMode.BEST, token);
+    }
+    
+    /**
+     * Подобрать комбинации резисторов в заданном режиме отбора, публикуя
+     * промежуточные результаты
+     * @param mode режим отбора комбинаций; для Парето-фронта maxResults не учитывается
+     * @param token признак отмены; токен с бюджетом времени ограничивает длительность поиска
+     * @return издатель списков отобранных комбинаций (последний список — итоговый)
+     */
+    public DividerResultPublisher streamDividerCombinations(
+            double vIn,
+            double vOutRequired,
+            double tolerancePercent,
+            ResistorSeries series,
+            double minResistance,
+            double maxResistance,
+            int maxResults,
+            int maxResistors,
+            DividerSearchMode mode,
+            CancellationToken token) {
         
-        if (results.size() > maxResults) {
-            results = new ArrayList<>(results.subList(0, maxResults));
-        }
+        return streamDividerCombinations(vIn, vOutRequired, tolerancePercent, series, minResistance,
+                maxResistance, maxResults, maxResistors, mode, DividerConstraints.NONE, token);
+    }
+    
+    /**
+     * Подобрать комбинации резисторов с электрическими ограничениями,
+     * публикуя промежуточные результаты
+     * @param mode режим отбора комбинаций; для Парето-фронта maxResults не учитывается
+     * @param constraints электрические ограничения делителя
+     * @param token признак отмены; токен с бюджетом времени ограничивает длительность поиска
+     * @return издатель списков отобранных комбинаций (последний список — итоговый)
+     */
+    public DividerResultPublisher streamDividerCombinations(
+            double vIn,
+            double vOutRequired,
+            double tolerancePercent,
+            ResistorSeries series,
+            double minResistance,
+            double maxResistance,
+            int maxResults,
+            int maxResistors,
+            DividerSearchMode mode,
+            DividerConstraints constraints,
+            CancellationToken token) {
         
-        logger.info("Найдено {} комбинаций", results.size());
+        validate(vIn, vOutRequired, maxResistors);
         
-        return results;
+        return new DividerResultPublisher(
+                (cancelled, progress) -> search(vIn, vOutRequired, tolerancePercent, series,
+                        minResistance, maxResistance, maxResults, maxResistors, mode, constraints, cancelled,
+                        progress, VoltageDividerService::buildArmIndex),
+                token, searchPool);
     }
     
-    private void findTwoResistorCombinations(double[] resistors, double vIn, double vOutRequired,
-                                              double tolerancePercent, double targetRatio,
-                                              List<DividerResult> results) {
-        for (double r1 : resistors) {
-            for (double r2 : resistors) {
-                double vOut = calculateVout(vIn, r1, r2);
-                double error = Math.abs((vOut - vOutRequired) / vOutRequired) * 100;
-                
-                if (error <= tolerancePercent) {
-                    results.add(new DividerResult(
-                            List.of(r1), List.of(r2),
-                            false, false,
-                            vIn, vOut, vOutRequired
-                    ));
-                }
-            }
-        }
+    /**
+     * Подобрать комбинации по заданию пакетного расчёта
+     * @param armIndices источник индексов плеч, общий для заданий пакета
+     * @param token признак отмены; токен с бюджетом времени ограничивает длительность поиска
+     */
+    DividerSearchResult solve(DividerSpec spec, BiFunction<ResistorSeries, double[], ArmIndex> armIndices,
+                              CancellationToken token) {
+        validate(spec.vIn(), spec.vOutRequired(), spec.maxResistors());
+        
+        return search(spec.vIn(), spec.vOutRequired(), spec.tolerancePercent(), spec.series(),
+                spec.minResistance(), spec.maxResistance(), spec.maxResults(), spec.maxResistors(),
+                spec.mode(), spec.constraints(), token::isCancelled, null, armIndices);
     }
     
-    private void findThreeResistorCombinations(double[] resistors, double vIn, double vOutRequired,
-                                                double tolerancePercent, double targetRatio,
-                                                List<DividerResult> results) {
-        // Верхнее плечо: два резистора последовательно или параллельно
-        for (double r1a : resistors) {
-            for (double r1b : resistors) {
-                for (double r2 : resistors) {
-                    // Последовательное соединение верхнего плеча
-                    double r1Serial = r1a + r1b;
-                    double vOutSerial = calculateVout(vIn, r1Serial, r2);
-                    double errorSerial = Math.abs((vOutSerial - vOutRequired) / vOutRequired) * 100;
-                    
-                    if (errorSerial <= tolerancePercent) {
-                        results.add(new DividerResult(
-                                List.of(r1a, r1b), List.of(r2),
-                                false, false,
-                                vIn, vOutSerial, vOutRequired
-                        ));
-                    }
-                    
-                    // Параллельное соединение верхнего плеча
-                    double r1Parallel = (r1a * r1b) / (r1a + r1b);
-                    double vOutParallel = calculateVout(vIn, r1Parallel, r2);
-                    double errorParallel = Math.abs((vOutParallel - vOutRequired) / vOutRequired) * 100;
-                    
-                    if (errorParallel <= tolerancePercent) {
-                        results.add(new DividerResult(
-                                List.of(r1a, r1b), List.of(r2),
-                                true, false,
-                                vIn, vOutParallel, vOutRequired
-                        ));
-                    }
-                }
-            }
+    /**
+     * Выполнить поиск или взять результат из кэша запросов
+     * @param mode режим отбора комбинаций
+     * @param constraints электрические ограничения делителя
+     * @param cancelled признак отмены поиска
+     * @param progress получатель промежуточных результатов (может быть null)
+     * @param armIndices источник индексов плеч для классического поиска
+     */
+    private DividerSearchResult search(
+            double vIn,
+            double vOutRequired,
+            double tolerancePercent,
+            ResistorSeries series,
+            double minResistance,
+            double maxResistance,
+            int maxResults,
+            int maxResistors,
+            DividerSearchMode mode,
+            DividerConstraints constraints,
+            BooleanSupplier cancelled,
+            Consumer<DividerSearchResult> progress,
+            BiFunction<ResistorSeries, double[], ArmIndex> armIndices) {
+        
+        DividerSearchResult cached = queryCache.get(vIn, vOutRequired, tolerancePercent, series,
+                minResistance, maxResistance, maxResistors, mode, constraints, maxResults);
+        if (cached != null) {
+            logger.info("Результат поиска делителей взят из кэша: Vin={}, Vout={}, tolerance={}%, ряд={}, режим={}",
+                    vIn, vOutRequired, tolerancePercent, series, mode.name());
+            return cached;
         }
         
-        // Нижнее плечо: два резистора последовательно или параллельно
-        for (double r1 : resistors) {
-            for (double r2a : resistors) {
-                for (double r2b : resistors) {
-                    // Последовательное соединение нижнего плеча
-                    double r2Serial = r2a + r2b;
-                    double vOutSerial = calculateVout(vIn, r1, r2Serial);
-                    double errorSerial = Math.abs((vOutSerial - vOutRequired) / vOutRequired) * 100;
-                    
-                    if (errorSerial <= tolerancePercent) {
-                        results.add(new DividerResult(
-                                List.of(r1), List.of(r2a, r2b),
-                                false, false,
-                                vIn, vOutSerial, vOutRequired
-                        ));
-                    }
-                    
-                    // Параллельное соединение нижнего плеча
-                    double r2Parallel = (r2a * r2b) / (r2a + r2b);
-                    double vOutParallel = calculateVout(vIn, r1, r2Parallel);
-                    double errorParallel = Math.abs((vOutParallel - vOutRequired) / vOutRequired) * 100;
-                    
-                    if (errorParallel <= tolerancePercent) {
-                        results.add(new DividerResult(
-                                List.of(r1), List.of(r2a, r2b),
-                                false, true,
-                                vIn, vOutParallel, vOutRequired
-                        ));
-                    }
-                }
-            }
+        double[] resistors = series.getValuesInRange(minResistance, maxResistance);
+        
+        logger.info("Поиск делителей: Vin={}, Vout={}, tolerance={}%, ряд={}, резисторов до {}, режим={}, ограничения={}",
+                vIn, vOutRequired, tolerancePercent, series, maxResistors, mode.name(), constraints);
+        
+        // Перебор выполняется параллельно; в памяти держатся только лучшие
+        // maxResults комбинаций или текущий Парето-фронт
+        DividerSearchResult result;
+        if (maxResistors == DEFAULT_MAX_RESISTORS) {
+            DividerSearchEngine engine = new DividerSearchEngine(armIndices.apply(series, resistors),
+                    vIn, vOutRequired, tolerancePercent, maxResults, mode, constraints, cancelled);
+            result = engine.search(searchPool, progress);
+        } else {
+            NetworkSearchEngine engine = new NetworkSearchEngine(resistors,
+                    vIn, vOutRequired, tolerancePercent, maxResults, maxResistors, mode, constraints, cancelled);
+            result = engine.search(searchPool, progress);
         }
-    }
-    
-    private void findFourResistorCombinations(double[] resistors, double vIn, double vOutRequired,
-                                               double tolerancePercent, double targetRatio,
-                                               List<DividerResult> results) {
-        // Оба плеча по два резистора
-        // Ограничиваем поиск для оптимизации производительности
-        int step = resistors.length > 50 ? 2 : 1;
         
-        for (int i1 = 0; i1 < resistors.length; i1 += step) {
-            double r1a = resistors[i1];
-            for (int i2 = i1; i2 < resistors.length; i2 += step) {
-                double r1b = resistors[i2];
-                for (int i3 = 0; i3 < resistors.length; i3 += step) {
-                    double r2a = resistors[i3];
-                    for (int i4 = i3; i4 < resistors.length; i4 += step) {
-                        double r2b = resistors[i4];
-                        
-                        // Комбинации: SS, SP, PS, PP (Serial/Parallel для верхнего/нижнего)
-                        checkFourResistorCombination(r1a, r1b, r2a, r2b, false, false, 
-                                vIn, vOutRequired, tolerancePercent, results);
-                        checkFourResistorCombination(r1a, r1b, r2a, r2b, false, true, 
-                                vIn, vOutRequired, tolerancePercent, results);
-                        checkFourResistorCombination(r1a, r1b, r2a, r2b, true, false, 
-                                vIn, vOutRequired, tolerancePercent, results);
-                        checkFourResistorCombination(r1a, r1b, r2a, r2b, true, true, 
-                                vIn, vOutRequired, tolerancePercent, results);
-                    }
-                }
-            }
+        if (result.isTruncated()) {
+            logger.info("Поиск остановлен досрочно, найдено {} комбинаций", result.size());
+        } else {
+            logger.info("Найдено {} комбинаций", result.size());
+            queryCache.put(vIn, vOutRequired, tolerancePercent, series,
+                    minResistance, maxResistance, maxResistors, mode, constraints, maxResults, result);
         }
+        
+        return result;
     }
     
-    private void checkFourResistorCombination(double r1a, double r1b, double r2a, double r2b,
-                                               boolean upperParallel, boolean lowerParallel,
-                                               double vIn, double vOutRequired, double tolerancePercent,
-                                               List<DividerResult> results) {
-        double r1 = upperParallel ? (r1a * r1b) / (r1a + r1b) : r1a + r1b;
-        double r2 = lowerParallel ? (r2a * r2b) / (r2a + r2b) : r2a + r2b;
+    /**
+     * Индекс плеч диапазона для одного запроса (пакет разделяет индексы между заданиями)
+     */
+    private static ArmIndex buildArmIndex(ResistorSeries series, double[] rangeResistors) {
+        return ArmIndex.build(rangeResistors);
+    }
+    
+    ForkJoinPool getSearchPool() {
+        return searchPool;
+    }
+    
+    private void validate(double vIn, double vOutRequired, int maxResistors) {
+        if (vOutRequired >= vIn) {
+            throw new IllegalArgumentException("Выходное напряжение должно быть меньше входного");
+        }
         
-        double vOut = calculateVout(vIn, r1, r2);
-        double error = Math.abs((vOut - vOutRequired) / vOutRequired) * 100;
+        if (vOutRequired <= 0) {
+            throw new IllegalArgumentException("Выходное напряжение должно быть положительным");
+        }
         
-        if (error <= tolerancePercent) {
-            results.add(new DividerResult(
-                    List.of(r1a, r1b), List.of(r2a, r2b),
-                    upperParallel, lowerParallel,
-                    vIn, vOut, vOutRequired
-            ));
+        if (maxResistors < DEFAULT_MAX_RESISTORS || maxResistors > MAX_RESISTORS) {
+            throw new IllegalArgumentException("Количество резисторов должно быть от "
+                    + DEFAULT_MAX_RESISTORS + " до " + MAX_RESISTORS);
         }
     }
     
@@ -233,10 +403,29 @@ public class VoltageDividerService {
     }
     
     /**
-     * Сохранить результат в историю
+     * Анализ допусков найденных делителей в пуле поиска: худший случай и
+     * Монте-Карло с {@value ToleranceAnalyzer#DEFAULT_SAMPLES} выборками на делитель
+     * @param partTolerancePercent допуск номиналов резисторов, ±%
+     * @return анализы в порядке делителей
+     */
+    public List<ToleranceAnalysis> analyzeTolerances(List<DividerResult> results, double partTolerancePercent) {
+        return new ToleranceAnalyzer(searchPool).analyze(results, partTolerancePercent);
+    }
+    
+    /**
+     * Сохранить результат в историю пользователя текущей сессии
      */
     public void saveResultToHistory(DividerResult result) {
-        if (SessionManager.isLoggedIn()) {
+        saveResultToHistory(result, SessionManager.getCurrentUser());
+    }
+    
+    /**
+     * Сохранить результат в историю пользователя. Запись выполняется в фоне
+     * ({@link HistoryWriter}), метод не ждёт базу данных
+     * @param user пользователь (null — результат не сохраняется)
+     */
+    public void saveResultToHistory(DividerResult result, User user) {
+        if (user != null) {
             String inputParams = String.format("Vin=%.2f В, Vout_треб=%.4f В", 
                     result.getVIn(), result.getVOutRequired());
             String resultStr = String.format("Vout=%.4f В (%.3f%%), R_верх=%s, R_низ=%s",
@@ -244,14 +433,14 @@ public class VoltageDividerService {
                     result.getUpperResistorsString(), result.getLowerResistorsString());
             
             CalculationHistory history = new CalculationHistory(
-                    SessionManager.getCurrentUser().getId(),
+                    user.getId(),
                     CalculationType.VOLTAGE_DIVIDER,
                     inputParams,
                     resultStr
             );
-            historyDAO.save(history);
+            historyWriter.submit(history);
             
-            logger.info("Результат делителя сохранён в историю");
+            logger.info("Результат делителя поставлен в очередь записи истории");
         }
     }
 }
@@ -0,0 +1,79 @@
+package com.electrical.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Преобразование текста из поля поиска в запрос полнотекстового индекса SQLite FTS5.
+ *
+ * <p>Индекс разбивает текст на знаки по {@link #TOKENIZER}: точка и запятая
+ * входят в знак, поэтому «4.70» — один знак, а не «4» и «70». Каждое слово
+ * запроса становится фразой с поиском по началу последнего знака, и все слова
+ * должны встретиться в записи. Десятичный разделитель в истории зависит от
+ * локали, поэтому слово с точкой или запятой ищется в обоих вариантах:
+ * «4.7» находит и «4.70 кОм», и «4,70 кОм», но не «14.70 кОм».</p>
+ *
+ * <p>Синтаксис FTS5 в тексте пользователя не действует: кавычки экранируются,
+ * операторы становятся обычными словами.</p>
+ */
+public class FullTextQuery {
+    
+    /** Настройка разбиения на знаки для индекса, с которым работают запросы */
+    public static final String TOKENIZER = "unicode61 remove_diacritics 2 tokenchars '.,'";
+    
+    private FullTextQuery() {
+    }
+    
+    /**
+     * Есть ли в тексте слова для поиска (буквы или цифры)
+     */
+    public static boolean isSearchable(String text) {
+        return text != null && text.codePoints().anyMatch(Character::isLetterOrDigit);
+    }
+    
+    /**
+     * Выражение для MATCH
+     * @throws IllegalArgumentException если в тексте нет слов для поиска
+     */
+    public static String toMatchExpression(String text) {
+        if (!isSearchable(text)) {
+            throw new IllegalArgumentException("Нет слов для поиска: " + text);
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : text.strip().split("\\s+")) {
+            word = trim(word);
+            if (word.isEmpty()) {
+                continue;
+            }
+            Set<String> variants = new LinkedHashSet<>();
+            variants.add(phrase(word));
+            variants.add(phrase(word.replace(',', '.')));
+            variants.add(phrase(word.replace('.', ',')));
+            terms.add(variants.size() == 1
+                    ? variants.iterator().next()
+                    : "(" + String.join(" OR ", variants) + ")");
+        }
+        return String.join(" AND ", terms);
+    }
+    
+    private static String phrase(String word) {
+        return "\"" + word.replace("\"", "\"\"") + "\"*";
+    }
+    
+    /**
+     * Слово без знаков препинания по краям: «кОм,» ищется как «кОм»
+     */
+    private static String trim(String word) {
+        int start = 0;
+        int end = word.length();
+        while (start < end && !Character.isLetterOrDigit(word.charAt(start))) {
+            start++;
+        }
+        while (end > start && !Character.isLetterOrDigit(word.charAt(end - 1))) {
+            end--;
+        }
+        return word.substring(start, end);
+    }
+}
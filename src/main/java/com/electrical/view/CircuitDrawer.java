@@ -1,5 +1,6 @@
 package com.electrical.view;
 
+import com.electrical.model.Arm;
 import com.electrical.model.DividerResult;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
@@ -8,8 +9,6 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.TextAlignment;
 
-import java.util.List;
-
 /**
  * Класс для отрисовки электрических схем делителя напряжения
  */
@@ -67,12 +66,10 @@ public class CircuitDrawer {
         gc.setLineWidth(WIRE_THICKNESS);
         
         // Рисуем верхнее плечо
-        double upperEndY = drawArmResistors(result.getUpperResistors(), result.isUpperParallel(),
-                leftX, vinY + 30, voutY - 30, true, "R1");
+        double upperEndY = drawArmResistors(result.getUpperArm(), leftX, vinY + 30, voutY - 30, "R1");
         
         // Рисуем нижнее плечо
-        double lowerStartY = drawArmResistors(result.getLowerResistors(), result.isLowerParallel(),
-                leftX, voutY + 30, gndY - 30, false, "R2");
+        double lowerStartY = drawArmResistors(result.getLowerArm(), leftX, voutY + 30, gndY - 30, "R2");
         
         // Провод от Vin до верхнего плеча
         gc.strokeLine(leftX, vinY, leftX, vinY + 30);
@@ -109,76 +106,101 @@ public class CircuitDrawer {
      * Отрисовать резисторы плеча
      * @return Y-координата конца последнего резистора
      */
-    private double drawArmResistors(List<Double> resistors, boolean parallel,
-                                     double x, double startY, double endY, 
-                                     boolean isUpper, String label) {
-        if (resistors.isEmpty()) return startY;
-        
+    private double drawArmResistors(Arm arm, double x, double startY, double endY, String label) {
+        int[] counter = {0};
+        drawArm(arm, x, startY, endY, label, arm.getResistorCount() > 1, counter);
+        return endY;
+    }
+    
+    /**
+     * Рекурсивно отрисовать плечо: последовательные ветви располагаются
+     * одна под другой, параллельные — рядом друг с другом
+     * @param numbered добавлять к подписи букву резистора (Ra, Rb, ...)
+     * @param counter счётчик резисторов плеча для подписей
+     */
+    private void drawArm(Arm arm, double x, double startY, double endY,
+                         String label, boolean numbered, int[] counter) {
         double availableHeight = endY - startY;
         
-        if (resistors.size() == 1) {
+        if (arm.isResistor()) {
             // Один резистор
             double resY = startY + availableHeight / 2 - RESISTOR_HEIGHT / 2;
             gc.strokeLine(x, startY, x, resY);
             drawResistor(x, resY, false);
-            drawResistorLabel(x, resY, resistors.get(0), label);
+            String name = numbered ? label + (char) ('a' + counter[0]) : label;
+            counter[0]++;
+            drawResistorLabel(x, resY, arm.getValue(), name);
             gc.strokeLine(x, resY + RESISTOR_HEIGHT, x, endY);
-            return endY;
-            
-        } else if (parallel) {
-            // Параллельное соединение
+        
+        } else if (arm.getKind() == Arm.Kind.PARALLEL) {
+            // Параллельное соединение: ширина ветви пропорциональна числу её столбцов
             double spacing = 50;
-            double totalWidth = (resistors.size() - 1) * spacing;
+            double totalWidth = (armWidth(arm) - 1) * spacing;
             double leftmostX = x - totalWidth / 2;
             
             // Горизонтальные провода сверху и снизу
             double topY = startY + 20;
             double bottomY = endY - 20;
             
-            gc.strokeLine(x, startY, x, topY);
-            gc.strokeLine(leftmostX, topY, leftmostX + totalWidth, topY);
-            gc.strokeLine(leftmostX, bottomY, leftmostX + totalWidth, bottomY);
-            gc.strokeLine(x, bottomY, x, endY);
-            
-            // Резисторы
-            for (int i = 0; i < resistors.size(); i++) {
-                double resX = leftmostX + i * spacing;
-                double resY = (topY + bottomY) / 2 - RESISTOR_HEIGHT / 2;
-                
-                gc.strokeLine(resX, topY, resX, resY);
-                drawResistor(resX, resY, false);
-                drawResistorLabel(resX, resY, resistors.get(i), label + (char)('a' + i));
-                gc.strokeLine(resX, resY + RESISTOR_HEIGHT, resX, bottomY);
+            double columnX = leftmostX;
+            double firstX = 0;
+            double lastX = 0;
+            for (int i = 0; i < arm.getChildren().size(); i++) {
+                Arm child = arm.getChildren().get(i);
+                double childX = columnX + (armWidth(child) - 1) * spacing / 2;
+                if (i == 0) {
+                    firstX = childX;
+                }
+                lastX = childX;
+                drawArm(child, childX, topY, bottomY, label, numbered, counter);
+                columnX += armWidth(child) * spacing;
             }
             
-            return endY;
-            
+            gc.strokeLine(x, startY, x, topY);
+            gc.strokeLine(firstX, topY, lastX, topY);
+            gc.strokeLine(firstX, bottomY, lastX, bottomY);
+            gc.strokeLine(x, bottomY, x, endY);
+        
         } else {
-            // Последовательное соединение
-            double resHeight = RESISTOR_HEIGHT;
-            double gap = 15;
-            double totalResHeight = resistors.size() * resHeight + (resistors.size() - 1) * gap;
-            double resStartY = startY + (availableHeight - totalResHeight) / 2;
-            
-            gc.strokeLine(x, startY, x, resStartY);
-            
-            double currentY = resStartY;
-            for (int i = 0; i < resistors.size(); i++) {
-                drawResistor(x, currentY, false);
-                drawResistorLabel(x, currentY, resistors.get(i), label + (char)('a' + i));
-                currentY += resHeight;
-                
-                if (i < resistors.size() - 1) {
-                    gc.strokeLine(x, currentY, x, currentY + gap);
-                    currentY += gap;
-                }
+            // Последовательное соединение: высота ветви пропорциональна числу её строк
+            double rowHeight = availableHeight / armHeight(arm);
+            double currentY = startY;
+            for (Arm child : arm.getChildren()) {
+                double childHeight = armHeight(child) * rowHeight;
+                drawArm(child, x, currentY, currentY + childHeight, label, numbered, counter);
+                currentY += childHeight;
             }
-            
-            gc.strokeLine(x, currentY, x, endY);
-            return endY;
         }
     }
     
+    /**
+     * Ширина плеча в столбцах резисторов
+     */
+    private static int armWidth(Arm arm) {
+        if (arm.isResistor()) {
+            return 1;
+        }
+        int width = 0;
+        for (Arm child : arm.getChildren()) {
+            width = arm.getKind() == Arm.Kind.PARALLEL ? width + armWidth(child) : Math.max(width, armWidth(child));
+        }
+        return width;
+    }
+    
+    /**
+     * Высота плеча в строках резисторов
+     */
+    private static int armHeight(Arm arm) {
+        if (arm.isResistor()) {
+            return 1;
+        }
+        int height = 0;
+        for (Arm child : arm.getChildren()) {
+            height = arm.getKind() == Arm.Kind.SERIES ? height + armHeight(child) : Math.max(height, armHeight(child));
+        }
+        return height;
+    }
+    
     /**
      * Отрисовать резистор (зигзаг)
      */
@@ -265,13 +287,9 @@ public class CircuitDrawer {
         double infoY = height - 80;
         double lineHeight = 15;
         
-        gc.fillText("Верхнее плечо: " + result.getUpperResistorsString() + 
-                (result.isUpperParallel() && result.getUpperResistors().size() > 1 ? " (параллельно)" : 
-                 result.getUpperResistors().size() > 1 ? " (последовательно)" : ""), 
+        gc.fillText("Верхнее плечо: " + result.getUpperResistorsString() + describeArm(result.getUpperArm()), 
                 infoX, infoY);
-        gc.fillText("Нижнее плечо: " + result.getLowerResistorsString() + 
-                (result.isLowerParallel() && result.getLowerResistors().size() > 1 ? " (параллельно)" : 
-                 result.getLowerResistors().size() > 1 ? " (последовательно)" : ""), 
+        gc.fillText("Нижнее плечо: " + result.getLowerResistorsString() + describeArm(result.getLowerArm()), 
                 infoX, infoY + lineHeight);
         gc.fillText(String.format("R_верх = %s, R_низ = %s", 
                 formatResistance(result.getUpperResistance()),
@@ -281,8 +299,19 @@ public class CircuitDrawer {
                 infoX, infoY + 3 * lineHeight);
     }
     
+    private static String describeArm(Arm arm) {
+        if (arm.isResistor()) {
+            return "";
+        } else if (arm.isMixed()) {
+            return " (смешанно)";
+        }
+        return arm.getKind() == Arm.Kind.PARALLEL ? " (параллельно)" : " (последовательно)";
+    }
+    
     private String formatResistance(double value) {
-        if (value >= 1_000_000) {
+        if (value >= 1_000_000_000) {
+            return String.format("%.2f ГОм", value / 1_000_000_000);
+        } else if (value >= 1_000_000) {
             return String.format("%.2f МОм", value / 1_000_000);
         } else if (value >= 1000) {
             return String.format("%.2f кОм", value / 1000);
@@ -3,15 +3,19 @@ module com.electrical {
     requires javafx.fxml;
     requires javafx.graphics;
     requires java.sql;
+    requires jdk.httpserver;
     requires org.xerial.sqlitejdbc;
     requires jbcrypt;
     requires org.slf4j;
+    // Необязательный модуль: без --add-modules jdk.incubator.vector поиск использует скалярное ядро
+    requires static jdk.incubator.vector;
 
     opens com.electrical to javafx.fxml;
     opens com.electrical.controller to javafx.fxml;
     opens com.electrical.model to javafx.base;
 
     exports com.electrical;
+    exports com.electrical.api;
     exports com.electrical.controller;
     exports com.electrical.model;
     exports com.electrical.service;
@@ -0,0 +1,131 @@
+package com.electrical.util;
+
+import com.electrical.api.ApiServer;
+import com.electrical.model.DividerResult;
+import com.electrical.model.ResistorSeries;
+import com.electrical.service.CancellationToken;
+import com.electrical.service.DividerQueryCache;
+import com.electrical.service.VoltageDividerService;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты HTTP API {@link ApiServer} без базы данных.
+ */
+class ApiServerTest {
+
+    /**
+     * Проверяет расчёт по закону Ома через API.
+     */
+    @Test
+    void ohm_shouldReturnCalculatedValue() throws Exception {
+        try (ApiServer server = start()) {
+            Response response = request(server, "POST", "/api/ohm",
+                    "{\"find\": \"current\", \"voltage\": 5, \"resistance\": 1000}");
+
+            assertEquals(200, response.status());
+            Map<?, ?> json = assertInstanceOf(Map.class, Json.parse(response.body()));
+            assertEquals("current", json.get("parameter"));
+            assertEquals(0.005, (Double) json.get("value"), 1e-12);
+        }
+    }
+
+    /**
+     * Проверяет, что одновременные запросы делителя получают те же
+     * комбинации, что и прямой вызов сервиса.
+     */
+    @Test
+    void divider_shouldMatchServiceUnderConcurrentRequests() throws Exception {
+        VoltageDividerService service = new VoltageDividerService(
+                ForkJoinPool.commonPool(), new DividerQueryCache(16));
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        try (ApiServer server = ApiServer.start(0, service, false)) {
+            List<CompletableFuture<Response>> responses = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String body = "{\"vin\": 5, \"vout\": " + (1.0 + (i % 8) * 0.25) + ", \"tolerance\": 0.5, \"maxResults\": 2}";
+                responses.add(CompletableFuture.supplyAsync(() -> request(server, "POST", "/api/divider", body), clients));
+            }
+
+            for (int i = 0; i < responses.size(); i++) {
+                Response response = responses.get(i).join();
+                assertEquals(200, response.status(), response.body());
+                List<DividerResult> expected = service.findDividerCombinations(5, 1.0 + (i % 8) * 0.25, 0.5,
+                        ResistorSeries.E24, 100, 1_000_000, 2, CancellationToken.create()).getResults();
+
+                Map<?, ?> json = assertInstanceOf(Map.class, Json.parse(response.body()));
+                List<?> results = assertInstanceOf(List.class, json.get("results"));
+                assertEquals(expected.size(), results.size());
+                Map<?, ?> best = assertInstanceOf(Map.class, results.get(0));
+                assertEquals(expected.get(0).getUpperArm().format(v -> String.valueOf(Math.round(v))), best.get("upper"));
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    /**
+     * Проверяет коды ответов на ошибочные запросы и отсутствие входа без истории.
+     */
+    @Test
+    void errors_shouldUseHttpStatusCodes() throws Exception {
+        try (ApiServer server = start()) {
+            assertEquals(400, request(server, "POST", "/api/ohm", "{\"find\": \"current\", \"voltage\": 5}").status());
+            assertEquals(400, request(server, "POST", "/api/divider", "{\"vin\": 5, \"vout\": 6}").status());
+            assertEquals(400, request(server, "POST", "/api/divider",
+                    "{\"vin\": 12, \"vout\": 5, \"maxResults\": 100000000}").status());
+            assertEquals(400, request(server, "POST", "/api/ohm", "не JSON").status());
+            assertEquals(400, request(server, "POST", "/api/ohm", "[".repeat(30_000)).status());
+            assertEquals(404, request(server, "POST", "/api/ohm/extra", "{}").status());
+            assertEquals(404, request(server, "POST", "/api/login", "{\"username\": \"a\", \"password\": \"b\"}").status());
+
+            Response get = request(server, "GET", "/api/ohm", null);
+            assertEquals(405, get.status());
+            assertEquals("POST", get.allow());
+        }
+    }
+
+    private static ApiServer start() throws Exception {
+        return ApiServer.start(0, new VoltageDividerService(
+                ForkJoinPool.commonPool(), new DividerQueryCache(0)), false);
+    }
+
+    private static Response request(ApiServer server, String method, String path, String body) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection)
+                    URI.create("http://127.0.0.1:" + server.getPort() + path).toURL().openConnection();
+            connection.setRequestMethod(method);
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            String text = in != null ? new String(in.readAllBytes(), StandardCharsets.UTF_8) : "";
+            return new Response(status, text, connection.getHeaderField("Allow"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Response(int status, String body, String allow) {
+    }
+}
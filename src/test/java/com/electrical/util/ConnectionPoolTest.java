@@ -0,0 +1,136 @@
+package com.electrical.util;
+
+import com.electrical.dao.ConnectionPool;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты для пула соединений {@link ConnectionPool} на временной базе SQLite.
+ */
+class ConnectionPoolTest {
+
+    /**
+     * Проверяет, что параллельные записи и чтения из большего числа потоков,
+     * чем соединений в пуле, выполняются без потерь.
+     */
+    @Test
+    void concurrentWritesAndReads_shouldNotLoseRows() throws Exception {
+        Path directory = Files.createTempDirectory("pool-test");
+        int threads = 8;
+        int rowsPerThread = 50;
+        try (ConnectionPool pool = new ConnectionPool(url(directory), 3, Duration.ofSeconds(10))) {
+            Connection setup = pool.acquire();
+            try (Statement stmt = setup.createStatement()) {
+                stmt.execute("CREATE TABLE items (id INTEGER PRIMARY KEY AUTOINCREMENT, thread INTEGER)");
+            } finally {
+                pool.release(setup);
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int thread = t;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < rowsPerThread; i++) {
+                            Connection connection = pool.acquire();
+                            try (PreparedStatement stmt = connection.prepareStatement(
+                                    "INSERT INTO items (thread) VALUES (?)")) {
+                                stmt.setInt(1, thread);
+                                stmt.executeUpdate();
+                            } finally {
+                                pool.release(connection);
+                            }
+                            count(pool);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            assertEquals(threads * rowsPerThread, count(pool));
+        }
+    }
+
+    /**
+     * Проверяет, что при занятых соединениях поток ждёт не дольше заданного
+     * времени, а освобождённое соединение выдаётся снова.
+     */
+    @Test
+    void acquire_shouldTimeOutWhenPoolIsExhausted() throws Exception {
+        Path directory = Files.createTempDirectory("pool-test");
+        try (ConnectionPool pool = new ConnectionPool(url(directory), 1, Duration.ofMillis(100))) {
+            Connection connection = pool.acquire();
+            assertThrows(SQLTimeoutException.class, pool::acquire);
+
+            pool.release(connection);
+            Connection again = pool.acquire();
+            assertSame(connection, again, "Свободное соединение используется повторно");
+            pool.release(again);
+        }
+    }
+
+    /**
+     * Проверяет, что незавершённая транзакция откатывается при возврате
+     * соединения, а закрытый пул не выдаёт соединений.
+     */
+    @Test
+    void release_shouldRollBackOpenTransaction() throws Exception {
+        Path directory = Files.createTempDirectory("pool-test");
+        ConnectionPool pool = new ConnectionPool(url(directory), 2, Duration.ofSeconds(1));
+        Connection connection = pool.acquire();
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE items (id INTEGER PRIMARY KEY AUTOINCREMENT, thread INTEGER)");
+        }
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO items (thread) VALUES (1)");
+        }
+        pool.release(connection);
+
+        assertEquals(0, count(pool));
+        Connection reused = pool.acquire();
+        assertTrue(reused.getAutoCommit());
+        pool.release(reused);
+
+        pool.close();
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, pool::acquire);
+    }
+
+    private static int count(ConnectionPool pool) throws SQLException {
+        Connection connection = pool.acquire();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM items")) {
+            rs.next();
+            return rs.getInt(1);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    private static String url(Path directory) {
+        return "jdbc:sqlite:" + directory.resolve("test.db");
+    }
+}
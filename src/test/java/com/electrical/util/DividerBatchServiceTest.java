@@ -0,0 +1,144 @@
+package com.electrical.util;
+
+import com.electrical.model.DividerResult;
+import com.electrical.model.DividerSpec;
+import com.electrical.model.ResistorSeries;
+import com.electrical.service.CancellationToken;
+import com.electrical.service.DividerBatchService;
+import com.electrical.service.DividerBatchWriter;
+import com.electrical.service.DividerQueryCache;
+import com.electrical.service.DividerSpecReader;
+import com.electrical.service.VoltageDividerService;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты пакетного подбора делителей {@link DividerBatchService}
+ * и чтения заданий {@link DividerSpecReader}.
+ */
+class DividerBatchServiceTest {
+
+    /**
+     * Проверяет чтение CSV: порядок столбцов, значения по умолчанию и пропуск комментариев.
+     */
+    @Test
+    void readCsv_shouldApplyDefaults() throws IOException {
+        List<DividerSpec> specs = DividerSpecReader.readCsv(new StringReader("""
+                # Шины питания платы
+                vout,vin,id,series,maxResults
+                3.3,12,core,E96,3
+
+                1.8,5,,,
+                """));
+
+        assertEquals(2, specs.size());
+        assertEquals(new DividerSpec("core", 12, 3.3, DividerSpecReader.DEFAULT_TOLERANCE, ResistorSeries.E96,
+                DividerSpecReader.DEFAULT_MIN_RESISTANCE, DividerSpecReader.DEFAULT_MAX_RESISTANCE, 3,
+                VoltageDividerService.DEFAULT_MAX_RESISTORS), specs.get(0));
+        assertEquals("5", specs.get(1).id(), "Без id задание получает номер строки");
+        assertSame(DividerSpecReader.DEFAULT_SERIES, specs.get(1).series());
+    }
+
+    /**
+     * Проверяет чтение JSON и сообщение об ошибке с номером задания.
+     */
+    @Test
+    void readJson_shouldParseSpecsAndReportInvalidOnes() throws IOException {
+        List<DividerSpec> specs = DividerSpecReader.readJson(new StringReader(
+                "{\"specs\": [{\"id\": 7, \"vin\": 5, \"vout\": 2.5, \"tolerance\": 0.1, \"min\": 1000, \"max\": 10000}]}"));
+
+        assertEquals(1, specs.size());
+        assertEquals("7", specs.get(0).id());
+        assertEquals(0.1, specs.get(0).tolerancePercent());
+        assertEquals(10_000.0, specs.get(0).maxResistance());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> DividerSpecReader.readJson(new StringReader("[{\"vin\": 5, \"vout\": 2.5}, {\"vin\": 5}]")));
+        assertTrue(e.getMessage().startsWith("Задание 2"), e.getMessage());
+    }
+
+    /**
+     * Проверяет, что пакет выдаёт те же результаты, что и отдельные запросы,
+     * в порядке заданий, а ошибочное задание не прерывает пакет.
+     */
+    @Test
+    void solve_shouldMatchSingleQueriesInSpecOrder() throws IOException {
+        VoltageDividerService service = new VoltageDividerService(
+                ForkJoinPool.commonPool(), new DividerQueryCache(0));
+        List<DividerSpec> specs = new ArrayList<>();
+        double[] outputs = {3.3, 1.8, 2.5, 1.2, 0.9, 4.1, 1.0, 3.0};
+        for (int i = 0; i < 40; i++) {
+            ResistorSeries series = i % 2 == 0 ? ResistorSeries.E24 : ResistorSeries.E48;
+            specs.add(new DividerSpec("rail" + i, 5.0, outputs[i % outputs.length] + i * 0.001, 0.5,
+                    series, 1000, 100_000, 3, VoltageDividerService.DEFAULT_MAX_RESISTORS));
+        }
+        specs.add(20, new DividerSpec("bad", 5.0, 6.0, 0.5, ResistorSeries.E24, 1000, 100_000, 3,
+                VoltageDividerService.DEFAULT_MAX_RESISTORS));
+
+        StringWriter out = new StringWriter();
+        DividerBatchService.Summary summary;
+        try (DividerBatchWriter writer = DividerBatchWriter.jsonLines(out)) {
+            summary = new DividerBatchService(service, null).solve(specs, writer);
+        }
+
+        assertEquals(41, summary.specs());
+        assertEquals(1, summary.failed());
+        assertEquals(0, summary.truncated());
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(specs.size(), lines.length, "На каждое задание — одна строка");
+        for (int i = 0; i < specs.size(); i++) {
+            DividerSpec spec = specs.get(i);
+            Map<?, ?> line = assertInstanceOf(Map.class, Json.parse(lines[i]));
+            assertEquals(spec.id(), line.get("id"), "Результаты должны идти в порядке заданий");
+            if (spec.id().equals("bad")) {
+                assertNotNull(line.get("error"));
+                continue;
+            }
+
+            List<DividerResult> expected = service.findDividerCombinations(spec.vIn(), spec.vOutRequired(),
+                    spec.tolerancePercent(), spec.series(), spec.minResistance(), spec.maxResistance(),
+                    spec.maxResults(), CancellationToken.create()).getResults();
+            List<?> actual = assertInstanceOf(List.class, line.get("results"));
+            assertEquals(expected.size(), actual.size(), "Задание " + spec.id());
+            for (int k = 0; k < expected.size(); k++) {
+                Map<?, ?> result = assertInstanceOf(Map.class, actual.get(k));
+                assertEquals(expected.get(k).getUpperArm().format(v -> String.valueOf(Math.round(v))), result.get("upper"));
+                assertEquals(expected.get(k).getLowerArm().format(v -> String.valueOf(Math.round(v))), result.get("lower"));
+            }
+        }
+    }
+
+    /**
+     * Проверяет формат CSV: строка на каждую комбинацию и строка с сообщением без решения.
+     */
+    @Test
+    void csvWriter_shouldWriteRowPerCombination() throws IOException {
+        VoltageDividerService service = new VoltageDividerService(
+                ForkJoinPool.commonPool(), new DividerQueryCache(0));
+        List<DividerSpec> specs = List.of(
+                new DividerSpec("half", 10, 5, 0.1, ResistorSeries.E6, 1000, 10_000, 2, 4),
+                new DividerSpec("none", 10, 5.5, 0.01, ResistorSeries.E6, 1000, 1000.5, 2, 4));
+
+        StringWriter out = new StringWriter();
+        try (DividerBatchWriter writer = DividerBatchWriter.csv(out)) {
+            DividerBatchService.Summary summary = new DividerBatchService(service, null).solve(specs, writer);
+            assertEquals(1, summary.unmatched());
+        }
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(4, lines.length, "Заголовок, две комбинации и строка без решения");
+        assertTrue(lines[0].startsWith("id,vin,vout,rank"));
+        assertTrue(lines[1].startsWith("half,10,5,1,5,0,"), lines[1]);
+        assertTrue(lines[3].startsWith("none,") && lines[3].endsWith(DividerBatchWriter.NO_MATCH_MESSAGE), lines[3]);
+    }
+}
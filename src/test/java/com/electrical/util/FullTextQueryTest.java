@@ -0,0 +1,141 @@
+package com.electrical.util;
+
+import com.electrical.dao.ConnectionPool;
+import com.electrical.dao.DatabaseManager;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты для запроса полнотекстового поиска {@link FullTextQuery}
+ * и индекса FTS5 истории на временной базе SQLite.
+ */
+class FullTextQueryTest {
+
+    /**
+     * Проверяет, что кавычки и операторы FTS5 в тексте пользователя
+     * становятся обычными словами, знаки препинания по краям слов
+     * отбрасываются, а десятичное число ищется с точкой и с запятой.
+     */
+    @Test
+    void toMatchExpression_shouldQuoteEveryWord() {
+        assertEquals("(\"4.7\"* OR \"4,7\"*) AND \"кОм\"*", FullTextQuery.toMatchExpression("  4.7   кОм, "));
+        assertEquals("\"a\"\"b\"* AND \"OR\"* AND \"NEAR(x\"*", FullTextQuery.toMatchExpression("a\"b OR = NEAR(x)"));
+        assertFalse(FullTextQuery.isSearchable(" = ; "));
+        assertFalse(FullTextQuery.isSearchable(null));
+        assertThrows(IllegalArgumentException.class, () -> FullTextQuery.toMatchExpression("="));
+    }
+
+    /**
+     * Проверяет поиск по индексу: десятичная точка и запятая равнозначны,
+     * число ищется по началу знака, а не по части числа, все слова должны
+     * встретиться.
+     */
+    @Test
+    void toMatchExpression_shouldMatchIndexedHistory() throws Exception {
+        Path directory = Files.createTempDirectory("fts-test");
+        try (ConnectionPool pool = new ConnectionPool("jdbc:sqlite:" + directory.resolve("test.db"),
+                1, Duration.ofSeconds(1))) {
+            Connection connection = pool.acquire();
+            try {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("CREATE VIRTUAL TABLE history USING fts5("
+                            + "input_parameters, result, tokenize = \"" + FullTextQuery.TOKENIZER + "\")");
+                    stmt.execute("INSERT INTO history (rowid, input_parameters, result) VALUES "
+                            + "(1, 'Vin=12.00 В, Vout_треб=3.3000 В', 'Vout=3.3000 В (0.000%), R_верх=4.70 кОм, R_низ=1.80 кОм'),"
+                            + "(2, 'Vin=5,00 В, Vout_треб=2,5000 В', 'Vout=2,5000 В (0,000%), R_верх=4,70 кОм, R_низ=4,70 кОм'),"
+                            + "(3, 'U=12 В, R=470 Ом', 'I=25.532 мА'),"
+                            + "(4, 'Vin=12.00 В, Vout_треб=5.0000 В', 'Vout=5.0000 В (0.000%), R_верх=14.70 кОм, R_низ=10.00 кОм')");
+                }
+
+                assertEquals(List.of(1L, 2L), match(connection, "4.7 кОм"));
+                assertEquals(List.of(1L, 2L), match(connection, "4,7 ком"));
+                assertEquals(List.of(3L), match(connection, "470"));
+                assertEquals(List.of(1L, 4L), match(connection, "vin=12"));
+                assertEquals(List.of(), match(connection, "\"4.7\" OR 470"));
+            } finally {
+                pool.release(connection);
+            }
+        }
+    }
+
+    /**
+     * Проверяет индекс из схемы приложения: история, сохранённая до появления
+     * индекса, индексируется при инициализации, а триггеры отражают в индексе
+     * добавление, изменение и удаление записей.
+     */
+    @Test
+    void createSchema_shouldKeepSearchIndexInSyncWithHistory() throws Exception {
+        Path directory = Files.createTempDirectory("fts-schema-test");
+        try (ConnectionPool pool = new ConnectionPool("jdbc:sqlite:" + directory.resolve("test.db"),
+                1, Duration.ofSeconds(1))) {
+            Connection connection = pool.acquire();
+            try {
+                try (Statement stmt = connection.createStatement()) {
+                    // База предыдущей версии: история без полнотекстового индекса
+                    stmt.execute("CREATE TABLE calculation_history (id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                            + " user_id INTEGER NOT NULL, calculation_type TEXT NOT NULL,"
+                            + " input_parameters TEXT NOT NULL, result TEXT NOT NULL,"
+                            + " created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+                    stmt.execute("INSERT INTO calculation_history (user_id, calculation_type, input_parameters, result)"
+                            + " VALUES (1, 'OHM_LAW', 'U=12 В, R=470 Ом', 'I=25.532 мА')");
+                }
+
+                DatabaseManager.createSchema(connection);
+                assertEquals(List.of(1L), matchHistory(connection, "470"), "Существующая история проиндексирована");
+
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("INSERT INTO calculation_history (user_id, calculation_type, input_parameters, result)"
+                            + " VALUES (1, 'VOLTAGE_DIVIDER', 'Vin=12.00 В', 'R_верх=4,70 кОм')");
+                    assertEquals(List.of(2L), matchHistory(connection, "4.7 кОм"), "Новая запись найдена");
+
+                    stmt.execute("UPDATE calculation_history SET result = 'R_верх=10,0 кОм' WHERE id = 2");
+                    assertEquals(List.of(), matchHistory(connection, "4.7"), "Старый текст убран из индекса");
+                    assertEquals(List.of(2L), matchHistory(connection, "10 кОм"));
+
+                    stmt.execute("DELETE FROM calculation_history WHERE id = 1");
+                    assertEquals(List.of(), matchHistory(connection, "470"), "Удалённая запись не найдена");
+                }
+
+                // Повторная инициализация не перестраивает и не дублирует индекс
+                DatabaseManager.createSchema(connection);
+                assertEquals(List.of(2L), matchHistory(connection, "кОм"));
+            } finally {
+                pool.release(connection);
+            }
+        }
+    }
+
+    private static List<Long> match(Connection connection, String text) throws SQLException {
+        return match(connection, "SELECT rowid FROM history WHERE history MATCH ? ORDER BY rowid", text);
+    }
+
+    private static List<Long> matchHistory(Connection connection, String text) throws SQLException {
+        return match(connection, "SELECT rowid FROM calculation_history_fts"
+                + " WHERE calculation_history_fts MATCH ? ORDER BY rowid", text);
+    }
+
+    private static List<Long> match(Connection connection, String sql, String text) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, FullTextQuery.toMatchExpression(text));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,120 @@
+package com.electrical.util;
+
+import com.electrical.dao.CalculationHistoryDAO;
+import com.electrical.model.CalculationHistory;
+import com.electrical.model.CalculationType;
+import com.electrical.model.HistoryPage;
+import com.electrical.model.HistoryQuery;
+import com.electrical.model.HistorySort;
+import com.electrical.service.HistoryPager;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты для постраничной выборки истории {@link HistoryPager}.
+ *
+ * <p>Страницы читаются из списка в памяти, упорядоченного по идентификатору
+ * по убыванию, вместо базы данных.</p>
+ */
+class HistoryPagerTest {
+
+    private static final HistoryQuery QUERY = new HistoryQuery(1L, null, null, HistorySort.ID, false);
+
+    /**
+     * Проверяет, что последовательный просмотр читает каждую страницу один раз
+     * по ключу, без поиска положения со смещением.
+     */
+    @Test
+    void get_sequentialScanShouldReadEachPageOnceByKey() {
+        PagingDAO dao = new PagingDAO(1050);
+        HistoryPager pager = new HistoryPager(dao, QUERY, 100, 2);
+
+        assertEquals(1050, pager.size());
+        for (int i = 0; i < pager.size(); i++) {
+            assertEquals(1050L - i, (long) pager.get(i).getId());
+        }
+        assertEquals(11, dao.pageReads);
+        assertEquals(0, dao.cursorReads);
+        assertThrows(IndexOutOfBoundsException.class, () -> pager.get(1050));
+    }
+
+    /**
+     * Проверяет, что переход к далёкой странице находит её начало одним
+     * запросом, а возврат к вытесненной странице использует запомненное начало.
+     */
+    @Test
+    void get_jumpShouldFindPageStartOnce() {
+        PagingDAO dao = new PagingDAO(1000);
+        HistoryPager pager = new HistoryPager(dao, QUERY, 100, 2);
+
+        assertEquals(300L, (long) pager.get(700).getId());
+        assertEquals(1, dao.cursorReads);
+        assertEquals(200L, (long) pager.get(800).getId());
+        assertEquals(1000L, (long) pager.get(0).getId());
+        assertEquals(3, dao.pageReads);
+
+        assertEquals(299L, (long) pager.get(701).getId(), "Страница 7 вытеснена и читается снова");
+        assertEquals(4, dao.pageReads);
+        assertEquals(1, dao.cursorReads, "Начало вытесненной страницы уже известно");
+    }
+
+    /**
+     * Проверяет пустую выборку.
+     */
+    @Test
+    void empty_shouldHaveNoRows() {
+        HistoryPager pager = HistoryPager.empty(QUERY);
+        assertEquals(0, pager.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> pager.get(0));
+    }
+
+    /**
+     * История из записей с идентификаторами count..1 по убыванию
+     */
+    private static class PagingDAO extends CalculationHistoryDAO {
+
+        private final List<CalculationHistory> rows = new ArrayList<>();
+        private int pageReads;
+        private int cursorReads;
+
+        PagingDAO(int count) {
+            for (long id = count; id >= 1; id--) {
+                CalculationHistory history = new CalculationHistory(1L, CalculationType.OHM_LAW, "I=" + id, "R=" + id);
+                history.setId(id);
+                rows.add(history);
+            }
+        }
+
+        @Override
+        public HistoryPage findPage(HistoryQuery query, HistoryPage.Cursor after, int limit) {
+            pageReads++;
+            int from = 0;
+            while (after != null && from < rows.size() && rows.get(from).getId() >= after.id()) {
+                from++;
+            }
+            int to = Math.min(from + limit, rows.size());
+            CalculationHistory end = rows.get(to - 1);
+            return new HistoryPage(rows.subList(from, to),
+                    to < rows.size() ? new HistoryPage.Cursor(end.getId(), end.getId()) : null);
+        }
+
+        @Override
+        public HistoryPage.Cursor findCursor(HistoryQuery query, long offset) {
+            cursorReads++;
+            if (offset >= rows.size()) {
+                return null;
+            }
+            long id = rows.get((int) offset).getId();
+            return new HistoryPage.Cursor(id, id);
+        }
+
+        @Override
+        public long count(HistoryQuery query) {
+            return rows.size();
+        }
+    }
+}
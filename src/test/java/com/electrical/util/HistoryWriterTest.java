@@ -0,0 +1,127 @@
+package com.electrical.util;
+
+import com.electrical.dao.CalculationHistoryDAO;
+import com.electrical.dao.HistoryWriter;
+import com.electrical.model.CalculationHistory;
+import com.electrical.model.CalculationType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты для отложенной записи истории {@link HistoryWriter}.
+ *
+ * <p>Пакеты сохраняются в памяти вместо базы данных.</p>
+ */
+class HistoryWriterTest {
+
+    /**
+     * Проверяет, что записи, поставленные во время записи пакета, сохраняются
+     * следующим пакетом, а flush() дожидается всех записей.
+     */
+    @Test
+    void submit_shouldGroupQueuedRecordsIntoBatches() throws Exception {
+        RecordingDAO dao = new RecordingDAO();
+        try (HistoryWriter writer = new HistoryWriter(dao, 100, 20)) {
+            writer.submit(history(0));
+            assertTrue(dao.started.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i <= 50; i++) {
+                writer.submit(history(i));
+            }
+            dao.proceed.countDown();
+            writer.flush();
+
+            assertEquals(51, dao.saved().size());
+            assertEquals(List.of(1, 20, 20, 10), dao.batchSizes());
+            for (int i = 0; i <= 50; i++) {
+                assertEquals("R=" + i, dao.saved().get(i).getResult(), "Порядок записей сохраняется");
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что заполненная очередь задерживает вызывающий поток, а
+     * close() дописывает очередь и отбрасывает записи после закрытия.
+     */
+    @Test
+    void submit_shouldWaitWhenQueueIsFull() throws Exception {
+        RecordingDAO dao = new RecordingDAO();
+        HistoryWriter writer = new HistoryWriter(dao, 2, 10);
+        writer.submit(history(0));
+        assertTrue(dao.started.await(5, TimeUnit.SECONDS));
+        writer.submit(history(1));
+        writer.submit(history(2));
+
+        Thread producer = new Thread(() -> writer.submit(history(3)));
+        producer.start();
+        producer.join(300);
+        assertTrue(producer.isAlive(), "Очередь заполнена — поток ждёт");
+
+        dao.proceed.countDown();
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+        writer.close();
+
+        assertEquals(4, dao.saved().size());
+        writer.submit(history(4));
+        writer.flush();
+        assertEquals(4, dao.saved().size(), "После закрытия запись отбрасывается");
+    }
+
+    /**
+     * Проверяет, что запись, закрытая до первой записи, не обращается к DAO
+     * и отбрасывает поздние записи, а flush() не ждёт их.
+     */
+    @Test
+    void submit_afterCloseShouldNotReachDao() {
+        RecordingDAO dao = new RecordingDAO();
+        dao.proceed.countDown();
+        HistoryWriter writer = new HistoryWriter(dao, 10, 10);
+        writer.close();
+
+        writer.submit(history(0));
+        writer.flush();
+        assertEquals(0, dao.saved().size());
+        assertEquals(1, dao.started.getCount(), "DAO не вызывался");
+    }
+
+    private static CalculationHistory history(int i) {
+        return new CalculationHistory(1L, CalculationType.OHM_LAW, "I=" + i, "R=" + i);
+    }
+
+    /**
+     * DAO, который запоминает пакеты; первый пакет ждёт разрешения теста
+     */
+    private static final class RecordingDAO extends CalculationHistoryDAO {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        private final List<List<CalculationHistory>> batches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public int saveAll(List<CalculationHistory> histories) {
+            started.countDown();
+            try {
+                proceed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(new ArrayList<>(histories));
+            return histories.size();
+        }
+
+        List<Integer> batchSizes() {
+            return batches.stream().map(List::size).toList();
+        }
+
+        List<CalculationHistory> saved() {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+    }
+}
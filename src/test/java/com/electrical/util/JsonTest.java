@@ -0,0 +1,81 @@
+package com.electrical.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты для {@link Json}.
+ */
+class JsonTest {
+
+    /**
+     * Проверяет разбор вложенных объектов и массивов всех типов значений.
+     */
+    @Test
+    void parse_shouldReadNestedDocument() {
+        Object document = Json.parse(" {\"id\": \"rail \\\"A\\\"\", \"vin\": 12, \"vout\": -3.3e0,"
+                + " \"ok\": true, \"note\": null, \"tags\": [1, [], {}], \"ru\": \"\\u0412\"} ");
+
+        Map<?, ?> map = assertInstanceOf(Map.class, document);
+        assertEquals("rail \"A\"", map.get("id"));
+        assertEquals(12.0, map.get("vin"));
+        assertEquals(-3.3, map.get("vout"));
+        assertEquals(Boolean.TRUE, map.get("ok"));
+        assertTrue(map.containsKey("note"));
+        assertNull(map.get("note"));
+        assertEquals(List.of(1.0, List.of(), Map.of()), map.get("tags"));
+        assertEquals("В", map.get("ru"));
+    }
+
+    /**
+     * Проверяет, что записанный документ разбирается в исходные значения.
+     */
+    @Test
+    void stringify_shouldRoundTrip() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", "a,b\n\"c\"");
+        map.put("count", 3);
+        map.put("ratio", 0.275);
+        map.put("whole", 5.0);
+        map.put("items", List.of(true, "x"));
+        map.put("none", null);
+
+        String text = Json.stringify(map);
+
+        assertEquals("{\"id\":\"a,b\\n\\\"c\\\"\",\"count\":3,\"ratio\":0.275,\"whole\":5,"
+                + "\"items\":[true,\"x\"],\"none\":null}", text);
+        Map<?, ?> parsed = assertInstanceOf(Map.class, Json.parse(text));
+        assertEquals(map.get("id"), parsed.get("id"));
+        assertEquals(0.275, parsed.get("ratio"));
+    }
+
+    /**
+     * Проверяет, что некорректные документы отклоняются.
+     */
+    @Test
+    void parse_shouldRejectMalformedDocuments() {
+        for (String text : new String[]{"", "{", "[1,]", "{\"a\" 1}", "[1] 2", "tru", "\"abc", "{1: 2}"}) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(text), "Документ: " + text);
+        }
+        assertThrows(IllegalArgumentException.class, () -> Json.stringify(Double.NaN));
+    }
+
+    /**
+     * Проверяет, что глубоко вложенный документ отклоняется как некорректный,
+     * а не переполняет стек, и что допустимая вложенность разбирается.
+     */
+    @Test
+    void parse_shouldRejectDeepNesting() {
+        String deep = "[".repeat(30_000) + "]".repeat(30_000);
+        assertThrows(IllegalArgumentException.class, () -> Json.parse(deep));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\":" + deep + "}"));
+
+        String allowed = "[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH);
+        assertInstanceOf(List.class, Json.parse(allowed));
+    }
+}
@@ -1,15 +1,20 @@
 package com.electrical.util;
 
 import com.electrical.model.ResistorSeries;
+import com.electrical.service.ResistorSeriesLoader;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Модульные тесты для перечисления {@link ResistorSeries}.
+ * Модульные тесты для рядов резисторов {@link ResistorSeries}.
  *
  * <p>Проверяется корректность данных рядов стандартных номиналов
- * резисторов (E6, E12, E24, E96).</p>
+ * резисторов (E6, E12, E24, E48, E96, E192), выборка номиналов в диапазоне
+ * и загрузка пользовательских рядов.</p>
  */
 class ResistorSeriesTest {
 
@@ -53,4 +58,145 @@ class ResistorSeriesTest {
             }
         }
     }
+
+    /**
+     * Проверяет состав рядов E48 и E192: каждый ряд — каждое второе значение
+     * следующего, более точного ряда.
+     */
+    @Test
+    void precisionSeries_shouldNestIntoEachOther() {
+        assertEquals(48, ResistorSeries.E48.getBaseValues().length);
+        assertEquals(192, ResistorSeries.E192.getBaseValues().length);
+
+        assertArrayEquals(everyOther(ResistorSeries.E96.getBaseValues()), ResistorSeries.E48.getBaseValues(),
+                "E48 должен состоять из каждого второго значения E96");
+        assertArrayEquals(everyOther(ResistorSeries.E192.getBaseValues()), ResistorSeries.E96.getBaseValues(),
+                "E96 должен состоять из каждого второго значения E192");
+    }
+
+    /**
+     * Проверяет, что выборка диапазона совпадает с прямым перебором декад,
+     * включая границы диапазона и расширенные декады.
+     */
+    @Test
+    void valuesInRange_shouldMatchDecadeEnumeration() {
+        double[][] ranges = {
+                {100, 1_000_000}, {1000, 10_000}, {4.7, 4.7}, {0.1, 1}, {1e8, 1e10},
+                {Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY}, {5000, 5001}, {10, 1}
+        };
+        for (ResistorSeries series : ResistorSeries.values()) {
+            for (double[] range : ranges) {
+                assertArrayEquals(enumerate(series, range[0], range[1]),
+                        series.getValuesInRange(range[0], range[1]),
+                        "Ряд " + series + ", диапазон " + Arrays.toString(range));
+            }
+        }
+    }
+
+    /**
+     * Проверяет расширенный диапазон декад: от 0,1 Ом до гигаом.
+     */
+    @Test
+    void valuesInRange_shouldCoverExtendedDecades() {
+        double[] all = ResistorSeries.E192.getValuesInRange(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+        assertEquals(192 * (ResistorSeries.MAX_DECADE - ResistorSeries.MIN_DECADE + 1), all.length);
+        assertEquals(0.1, all[0], 1e-12);
+        assertEquals(9.88e9, all[all.length - 1], 1);
+        for (int i = 1; i < all.length; i++) {
+            assertTrue(all[i] > all[i - 1], "Номиналы должны строго возрастать");
+        }
+
+        double[] subOhm = ResistorSeries.E6.getValuesInRange(0.4, 0.5);
+        assertEquals(1, subOhm.length);
+        assertEquals(0.47, subOhm[0], 1e-12);
+    }
+
+    /**
+     * Проверяет разбор файла пользовательского ряда: комментарии,
+     * разделители и произвольный порядок значений.
+     */
+    @Test
+    void userSeries_shouldBeParsedFromFileLines() {
+        ResistorSeries series = ResistorSeriesLoader.parse("Stock", List.of(
+                "# Номиналы в наличии",
+                "4.7; 1.0, 2.2",
+                "",
+                "6.8   # последний"));
+
+        assertEquals("Stock", series.getName());
+        assertArrayEquals(new double[]{1.0, 2.2, 4.7, 6.8}, series.getBaseValues());
+        assertArrayEquals(new double[]{1000, 2200, 4700, 6800}, series.getValuesInRange(1000, 9999));
+        assertFalse(series.isStandard());
+    }
+
+    /**
+     * Проверяет, что некорректные пользовательские ряды отклоняются.
+     */
+    @Test
+    void userSeries_shouldRejectInvalidValues() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ResistorSeriesLoader.parse("Bad", List.of("1.0 abc")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ResistorSeriesLoader.parse("Bad", List.of("1.0 47")),
+                "Значения вне декады 1–10 недопустимы");
+        assertThrows(IllegalArgumentException.class,
+                () -> ResistorSeriesLoader.parse("Bad", List.of("2.2 2.2")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ResistorSeriesLoader.parse("Bad", List.of("# пусто")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ResistorSeriesLoader.parse("../bad", List.of("1.0")));
+    }
+
+    /**
+     * Проверяет регистрацию пользовательского ряда и поиск по имени.
+     */
+    @Test
+    void userSeries_shouldBeRegisteredByName() {
+        ResistorSeries series = ResistorSeries.custom("TestRegistered", new double[]{3.3, 1.0});
+        ResistorSeries.register(series);
+
+        assertSame(series, ResistorSeries.valueOf("TestRegistered"));
+        assertTrue(Arrays.asList(ResistorSeries.values()).contains(series));
+        assertThrows(IllegalArgumentException.class,
+                () -> ResistorSeries.register(ResistorSeries.custom("E24", new double[]{1.0})),
+                "Имя стандартного ряда занято");
+        assertThrows(IllegalArgumentException.class, () -> ResistorSeries.valueOf("E7"));
+
+        double[] tooMany = new double[ResistorSeries.MAX_BASE_VALUES + 1];
+        for (int i = 0; i < tooMany.length; i++) {
+            tooMany[i] = 1.0 + 9.0 * i / tooMany.length;
+        }
+        assertThrows(IllegalArgumentException.class, () -> ResistorSeries.custom("TestTooMany", tooMany),
+                "Количество номиналов в декаде ограничено");
+    }
+
+    @Test
+    void tolerancePercent_shouldFollowSeriesDensity() {
+        assertEquals(20.0, ResistorSeries.E6.getTolerancePercent());
+        assertEquals(5.0, ResistorSeries.E24.getTolerancePercent());
+        assertEquals(1.0, ResistorSeries.E96.getTolerancePercent());
+        assertEquals(0.5, ResistorSeries.E192.getTolerancePercent());
+
+        // Пользовательский ряд из 24 значений в декаде близок к E24
+        ResistorSeries custom = ResistorSeries.custom("TestTolerance", ResistorSeries.E24.getBaseValues());
+        assertEquals(5.0, custom.getTolerancePercent(), 0.5);
+    }
+
+    private static double[] everyOther(double[] values) {
+        double[] result = new double[values.length / 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values[2 * i];
+        }
+        return result;
+    }
+
+    private static double[] enumerate(ResistorSeries series, double minValue, double maxValue) {
+        return java.util.stream.IntStream.rangeClosed(ResistorSeries.MIN_DECADE, ResistorSeries.MAX_DECADE)
+                .boxed()
+                .flatMapToDouble(decade -> Arrays.stream(series.getBaseValues())
+                        .map(base -> decade >= 0 ? base * Math.pow(10, decade) : base / Math.pow(10, -decade)))
+                .filter(value -> value >= minValue && value <= maxValue)
+                .toArray();
+    }
 }
@@ -0,0 +1,144 @@
+package com.electrical.util;
+
+import com.electrical.model.Arm;
+import com.electrical.model.DividerResult;
+import com.electrical.model.ResistorSeries;
+import com.electrical.model.ToleranceAnalysis;
+import com.electrical.service.DividerQueryCache;
+import com.electrical.service.ToleranceAnalyzer;
+import com.electrical.service.VoltageDividerService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты для анализа допусков {@link ToleranceAnalyzer}.
+ *
+ * <p>Худший случай сравнивается с формулой для двух резисторов и с перебором
+ * крайних отклонений для смешанных плеч.</p>
+ */
+class ToleranceAnalyzerTest {
+
+    /**
+     * Проверяет худший случай двухрезисторного делителя: Vout наименьшее при
+     * увеличенном R1 и уменьшенном R2, наибольшее — наоборот.
+     */
+    @Test
+    void analyze_twoResistorWorstCaseShouldMatchFormula() {
+        double vIn = 12;
+        double r1 = 27_000;
+        double r2 = 10_000;
+        double t = 0.05;
+        DividerResult result = divider(Arm.resistor(r1), Arm.resistor(r2), vIn, 3.3);
+
+        ToleranceAnalysis analysis = new ToleranceAnalyzer().analyze(List.of(result), 5).get(0);
+
+        assertEquals(vIn * r2 * (1 - t) / (r1 * (1 + t) + r2 * (1 - t)), analysis.getWorstCaseMin(), 1e-12);
+        assertEquals(vIn * r2 * (1 + t) / (r1 * (1 - t) + r2 * (1 + t)), analysis.getWorstCaseMax(), 1e-12);
+        double vOut = vIn * r2 / (r1 + r2);
+        assertEquals(vOut, analysis.getMean(), 0.002, "Среднее Монте-Карло близко к номинальному Vout");
+        assertEquals(ToleranceAnalyzer.DEFAULT_SAMPLES, analysis.getSamples());
+    }
+
+    /**
+     * Проверяет, что худший случай смешанного делителя совпадает с перебором
+     * всех сочетаний крайних отклонений, а перцентили лежат между ними и не убывают.
+     */
+    @Test
+    void analyze_mixedArmsShouldMatchCornerEnumeration() {
+        double[] values = {4700, 2200, 3300, 10_000, 1500};
+        double vIn = 5;
+        double t = 0.01;
+        DividerResult result = divider(
+                Arm.series(List.of(Arm.resistor(values[0]),
+                        Arm.parallel(List.of(Arm.resistor(values[1]), Arm.resistor(values[2]))))),
+                Arm.parallel(List.of(Arm.resistor(values[3]), Arm.resistor(values[4]))),
+                vIn, 1.2);
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int mask = 0; mask < 1 << values.length; mask++) {
+            double[] r = new double[values.length];
+            for (int i = 0; i < r.length; i++) {
+                r[i] = values[i] * ((mask & (1 << i)) != 0 ? 1 + t : 1 - t);
+            }
+            double upper = r[0] + 1 / (1 / r[1] + 1 / r[2]);
+            double lower = 1 / (1 / r[3] + 1 / r[4]);
+            double vOut = vIn * lower / (upper + lower);
+            min = Math.min(min, vOut);
+            max = Math.max(max, vOut);
+        }
+
+        ToleranceAnalysis analysis = new ToleranceAnalyzer().analyze(List.of(result), 1, 50_000, 1).get(0);
+
+        assertEquals(min, analysis.getWorstCaseMin(), 1e-12);
+        assertEquals(max, analysis.getWorstCaseMax(), 1e-12);
+        double previous = analysis.getWorstCaseMin();
+        for (double p : new double[]{0, 0.01, 0.25, 0.5, 0.75, 0.99, 1}) {
+            double value = analysis.percentile(p);
+            assertTrue(value >= previous && value <= analysis.getWorstCaseMax(), "Перцентиль " + p);
+            previous = value;
+        }
+        assertTrue(analysis.percentile(0.01) > min && analysis.percentile(0.99) < max,
+                "Крайние сочетания маловероятны при равномерном распределении");
+    }
+
+    /**
+     * Проверяет, что при заданном зерне результат не зависит от числа потоков.
+     */
+    @Test
+    void analyze_shouldNotDependOnParallelism() {
+        List<DividerResult> results = newService().findDividerCombinations(
+                12, 3.3, 1, ResistorSeries.E24, 1000, 100_000, 20);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            List<ToleranceAnalysis> expected = new ToleranceAnalyzer(single).analyze(results, 5, 200_000, 42);
+            List<ToleranceAnalysis> actual = new ToleranceAnalyzer(parallel).analyze(results, 5, 200_000, 42);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertSame(results.get(i), actual.get(i).getResult());
+                assertEquals(expected.get(i).getMean(), actual.get(i).getMean(), 1e-12);
+                assertEquals(expected.get(i).getStandardDeviation(), actual.get(i).getStandardDeviation(), 1e-12);
+                assertEquals(expected.get(i).percentile(0.99), actual.get(i).percentile(0.99));
+            }
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    /**
+     * Проверяет упорядочивание по погрешности в худшем случае.
+     */
+    @Test
+    void rankByWorstCase_shouldSortByWorstCaseError() {
+        List<DividerResult> results = newService().findDividerCombinations(
+                12, 3.3, 2, ResistorSeries.E24, 1000, 100_000, 30);
+
+        List<ToleranceAnalysis> ranked = ToleranceAnalyzer.rankByWorstCase(
+                new ToleranceAnalyzer().analyze(results, 1, 1000, 1));
+
+        assertEquals(results.size(), ranked.size());
+        for (int i = 1; i < ranked.size(); i++) {
+            assertTrue(ranked.get(i - 1).getWorstCaseErrorPercent() <= ranked.get(i).getWorstCaseErrorPercent());
+        }
+        for (ToleranceAnalysis analysis : ranked) {
+            assertTrue(analysis.getWorstCaseErrorPercent() >= analysis.getResult().getErrorPercent(),
+                    "Худший случай не лучше номинала");
+        }
+    }
+
+    private static VoltageDividerService newService() {
+        return new VoltageDividerService(ForkJoinPool.commonPool(), new DividerQueryCache(0));
+    }
+
+    private static DividerResult divider(Arm upper, Arm lower, double vIn, double vOutRequired) {
+        double r1 = upper.getResistance();
+        double r2 = lower.getResistance();
+        return new DividerResult(upper, lower, vIn, vIn * r2 / (r1 + r2), vOutRequired);
+    }
+}
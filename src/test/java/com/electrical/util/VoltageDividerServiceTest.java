@@ -0,0 +1,548 @@
+package com.electrical.util;
+
+import com.electrical.model.DividerConstraints;
+import com.electrical.model.DividerResult;
+import com.electrical.model.DividerSearchMode;
+import com.electrical.model.DividerSearchResult;
+import com.electrical.model.ResistorSeries;
+import com.electrical.service.CancellationToken;
+import com.electrical.service.DividerQueryCache;
+import com.electrical.service.VoltageDividerService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модульные тесты для сервиса {@link VoltageDividerService}.
+ *
+ * <p>Результаты поиска сравниваются с полным перебором пар резисторов.</p>
+ */
+class VoltageDividerServiceTest {
+
+    /**
+     * Проверяет, что поиск двухрезисторных делителей находит ровно те пары,
+     * которые находит полный перебор.
+     */
+    @Test
+    void findDividerCombinations_twoResistorsShouldMatchBruteForce() {
+        VoltageDividerService service = newService();
+        double vIn = 5.0;
+        double vOut = 3.3;
+        double tolerance = 1.0;
+        double[] values = ResistorSeries.E24.getValuesInRange(1000, 100_000);
+
+        List<DividerResult> results = service.findDividerCombinations(
+                vIn, vOut, tolerance, ResistorSeries.E24, 1000, 100_000, Integer.MAX_VALUE);
+
+        long expected = 0;
+        for (double r1 : values) {
+            for (double r2 : values) {
+                double error = Math.abs((service.calculateVout(vIn, r1, r2) - vOut) / vOut) * 100;
+                if (error <= tolerance) {
+                    expected++;
+                }
+            }
+        }
+        long actual = results.stream().filter(r -> r.getTotalResistorCount() == 2).count();
+
+        assertTrue(expected > 0, "Для выбранных параметров должны существовать решения");
+        assertEquals(expected, actual,
+                "Количество двухрезисторных решений должно совпадать с полным перебором");
+    }
+
+    /**
+     * Проверяет, что все найденные решения укладываются в допуск и отсортированы.
+     */
+    @Test
+    void findDividerCombinations_resultsShouldBeWithinToleranceAndSorted() {
+        VoltageDividerService service = newService();
+
+        List<DividerResult> results = service.findDividerCombinations(
+                12.0, 5.0, 0.5, ResistorSeries.E12, 1000, 100_000, 100);
+
+        assertFalse(results.isEmpty(), "Должна быть найдена хотя бы одна комбинация");
+        for (int i = 0; i < results.size(); i++) {
+            assertTrue(results.get(i).getErrorPercent() <= 0.5,
+                    "Погрешность не должна превышать допуск");
+            if (i > 0) {
+                assertTrue(results.get(i - 1).compareTo(results.get(i)) <= 0,
+                        "Результаты должны быть отсортированы");
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что поиск четырёхрезисторных делителей перебирает все
+     * неупорядоченные пары в обоих плечах, без прореживания номиналов,
+     * кроме пар, сопротивление которых равно одному из номиналов.
+     */
+    @Test
+    void findDividerCombinations_fourResistorsShouldBeExhaustive() {
+        VoltageDividerService service = newService();
+        double vIn = 12.0;
+        double vOut = 5.0;
+        double tolerance = 0.5;
+        double[] values = ResistorSeries.E12.getValuesInRange(1000, 100_000);
+
+        List<DividerResult> results = service.findDividerCombinations(
+                vIn, vOut, tolerance, ResistorSeries.E12, 1000, 100_000, Integer.MAX_VALUE);
+
+        long expected = 0;
+        for (int i = 0; i < values.length; i++) {
+            for (int j = i; j < values.length; j++) {
+                double[] upper = {values[i] + values[j], values[i] * values[j] / (values[i] + values[j])};
+                for (int k = 0; k < values.length; k++) {
+                    for (int l = k; l < values.length; l++) {
+                        double[] lower = {values[k] + values[l], values[k] * values[l] / (values[k] + values[l])};
+                        for (double r1 : upper) {
+                            for (double r2 : lower) {
+                                if (isStandardValue(values, r1) || isStandardValue(values, r2)) {
+                                    continue;
+                                }
+                                double error = Math.abs((service.calculateVout(vIn, r1, r2) - vOut) / vOut) * 100;
+                                if (error <= tolerance) {
+                                    expected++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        long actual = results.stream().filter(r -> r.getTotalResistorCount() == 4).count();
+
+        assertEquals(expected, actual,
+                "Количество четырёхрезисторных решений должно совпадать с полным перебором");
+    }
+
+    /**
+     * Проверяет, что ограниченная выборка совпадает с началом полного
+     * отсортированного списка результатов.
+     */
+    @Test
+    void findDividerCombinations_limitedResultsShouldBePrefixOfFullList() {
+        VoltageDividerService service = newService();
+
+        List<DividerResult> all = service.findDividerCombinations(
+                12.0, 5.0, 1.0, ResistorSeries.E12, 1000, 100_000, Integer.MAX_VALUE);
+        List<DividerResult> limited = service.findDividerCombinations(
+                12.0, 5.0, 1.0, ResistorSeries.E12, 1000, 100_000, 20);
+
+        assertEquals(20, limited.size(), "Должно вернуться ровно запрошенное количество результатов");
+        for (int i = 0; i < limited.size(); i++) {
+            assertEquals(all.get(i).toString(), limited.get(i).toString(),
+                    "Ограниченная выборка должна совпадать с началом полного списка");
+        }
+    }
+
+    /**
+     * Проверяет, что параллельный поиск возвращает тот же список,
+     * что и поиск в одном потоке.
+     */
+    @Test
+    void findDividerCombinations_parallelShouldMatchSequential() {
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        ForkJoinPool multiThread = new ForkJoinPool(4);
+        try {
+            List<DividerResult> sequential = new VoltageDividerService(singleThread, new DividerQueryCache(0)).findDividerCombinations(
+                    5.0, 3.3, 2.0, ResistorSeries.E24, 100, 100_000, 500);
+            List<DividerResult> parallel = new VoltageDividerService(multiThread, new DividerQueryCache(0)).findDividerCombinations(
+                    5.0, 3.3, 2.0, ResistorSeries.E24, 100, 100_000, 500);
+
+            assertEquals(sequential.size(), parallel.size(), "Количество результатов должно совпадать");
+            for (int i = 0; i < sequential.size(); i++) {
+                assertEquals(sequential.get(i).toString(), parallel.get(i).toString(),
+                        "Порядок результатов не должен зависеть от числа потоков");
+            }
+        } finally {
+            singleThread.shutdown();
+            multiThread.shutdown();
+        }
+    }
+
+    /**
+     * Проверяет, что потоковый поиск публикует улучшающиеся списки,
+     * последний из которых совпадает с результатом обычного поиска.
+     */
+    @Test
+    void streamDividerCombinations_lastSnapshotShouldMatchBatchResult() throws Exception {
+        VoltageDividerService service = newService();
+        List<DividerResult> expected = service.findDividerCombinations(
+                12.0, 5.0, 1.0, ResistorSeries.E12, 1000, 100_000, 50);
+
+        List<DividerSearchResult> snapshots = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        service.streamDividerCombinations(
+                        12.0, 5.0, 1.0, ResistorSeries.E12, 1000, 100_000, 50, CancellationToken.create())
+                .subscribe(new Flow.Subscriber<>() {
+                    private Flow.Subscription subscription;
+
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        this.subscription = subscription;
+                        subscription.request(1);
+                    }
+
+                    @Override
+                    public void onNext(DividerSearchResult snapshot) {
+                        snapshots.add(snapshot);
+                        subscription.request(1);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        completed.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        completed.complete(null);
+                    }
+                });
+        completed.get(30, TimeUnit.SECONDS);
+
+        assertFalse(snapshots.isEmpty(), "Должен быть опубликован хотя бы один список");
+        DividerSearchResult lastSnapshot = snapshots.get(snapshots.size() - 1);
+        assertFalse(lastSnapshot.isTruncated(), "Завершённый поиск не должен быть помечен как неполный");
+        List<DividerResult> last = lastSnapshot.getResults();
+        assertEquals(expected.size(), last.size(), "Итоговый список должен совпадать с обычным поиском");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), last.get(i).toString(),
+                    "Итоговый список должен совпадать с обычным поиском");
+        }
+    }
+
+    /**
+     * Проверяет, что отменённый поиск завершается и помечает результат как неполный.
+     */
+    @Test
+    void findDividerCombinations_cancelledSearchShouldBeTruncated() {
+        VoltageDividerService service = newService();
+        CancellationToken token = CancellationToken.create();
+        token.cancel();
+
+        DividerSearchResult result = service.findDividerCombinations(
+                12.0, 5.0, 1.0, ResistorSeries.E24, 100, 1_000_000, 100, token);
+
+        assertTrue(result.isTruncated(), "Отменённый поиск должен быть помечен как неполный");
+        assertTrue(result.size() <= 100, "Количество результатов не должно превышать запрошенное");
+    }
+
+    /**
+     * Проверяет, что поиск без ограничения по времени не помечается как неполный.
+     */
+    @Test
+    void findDividerCombinations_completedSearchShouldNotBeTruncated() {
+        VoltageDividerService service = newService();
+
+        DividerSearchResult result = service.findDividerCombinations(
+                12.0, 5.0, 1.0, ResistorSeries.E12, 1000, 100_000, 100,
+                CancellationToken.withTimeout(Duration.ofMinutes(5)));
+
+        assertFalse(result.isTruncated(), "Завершённый поиск не должен быть помечен как неполный");
+        assertEquals(100, result.size(), "Должно вернуться запрошенное количество результатов");
+    }
+
+    /**
+     * Проверяет, что в результатах нет плеч из двух резисторов, равных
+     * одиночному номиналу, и нет повторяющихся комбинаций.
+     */
+    @Test
+    void findDividerCombinations_resultsShouldBeDistinct() {
+        VoltageDividerService service = newService();
+        double[] values = ResistorSeries.E24.getValuesInRange(1000, 100_000);
+
+        List<DividerResult> results = service.findDividerCombinations(
+                12.0, 5.0, 1.0, ResistorSeries.E24, 1000, 100_000, Integer.MAX_VALUE);
+
+        Set<String> seen = new HashSet<>();
+        for (DividerResult result : results) {
+            if (result.getUpperResistorCount() > 1) {
+                assertFalse(isStandardValue(values, result.getUpperResistance()),
+                        "Верхнее плечо не должно заменяться одним резистором: " + result);
+            }
+            if (result.getLowerResistorCount() > 1) {
+                assertFalse(isStandardValue(values, result.getLowerResistance()),
+                        "Нижнее плечо не должно заменяться одним резистором: " + result);
+            }
+            assertTrue(seen.add(result.getUpperResistorsString() + "/" + result.getLowerResistorsString()),
+                    "Комбинации не должны повторяться: " + result);
+        }
+    }
+
+    private static boolean isStandardValue(double[] values, double resistance) {
+        for (double value : values) {
+            if (Math.abs(value - resistance) <= resistance * 1e-9) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Проверяет, что повторный запрос с тем же отношением напряжений
+     * берётся из кэша и пересчитывается для нового входного напряжения.
+     */
+    @Test
+    void findDividerCombinations_cachedResultShouldBeRescaledForNewVin() {
+        DividerQueryCache cache = new DividerQueryCache(8);
+        VoltageDividerService service = new VoltageDividerService(ForkJoinPool.commonPool(), cache);
+
+        service.findDividerCombinations(5.0, 2.5, 1.0, ResistorSeries.E12, 1000, 100_000, 50);
+        assertEquals(1, cache.size(), "Результат поиска должен попасть в кэш");
+
+        List<DividerResult> cached = service.findDividerCombinations(
+                10.0, 5.0, 1.0, ResistorSeries.E12, 1000, 100_000, 30);
+        List<DividerResult> expected = newService().findDividerCombinations(
+                10.0, 5.0, 1.0, ResistorSeries.E12, 1000, 100_000, 30);
+
+        assertEquals(1, cache.size(), "Запрос с тем же отношением не должен создавать новую запись");
+        assertEquals(expected.size(), cached.size(), "Количество результатов должно совпадать с поиском");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), cached.get(i).toString(),
+                    "Результат из кэша должен совпадать с новым поиском");
+            assertEquals(10.0, cached.get(i).getVIn(), 0.0, "Результат должен быть пересчитан для нового Vin");
+        }
+    }
+
+    /**
+     * Проверяет, что кэш не хранит больше записей, чем разрешено, и
+     * вытесняет давно не использованные запросы.
+     */
+    @Test
+    void findDividerCombinations_cacheShouldEvictLeastRecentlyUsed() {
+        DividerQueryCache cache = new DividerQueryCache(2);
+        VoltageDividerService service = new VoltageDividerService(ForkJoinPool.commonPool(), cache);
+
+        service.findDividerCombinations(12.0, 5.0, 1.0, ResistorSeries.E6, 1000, 100_000, 10);
+        service.findDividerCombinations(12.0, 3.3, 1.0, ResistorSeries.E6, 1000, 100_000, 10);
+        service.findDividerCombinations(12.0, 5.0, 1.0, ResistorSeries.E6, 1000, 100_000, 10);
+        service.findDividerCombinations(12.0, 1.8, 1.0, ResistorSeries.E6, 1000, 100_000, 10);
+
+        assertEquals(2, cache.size(), "Размер кэша не должен превышать заданный");
+        assertNotNull(cache.get(12.0, 5.0, 1.0, ResistorSeries.E6, 1000, 100_000,
+                        VoltageDividerService.DEFAULT_MAX_RESISTORS, 10),
+                "Недавно использованный запрос должен остаться в кэше");
+        assertNull(cache.get(12.0, 3.3, 1.0, ResistorSeries.E6, 1000, 100_000,
+                        VoltageDividerService.DEFAULT_MAX_RESISTORS, 10),
+                "Давно не использованный запрос должен быть вытеснен");
+    }
+
+    /**
+     * Проверяет, что поиск смешанных соединений находит все делители
+     * классического поиска и добавляет к ним новые, в том числе со
+     * смешанными плечами, без повторов.
+     */
+    @Test
+    void findDividerCombinations_networkSearchShouldExtendClassicResults() {
+        VoltageDividerService service = newService();
+
+        List<DividerResult> classic = service.findDividerCombinations(
+                12.0, 5.0, 0.5, ResistorSeries.E6, 1000, 100_000, Integer.MAX_VALUE);
+        DividerSearchResult network = service.findDividerCombinations(
+                12.0, 5.0, 0.5, ResistorSeries.E6, 1000, 100_000, Integer.MAX_VALUE, 5, CancellationToken.create());
+
+        Set<String> found = new HashSet<>();
+        boolean mixed = false;
+        for (DividerResult result : network.getResults()) {
+            assertTrue(result.getErrorPercent() <= 0.5, "Погрешность не должна превышать допуск: " + result);
+            assertTrue(result.getTotalResistorCount() <= 5, "Резисторов не должно быть больше 5: " + result);
+            assertTrue(found.add(result.getUpperResistorsString() + "/" + result.getLowerResistorsString()),
+                    "Комбинации не должны повторяться: " + result);
+            mixed |= result.isMixedTopology();
+        }
+        for (DividerResult result : classic) {
+            assertTrue(found.contains(result.getUpperResistorsString() + "/" + result.getLowerResistorsString()),
+                    "Делитель классического поиска должен быть найден: " + result);
+        }
+        assertTrue(network.size() > classic.size(), "Должны появиться новые комбинации");
+        assertTrue(mixed, "Должны найтись плечи смешанного соединения");
+    }
+
+    /**
+     * Проверяет, что результаты поиска смешанных соединений отсортированы,
+     * а сопротивления плеч соответствуют их схеме.
+     */
+    @Test
+    void findDividerCombinations_networkResultsShouldBeSortedAndConsistent() {
+        VoltageDividerService service = newService();
+
+        List<DividerResult> results = service.findDividerCombinations(
+                12.0, 3.1234, 1.0, ResistorSeries.E12, 1000, 100_000, 200, 6, CancellationToken.create()).getResults();
+
+        assertEquals(200, results.size(), "Должно быть найдено заданное количество результатов");
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i - 1).compareTo(results.get(i)) <= 0,
+                    "Результаты должны быть отсортированы");
+        }
+        for (DividerResult result : results) {
+            double vOut = service.calculateVout(12.0, result.getUpperArm().getResistance(),
+                    result.getLowerArm().getResistance());
+            assertEquals(vOut, result.getVOutActual(), 1e-12, "Vout должно соответствовать схеме плеч");
+        }
+    }
+
+    /**
+     * Проверяет, что параллельный поиск смешанных соединений возвращает тот
+     * же список, что и поиск в одном потоке.
+     */
+    @Test
+    void findDividerCombinations_networkParallelShouldMatchSequential() {
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        ForkJoinPool multiThread = new ForkJoinPool(4);
+        try {
+            DividerSearchResult sequential = new VoltageDividerService(singleThread, new DividerQueryCache(0))
+                    .findDividerCombinations(5.0, 3.3, 2.0, ResistorSeries.E12, 100, 100_000, 300, 6,
+                            CancellationToken.create());
+            DividerSearchResult parallel = new VoltageDividerService(multiThread, new DividerQueryCache(0))
+                    .findDividerCombinations(5.0, 3.3, 2.0, ResistorSeries.E12, 100, 100_000, 300, 6,
+                            CancellationToken.create());
+
+            assertEquals(sequential.size(), parallel.size(), "Количество результатов должно совпадать");
+            for (int i = 0; i < sequential.size(); i++) {
+                assertEquals(sequential.getResults().get(i).toString(), parallel.getResults().get(i).toString(),
+                        "Порядок результатов не должен зависеть от числа потоков");
+            }
+        } finally {
+            singleThread.shutdown();
+            multiThread.shutdown();
+        }
+    }
+
+    /**
+     * Проверяет, что Парето-фронт не содержит доминируемых комбинаций и
+     * покрывает все комбинации полного перебора: каждая из них не лучше
+     * какой-либо комбинации фронта.
+     */
+    @Test
+    void findDividerCombinations_paretoFrontShouldCoverAllCombinations() {
+        assertParetoFront(4);
+    }
+
+    /**
+     * Проверяет Парето-фронт поиска смешанных соединений.
+     */
+    @Test
+    void findDividerCombinations_networkParetoFrontShouldCoverAllCombinations() {
+        assertParetoFront(5);
+    }
+
+    /**
+     * Проверяет, что Парето-фронт не зависит от числа потоков.
+     */
+    @Test
+    void findDividerCombinations_paretoParallelShouldMatchSequential() {
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        ForkJoinPool multiThread = new ForkJoinPool(4);
+        try {
+            for (int maxResistors : new int[] {4, 5}) {
+                DividerSearchResult sequential = new VoltageDividerService(singleThread, new DividerQueryCache(0))
+                        .findDividerCombinations(5.0, 3.3, 2.0, ResistorSeries.E12, 100, 100_000, 10, maxResistors,
+                                DividerSearchMode.PARETO, CancellationToken.create());
+                DividerSearchResult parallel = new VoltageDividerService(multiThread, new DividerQueryCache(0))
+                        .findDividerCombinations(5.0, 3.3, 2.0, ResistorSeries.E12, 100, 100_000, 10, maxResistors,
+                                DividerSearchMode.PARETO, CancellationToken.create());
+
+                assertEquals(sequential.size(), parallel.size(), "Размер фронта должен совпадать");
+                for (int i = 0; i < sequential.size(); i++) {
+                    assertEquals(sequential.getResults().get(i).toString(), parallel.getResults().get(i).toString(),
+                            "Фронт не должен зависеть от числа потоков");
+                }
+            }
+        } finally {
+            singleThread.shutdown();
+            multiThread.shutdown();
+        }
+    }
+
+    private static void assertParetoFront(int maxResistors) {
+        VoltageDividerService service = newService();
+        List<DividerResult> front = service.findDividerCombinations(12.0, 3.3, 1.0, ResistorSeries.E12,
+                1000, 100_000, 1, maxResistors, DividerSearchMode.PARETO, CancellationToken.create()).getResults();
+        List<DividerResult> all = service.findDividerCombinations(12.0, 3.3, 1.0, ResistorSeries.E12,
+                1000, 100_000, Integer.MAX_VALUE, maxResistors, CancellationToken.create()).getResults();
+
+        assertTrue(front.size() > 1, "Фронт должен содержать несколько компромиссов");
+        assertTrue(front.size() < all.size(), "Фронт должен быть меньше полного списка");
+        for (int i = 1; i < front.size(); i++) {
+            assertTrue(front.get(i - 1).compareTo(front.get(i)) <= 0, "Фронт должен быть отсортирован");
+        }
+        for (DividerResult a : front) {
+            for (DividerResult b : front) {
+                assertFalse(a != b && notWorse(a, b) && !notWorse(b, a),
+                        "Комбинация фронта не должна доминировать над другой: " + a + " / " + b);
+            }
+        }
+        for (DividerResult result : all) {
+            assertTrue(front.stream().anyMatch(member -> notWorse(member, result)),
+                    "Комбинация должна быть покрыта фронтом: " + result);
+        }
+    }
+
+    /**
+     * a не хуже b по погрешности, количеству резисторов и мощности
+     */
+    private static boolean notWorse(DividerResult a, DividerResult b) {
+        return a.getErrorPercent() <= b.getErrorPercent() + 1e-12
+                && a.getTotalResistorCount() <= b.getTotalResistorCount()
+                && a.getPowerDissipation() <= b.getPowerDissipation() * (1 + 1e-12);
+    }
+
+    /**
+     * Проверяет, что поиск с электрическими ограничениями возвращает начало
+     * списка всех комбинаций, удовлетворяющих ограничениям, и что кэш не
+     * подменяет его результатом запроса без ограничений.
+     */
+    @Test
+    void findDividerCombinations_constraintsShouldMatchFilteredFullList() {
+        assertConstrainedSearch(4);
+    }
+
+    /**
+     * Проверяет ограничения в поиске смешанных соединений.
+     */
+    @Test
+    void findDividerCombinations_networkConstraintsShouldMatchFilteredFullList() {
+        assertConstrainedSearch(5);
+    }
+
+    private static void assertConstrainedSearch(int maxResistors) {
+        // Ток до 1 мА при 12 В: R1 + R2 от 12 кОм; выход для АЦП не больше 3,3 кОм
+        DividerConstraints constraints = new DividerConstraints(1e-3, Double.POSITIVE_INFINITY, 0, 3300);
+        VoltageDividerService service = new VoltageDividerService(
+                ForkJoinPool.commonPool(), new DividerQueryCache(16));
+
+        List<DividerResult> all = service.findDividerCombinations(12.0, 3.3, 1.0, ResistorSeries.E12,
+                1000, 100_000, Integer.MAX_VALUE, maxResistors, CancellationToken.create()).getResults();
+        List<DividerResult> expected = all.stream()
+                .filter(r -> r.getCurrent() <= 1e-3 && r.getOutputResistance() <= 3300)
+                .limit(20)
+                .toList();
+        List<DividerResult> constrained = service.findDividerCombinations(12.0, 3.3, 1.0, ResistorSeries.E12,
+                1000, 100_000, 20, maxResistors, DividerSearchMode.BEST, constraints,
+                CancellationToken.create()).getResults();
+
+        assertEquals(20, expected.size(), "Ограничениям должны удовлетворять хотя бы 20 комбинаций");
+        assertTrue(all.subList(0, 20).stream().anyMatch(r -> r.getOutputResistance() > 3300),
+                "Без ограничений лучшие комбинации должны нарушать ограничение");
+        assertEquals(expected.size(), constrained.size(), "Количество результатов должно совпадать");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), constrained.get(i).toString(),
+                    "Результаты должны совпадать с отфильтрованным полным списком");
+        }
+    }
+
+    private static VoltageDividerService newService() {
+        return new VoltageDividerService(ForkJoinPool.commonPool(), new DividerQueryCache(0));
+    }
+}